@@ -0,0 +1,86 @@
+package com.junowrapper.benchmark;
+
+import com.junowrapper.codec.AvroCodec;
+import com.junowrapper.codec.BaseCodec;
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.codec.KryoCodec;
+import com.junowrapper.codec.LZ4Codec;
+import com.junowrapper.codec.OMCodec;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize/deserialize throughput of every {@link BaseCodec} across payload sizes.
+ * <p>
+ * Run with {@code -prof gc} to get the allocation rate per operation ({@code gc.alloc.rate.norm}); the serialized
+ * payload size of each combination is printed once per trial.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    @Param({"kryo", "default", "jackson", "smile", "cbor", "avro", "kryo-lz4", "kryo-lz4hc"})
+    public String codecName;
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    public Payloads.Size size;
+
+    private BaseCodec codec;
+    private Payloads.Order payload;
+    private byte[] serialized;
+    private ByteBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = codec(codecName);
+        payload = Payloads.create(size);
+        serialized = codec.serialize(payload);
+        buffer = ByteBuffer.allocate(serialized.length * 2);
+        System.out.printf("%n[payload] codec=%s size=%s bytes=%d%n", codecName, size, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return codec.serialize(payload);
+    }
+
+    @Benchmark
+    public int serializeIntoBuffer() {
+        buffer.clear();
+        return codec.serialize(payload, buffer);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return codec.deserialize(serialized, Payloads.Order.class);
+    }
+
+    static BaseCodec codec(String name) {
+        switch (name) {
+            case "kryo":
+                return new KryoCodec();
+            case "default":
+                return new DefaultCodec();
+            case "jackson":
+                return new OMCodec();
+            case "smile":
+                return new OMCodec(OMCodec.Format.SMILE);
+            case "cbor":
+                return new OMCodec(OMCodec.Format.CBOR);
+            case "avro":
+                return new AvroCodec();
+            case "kryo-lz4":
+                return new LZ4Codec(new KryoCodec(), LZ4Codec.DEFAULT_THRESHOLD, LZ4Codec.Mode.FAST);
+            case "kryo-lz4hc":
+                return new LZ4Codec(new KryoCodec(), LZ4Codec.DEFAULT_THRESHOLD, LZ4Codec.Mode.HIGH);
+            default:
+                throw new IllegalArgumentException("Unknown codec: " + name);
+        }
+    }
+}
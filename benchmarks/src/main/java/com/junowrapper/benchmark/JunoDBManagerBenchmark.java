@@ -0,0 +1,64 @@
+package com.junowrapper.benchmark;
+
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the {@link JunoDBManager} hot paths (key/value encoding, request building, response decoding) against an
+ * in-process {@link JunoClientSimulator} with no injected latency, so the numbers exclude network time and need no
+ * Juno proxy.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JunoDBManagerBenchmark {
+
+    @Param({"kryo", "default", "jackson"})
+    public String codecName;
+
+    @Param({"SMALL", "MEDIUM"})
+    public Payloads.Size size;
+
+    @Param({"100"})
+    public int batchSize;
+
+    private JunoDBManager junoDBManager;
+    private Payloads.Order payload;
+    private List<String> keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        junoDBManager = new JunoDBManager(new JunoClientSimulator(new JunoDBConfig("127.0.0.1", 8080, "benchmark", "benchmark")), CodecBenchmark.codec(codecName));
+        payload = Payloads.create(size);
+        keys = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String key = "bench:" + i;
+            keys.add(key);
+            junoDBManager.create(key, payload);
+        }
+    }
+
+    @Benchmark
+    public Object get() {
+        return junoDBManager.get(keys.get(0), Payloads.Order.class);
+    }
+
+    @Benchmark
+    public boolean create() {
+        return junoDBManager.create(keys.get(0), payload);
+    }
+
+    @Benchmark
+    public List<Payloads.Order> getAll() {
+        return junoDBManager.getAll(keys, Payloads.Order.class);
+    }
+}
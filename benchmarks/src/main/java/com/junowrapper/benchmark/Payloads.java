@@ -0,0 +1,150 @@
+package com.junowrapper.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Object graphs used by the benchmarks. Every type is a plain bean with a no-arg constructor so it works with
+ * {@link com.junowrapper.codec.DefaultCodec}, {@link com.junowrapper.codec.KryoCodec} and
+ * {@link com.junowrapper.codec.OMCodec} alike.
+ */
+public final class Payloads {
+
+    public enum Size {
+        /** A single flat record, a few hundred bytes. */
+        SMALL(1),
+        /** A record with ~100 nested items, tens of KB. */
+        MEDIUM(100),
+        /** A record with enough nested items to pass 1MB once serialized. */
+        LARGE(12_000);
+
+        private final int items;
+
+        Size(int items) {
+            this.items = items;
+        }
+
+        public int getItems() {
+            return items;
+        }
+    }
+
+    private Payloads() {
+    }
+
+    public static Order create(Size size) {
+        Order order = new Order();
+        order.setId(42L);
+        order.setCustomer("customer-42@example.com");
+        order.setCurrency("USD");
+        order.setAttributes(new HashMap<>());
+        order.getAttributes().put("channel", "web");
+        order.getAttributes().put("region", "us-west-2");
+
+        List<LineItem> items = new ArrayList<>(size.getItems());
+        for (int i = 0; i < size.getItems(); i++) {
+            LineItem item = new LineItem();
+            item.setSku("SKU-" + i);
+            item.setDescription("Line item number " + i + " of a benchmark order payload");
+            item.setQuantity(i % 7 + 1);
+            item.setPriceInCents(1999L + i);
+            items.add(item);
+        }
+        order.setItems(items);
+        return order;
+    }
+
+    public static class Order implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private long id;
+        private String customer;
+        private String currency;
+        private Map<String, String> attributes;
+        private List<LineItem> items;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(String customer) {
+            this.customer = customer;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public void setCurrency(String currency) {
+            this.currency = currency;
+        }
+
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+
+        public void setAttributes(Map<String, String> attributes) {
+            this.attributes = attributes;
+        }
+
+        public List<LineItem> getItems() {
+            return items;
+        }
+
+        public void setItems(List<LineItem> items) {
+            this.items = items;
+        }
+    }
+
+    public static class LineItem implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String sku;
+        private String description;
+        private int quantity;
+        private long priceInCents;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public long getPriceInCents() {
+            return priceInCents;
+        }
+
+        public void setPriceInCents(long priceInCents) {
+            this.priceInCents = priceInCents;
+        }
+    }
+}
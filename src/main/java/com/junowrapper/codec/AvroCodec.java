@@ -1,18 +1,216 @@
 package com.junowrapper.codec;
 
-public class AvroCodec extends BaseCodec{
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.avro.reflect.ReflectData;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.apache.avro.specific.SpecificData;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.avro.specific.SpecificRecord;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Avro binary codec. Schemas come from generated {@link SpecificRecord} classes or, for plain classes, from reflection,
+ * and are cached per class together with their datum writer and reader. Values carry no field names or class names,
+ * only the Avro single-object header:
+ * <pre>
+ * [0xC3 0x01][8 byte little-endian CRC-64-AVRO fingerprint of the writer schema][payload]
+ * </pre>
+ * A record written with an older schema of a class is resolved against the current one, as long as the older schema
+ * was made known through {@link #registerSchema(Schema)}. Records with an unknown fingerprint fail to decode.
+ */
+public class AvroCodec extends BaseCodec {
+
+    public static final int HEADER_SIZE = 10;
+    private static final byte MAGIC_0 = (byte) 0xC3;
+    private static final byte MAGIC_1 = (byte) 0x01;
+
+    private final ConcurrentHashMap<Class<?>, ClassSchema> classSchemas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Schema> writerSchemas = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ResolverKey, DatumReader<?>> resolvingReaders = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<BinaryEncoder> encoders = new ThreadLocal<>();
+    private final ThreadLocal<BinaryDecoder> decoders = new ThreadLocal<>();
+
+    /**
+     * Make a writer schema known so records written with it can be read, e.g. the previous schema of a class whose
+     * fields changed.
+     *
+     * @param schema - Writer schema of existing records
+     * @return this codec, for chaining
+     */
+    public AvroCodec registerSchema(Schema schema) {
+        writerSchemas.putIfAbsent(SchemaNormalization.parsingFingerprint64(schema), schema);
+        return this;
+    }
+
+    /**
+     * @return the schema this codec writes for the given class
+     */
+    public Schema getSchema(Class<?> type) {
+        return classSchema(type).schema;
+    }
+
+    public Map<Long, Schema> getWriterSchemas() {
+        return Collections.unmodifiableMap(writerSchemas);
+    }
+
     @Override
     public <T> byte[] serialize(T object) {
-        return new byte[0];
+        return serialize(object, (Class<T>) object.getClass());
     }
 
     @Override
     public <T> byte[] serialize(T object, Class<T> tClass) {
-        return new byte[0];
+        CodecBuffers.Output output = write(object, tClass);
+        return output == null ? new byte[0] : output.toByteArray();
+    }
+
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        CodecBuffers.Output output = write(object, (Class<T>) object.getClass());
+        if (output == null) {
+            return 0;
+        }
+        if (output.size() > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        output.writeTo(buffer);
+        return output.size();
+    }
+
+    private <T> CodecBuffers.Output write(T object, Class<T> tClass) {
+        try {
+            ClassSchema classSchema = classSchema(tClass);
+            CodecBuffers.Output output = CodecBuffers.output();
+            output.write(MAGIC_0);
+            output.write(MAGIC_1);
+            long fingerprint = classSchema.fingerprint;
+            for (int i = 0; i < Long.BYTES; i++) {
+                output.write((int) (fingerprint >>> (8 * i)));
+            }
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(output, encoders.get());
+            encoders.set(encoder);
+            ((DatumWriter<T>) classSchema.writer).write(object, encoder);
+            encoder.flush();
+            return output;
+        } catch (Exception e) {
+            System.out.println("Error fail to serialize(): " + e);
+            return null;
+        }
     }
 
     @Override
     public <T> T deserialize(byte[] _arr, Class<T> tClass) {
-        return null;
+        if (_arr == null) {
+            System.out.println("Error fail to deserialize(): null input");
+            return null;
+        }
+        return deserialize(_arr, 0, _arr.length, tClass);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        try {
+            if (length < HEADER_SIZE || _arr[offset] != MAGIC_0 || _arr[offset + 1] != MAGIC_1) {
+                System.out.println("Error fail to deserialize(): not an Avro single-object record");
+                return null;
+            }
+            long fingerprint = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                fingerprint |= (_arr[offset + 2 + i] & 0xFFL) << (8 * i);
+            }
+
+            ClassSchema classSchema = classSchema(tClass);
+            DatumReader<T> reader = (DatumReader<T>) (fingerprint == classSchema.fingerprint
+                    ? classSchema.reader
+                    : resolvingReader(fingerprint, tClass, classSchema));
+            if (reader == null) {
+                System.out.println("Error fail to deserialize(): unknown writer schema fingerprint " + fingerprint);
+                return null;
+            }
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(_arr, offset + HEADER_SIZE, length - HEADER_SIZE, decoders.get());
+            decoders.set(decoder);
+            return reader.read(null, decoder);
+        } catch (Exception e) {
+            System.out.println("Error fail to deserialize(): " + e);
+            return null;
+        }
+    }
+
+    private DatumReader<?> resolvingReader(long fingerprint, Class<?> type, ClassSchema classSchema) {
+        Schema writerSchema = writerSchemas.get(fingerprint);
+        if (writerSchema == null) {
+            return null;
+        }
+        return resolvingReaders.computeIfAbsent(new ResolverKey(fingerprint, type), k ->
+                SpecificRecord.class.isAssignableFrom(type)
+                        ? new SpecificDatumReader<>(writerSchema, classSchema.schema)
+                        : new ReflectDatumReader<>(writerSchema, classSchema.schema));
+    }
+
+    private ClassSchema classSchema(Class<?> type) {
+        return classSchemas.computeIfAbsent(type, t -> {
+            ClassSchema classSchema = new ClassSchema(t);
+            writerSchemas.putIfAbsent(classSchema.fingerprint, classSchema.schema);
+            return classSchema;
+        });
+    }
+
+    private static final class ClassSchema {
+        private final Schema schema;
+        private final long fingerprint;
+        private final DatumWriter<?> writer;
+        private final DatumReader<?> reader;
+
+        private ClassSchema(Class<?> type) {
+            if (SpecificRecord.class.isAssignableFrom(type)) {
+                schema = SpecificData.get().getSchema(type);
+                writer = new SpecificDatumWriter<>(schema);
+                reader = new SpecificDatumReader<>(schema);
+            } else {
+                schema = ReflectData.get().getSchema(type);
+                writer = new ReflectDatumWriter<>(schema);
+                reader = new ReflectDatumReader<>(schema);
+            }
+            fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        }
+    }
+
+    private static final class ResolverKey {
+        private final long fingerprint;
+        private final Class<?> type;
+
+        private ResolverKey(long fingerprint, Class<?> type) {
+            this.fingerprint = fingerprint;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ResolverKey)) {
+                return false;
+            }
+            ResolverKey other = (ResolverKey) o;
+            return fingerprint == other.fingerprint && type == other.type;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(fingerprint) * 31 + type.hashCode();
+        }
     }
 }
@@ -1,9 +1,57 @@
 package com.junowrapper.codec;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 public abstract class BaseCodec {
     public abstract <T> byte[] serialize(T object);
 
     public abstract <T> byte[] serialize(T object, Class<T> tClass);
 
     public abstract <T> T deserialize(byte[] _arr, Class<T> tClass);
+
+    /**
+     * Serialize into {@code buffer} at its position, advancing it past the written bytes.
+     *
+     * @param object - Object to serialize
+     * @param buffer - Target buffer
+     * @return number of bytes written
+     * @throws BufferOverflowException if the remaining space is too small, the buffer position is then unchanged
+     */
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        byte[] bytes = serialize(object);
+        if (bytes == null) {
+            return 0;
+        }
+        buffer.put(bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Deserialize {@code length} bytes of {@code _arr} starting at {@code offset}, without copying them out first.
+     */
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        if (offset == 0 && length == _arr.length) {
+            return deserialize(_arr, tClass);
+        }
+        byte[] range = new byte[length];
+        System.arraycopy(_arr, offset, range, 0, length);
+        return deserialize(range, tClass);
+    }
+
+    /**
+     * Deserialize the remaining bytes of {@code buffer}, leaving its position at its limit. Heap buffers are read in
+     * place.
+     */
+    public <T> T deserialize(ByteBuffer buffer, Class<T> tClass) {
+        int length = buffer.remaining();
+        if (buffer.hasArray()) {
+            T t = deserialize(buffer.array(), buffer.arrayOffset() + buffer.position(), length, tClass);
+            buffer.position(buffer.limit());
+            return t;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return deserialize(bytes, tClass);
+    }
 }
@@ -0,0 +1,58 @@
+package com.junowrapper.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Per-thread reusable output buffers shared by the built-in codecs. Only codecs that do not call another codec while
+ * holding the buffer may use it, wrapping codecs would have it overwritten by their delegate.
+ */
+final class CodecBuffers {
+
+    private static final int INITIAL_SIZE = 4096;
+    // Buffers grown past this are dropped instead of being kept for the next call.
+    static final int MAX_POOLED_SIZE = 1024 * 1024;
+
+    private static final ThreadLocal<Output> OUTPUTS = ThreadLocal.withInitial(Output::new);
+
+    private CodecBuffers() {
+    }
+
+    /**
+     * @return this thread's output buffer, emptied
+     */
+    static Output output() {
+        Output output = OUTPUTS.get();
+        if (output.capacity() > MAX_POOLED_SIZE) {
+            output = new Output();
+            OUTPUTS.set(output);
+        }
+        output.reset();
+        return output;
+    }
+
+    /**
+     * Byte array stream whose internal buffer can be copied out without an intermediate array.
+     */
+    static final class Output extends ByteArrayOutputStream {
+
+        private Output() {
+            super(INITIAL_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        /**
+         * Copy the written bytes into {@code target}, all or nothing.
+         */
+        void writeTo(ByteBuffer target) {
+            target.put(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.junowrapper.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Compact, allocation-light key encoding: one type tag byte followed by the raw key, with no class metadata.
+ * <pre>
+ * String  [0x01][UTF-8 bytes]
+ * Long    [0x02][zigzag varint]
+ * Integer [0x03][zigzag varint]
+ * UUID    [0x04][16 bytes big-endian]
+ * other   [0x7F][fallback codec bytes]
+ * </pre>
+ * Each key is written into a single exactly sized array. An optional byte prefix is put in front of every key, and
+ * {@link #encode(String, Object)} adds the namespace as {@code [0x10][length][UTF-8 bytes]} before the tagged key, so
+ * namespaced keys never collide with each other or with plain keys.
+ * <p>
+ * The layout is part of the stored format: switching an existing namespace to this codec makes its old records
+ * unreachable.
+ */
+public class CompactKeyCodec implements KeyCodec {
+
+    private static final byte STRING = 0x01;
+    private static final byte LONG = 0x02;
+    private static final byte INT = 0x03;
+    private static final byte UUID_TAG = 0x04;
+    private static final byte NAMESPACE = 0x10;
+    private static final byte OTHER = 0x7F;
+    private static final byte[] NO_PREFIX = new byte[0];
+
+    private final byte[] prefix;
+    private final BaseCodec fallback;
+
+    public CompactKeyCodec() {
+        this(NO_PREFIX);
+    }
+
+    /**
+     * @param prefix - Bytes written in front of every key, e.g. a short application or tenant id
+     */
+    public CompactKeyCodec(byte[] prefix) {
+        this(prefix, new KryoCodec());
+    }
+
+    /**
+     * @param prefix   - Bytes written in front of every key
+     * @param fallback - Codec for keys of any other type than String, Long, Integer and UUID
+     */
+    public CompactKeyCodec(byte[] prefix, BaseCodec fallback) {
+        this.prefix = prefix == null ? NO_PREFIX : prefix.clone();
+        this.fallback = fallback;
+    }
+
+    public byte[] getPrefix() {
+        return prefix.clone();
+    }
+
+    public BaseCodec getFallback() {
+        return fallback;
+    }
+
+    @Override
+    public byte[] encode(Object key) {
+        return encode(null, key);
+    }
+
+    @Override
+    public byte[] encode(String namespace, Object key) {
+        byte[] ns = namespace == null ? null : namespace.getBytes(StandardCharsets.UTF_8);
+        int nsSize = ns == null ? 0 : 1 + varLongSize(ns.length) + ns.length;
+        int head = prefix.length + nsSize;
+
+        byte[] bytes;
+        if (key instanceof String) {
+            String s = (String) key;
+            if (isAscii(s)) {
+                bytes = new byte[head + 1 + s.length()];
+                for (int i = 0; i < s.length(); i++) {
+                    bytes[head + 1 + i] = (byte) s.charAt(i);
+                }
+            } else {
+                byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+                bytes = new byte[head + 1 + utf8.length];
+                System.arraycopy(utf8, 0, bytes, head + 1, utf8.length);
+            }
+            bytes[head] = STRING;
+        } else if (key instanceof Long || key instanceof Integer) {
+            long v = ((Number) key).longValue();
+            long zigzag = (v << 1) ^ (v >> 63);
+            bytes = new byte[head + 1 + varLongSize(zigzag)];
+            bytes[head] = key instanceof Long ? LONG : INT;
+            writeVarLong(bytes, head + 1, zigzag);
+        } else if (key instanceof UUID) {
+            UUID uuid = (UUID) key;
+            bytes = new byte[head + 1 + 2 * Long.BYTES];
+            bytes[head] = UUID_TAG;
+            writeLong(bytes, head + 1, uuid.getMostSignificantBits());
+            writeLong(bytes, head + 1 + Long.BYTES, uuid.getLeastSignificantBits());
+        } else {
+            if (key == null) {
+                throw new IllegalArgumentException("Can not encode null key");
+            }
+            byte[] encoded = fallback.serialize(key);
+            bytes = new byte[head + 1 + encoded.length];
+            bytes[head] = OTHER;
+            System.arraycopy(encoded, 0, bytes, head + 1, encoded.length);
+        }
+
+        System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+        if (ns != null) {
+            bytes[prefix.length] = NAMESPACE;
+            int pos = writeVarLong(bytes, prefix.length + 1, ns.length);
+            System.arraycopy(ns, 0, bytes, pos, ns.length);
+        }
+        return bytes;
+    }
+
+    private static boolean isAscii(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * @return the offset following the written varint
+     */
+    private static int writeVarLong(byte[] bytes, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            bytes[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static void writeLong(byte[] bytes, int offset, long value) {
+        for (int i = 0; i < Long.BYTES; i++) {
+            bytes[offset + i] = (byte) (value >>> (8 * (Long.BYTES - 1 - i)));
+        }
+    }
+}
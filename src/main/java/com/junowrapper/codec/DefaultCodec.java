@@ -1,6 +1,8 @@
 package com.junowrapper.codec;
 
 import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
 
 public class DefaultCodec extends BaseCodec {
@@ -11,19 +13,37 @@ public class DefaultCodec extends BaseCodec {
 
     @Override
     public <T> byte[] serialize(T object, Class<T> tClass) {
-        try (ByteArrayOutputStream boas = new ByteArrayOutputStream(); ObjectOutputStream ois = new ObjectOutputStream(boas)) {
-            Objects.requireNonNull(object, "Can not serialize null object");
-            ois.writeObject(object);
-            return boas.toByteArray();
-        } catch (Exception ioe) {
-            System.out.println("Error serializeObject(): " + ioe);
+        CodecBuffers.Output output = write(object);
+        return output == null ? null : output.toByteArray();
+    }
+
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        CodecBuffers.Output output = write(object);
+        if (output == null) {
+            return 0;
         }
-        return null;
+        if (output.size() > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        output.writeTo(buffer);
+        return output.size();
     }
 
     @Override
     public <T> T deserialize(byte[] _arr, Class<T> tClass) {
-        try (InputStream is = new ByteArrayInputStream(_arr); ObjectInputStream ois = new ObjectInputStream(is)) {
+        try {
+            Objects.requireNonNull(_arr, "Can not deserialize null object");
+        } catch (Exception e) {
+            System.out.println("Error deserializeObject(): " + e);
+            return null;
+        }
+        return deserialize(_arr, 0, _arr.length, tClass);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        try (InputStream is = new ByteArrayInputStream(_arr, offset, length); ObjectInputStream ois = new ObjectInputStream(is)) {
             return (T) ois.readObject();
         } catch (IOException | ClassNotFoundException ioe) {
             System.out.println("Error [IO/ClassNotFound] deserializeObject(): " + ioe);
@@ -32,4 +52,16 @@ public class DefaultCodec extends BaseCodec {
         }
         return null;
     }
+
+    private CodecBuffers.Output write(Object object) {
+        CodecBuffers.Output output = CodecBuffers.output();
+        try (ObjectOutputStream ois = new ObjectOutputStream(output)) {
+            Objects.requireNonNull(object, "Can not serialize null object");
+            ois.writeObject(object);
+        } catch (Exception ioe) {
+            System.out.println("Error serializeObject(): " + ioe);
+            return null;
+        }
+        return output;
+    }
 }
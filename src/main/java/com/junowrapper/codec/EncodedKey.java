@@ -0,0 +1,29 @@
+package com.junowrapper.codec;
+
+import java.util.Arrays;
+
+/**
+ * Key already encoded by a {@link KeyCodec}. Passed as a key, its bytes are sent to Juno as they are.
+ */
+public final class EncodedKey {
+
+    private final byte[] bytes;
+
+    public EncodedKey(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EncodedKey && Arrays.equals(bytes, ((EncodedKey) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+}
@@ -0,0 +1,204 @@
+package com.junowrapper.codec;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Self-describing codec. Every record is written behind a 4 byte envelope naming the codec that produced it:
+ * <pre>
+ * [0x4A 0xDB magic][codec id][codec version][payload]
+ * </pre>
+ * Reads pick the decoder registered for the record's id and version, so a namespace can move from one codec to
+ * another without a flag day: new records use the writer codec, old ones keep decoding with the codec that wrote them.
+ * Records written before the envelope existed (no magic) are decoded with the legacy codec, if one is set.
+ * <p>
+ * Keys are never enveloped, their bytes must stay identical for existing records to be found. They are written with
+ * the key codec, which defaults to the legacy codec, or the writer codec when there is no legacy codec.
+ * <p>
+ * Ids and versions are part of the stored format: once used, never reassign them to another codec.
+ */
+public class EnvelopeCodec extends BaseCodec {
+
+    public static final int HEADER_SIZE = 4;
+    private static final byte MAGIC_0 = (byte) 0x4A;
+    private static final byte MAGIC_1 = (byte) 0xDB;
+
+    private final Map<Integer, BaseCodec> readers = new ConcurrentHashMap<>();
+    private final int writerId;
+    private final int writerVersion;
+    private final BaseCodec writer;
+    private volatile BaseCodec legacyCodec;
+    private volatile BaseCodec keyCodec;
+
+    /**
+     * @param writerId      - Id stamped on every record written by this codec, 0-255
+     * @param writerVersion - Version stamped on every record written by this codec, 0-255
+     * @param writer        - Codec used for all writes, also registered as a reader
+     */
+    public EnvelopeCodec(int writerId, int writerVersion, BaseCodec writer) {
+        this.writerId = writerId;
+        this.writerVersion = writerVersion;
+        this.writer = writer;
+        register(writerId, writerVersion, writer);
+    }
+
+    /**
+     * Register a codec able to read records stamped with the given id and version.
+     *
+     * @param id      - Codec id, 0-255
+     * @param version - Codec version, 0-255
+     * @param codec   - Codec decoding the payload
+     * @return this codec, for chaining
+     */
+    public EnvelopeCodec register(int id, int version, BaseCodec codec) {
+        BaseCodec previous = readers.putIfAbsent(slot(id, version), codec);
+        if (previous != null && previous != codec) {
+            throw new IllegalArgumentException("Codec id " + id + " version " + version + " is already registered");
+        }
+        return this;
+    }
+
+    /**
+     * Codec for records without an envelope, typically the codec the namespace used before switching to this one.
+     */
+    public EnvelopeCodec setLegacyCodec(BaseCodec legacyCodec) {
+        this.legacyCodec = legacyCodec;
+        return this;
+    }
+
+    public BaseCodec getLegacyCodec() {
+        return legacyCodec;
+    }
+
+    /**
+     * Codec for keys, overriding the default of legacy codec or writer codec.
+     */
+    public EnvelopeCodec setKeyCodec(BaseCodec keyCodec) {
+        this.keyCodec = keyCodec;
+        return this;
+    }
+
+    public BaseCodec getKeyCodec() {
+        BaseCodec codec = keyCodec;
+        if (codec == null) {
+            codec = legacyCodec;
+        }
+        return codec == null ? writer : codec;
+    }
+
+    /**
+     * Serialize a key with the key codec, without an envelope.
+     */
+    public <T> byte[] serializeKey(T key) {
+        return getKeyCodec().serialize(key);
+    }
+
+    public BaseCodec getWriter() {
+        return writer;
+    }
+
+    public int getWriterId() {
+        return writerId;
+    }
+
+    public int getWriterVersion() {
+        return writerVersion;
+    }
+
+    public Map<Integer, BaseCodec> getReaders() {
+        return Collections.unmodifiableMap(readers);
+    }
+
+    /**
+     * @return true if the record was written by the current writer codec, false if it is a legacy or older record
+     * that a re-encode would move to the writer codec
+     */
+    public boolean isCurrent(byte[] _arr) {
+        return hasEnvelope(_arr) && (_arr[2] & 0xFF) == writerId && (_arr[3] & 0xFF) == writerVersion;
+    }
+
+    @Override
+    public <T> byte[] serialize(T object) {
+        return wrap(writer.serialize(object));
+    }
+
+    @Override
+    public <T> byte[] serialize(T object, Class<T> tClass) {
+        return wrap(writer.serialize(object, tClass));
+    }
+
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE) {
+            throw new BufferOverflowException();
+        }
+        int start = buffer.position();
+        buffer.put(MAGIC_0).put(MAGIC_1).put((byte) writerId).put((byte) writerVersion);
+        try {
+            return HEADER_SIZE + writer.serialize(object, buffer);
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, Class<T> tClass) {
+        if (_arr == null) {
+            return null;
+        }
+        return deserialize(_arr, 0, _arr.length, tClass);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        if (!hasEnvelope(_arr, offset, length)) {
+            BaseCodec legacy = legacyCodec;
+            if (legacy == null) {
+                System.out.println("Error fail to deserialize(): record has no codec envelope and no legacy codec is set");
+                return null;
+            }
+            return legacy.deserialize(_arr, offset, length, tClass);
+        }
+
+        int id = _arr[offset + 2] & 0xFF;
+        int version = _arr[offset + 3] & 0xFF;
+        BaseCodec reader = readers.get(slot(id, version));
+        if (reader == null) {
+            System.out.println("Error fail to deserialize(): no codec registered for id " + id + " version " + version);
+            return null;
+        }
+        return reader.deserialize(_arr, offset + HEADER_SIZE, length - HEADER_SIZE, tClass);
+    }
+
+    private byte[] wrap(byte[] payload) {
+        if (payload == null) {
+            return null;
+        }
+        byte[] record = new byte[HEADER_SIZE + payload.length];
+        record[0] = MAGIC_0;
+        record[1] = MAGIC_1;
+        record[2] = (byte) writerId;
+        record[3] = (byte) writerVersion;
+        System.arraycopy(payload, 0, record, HEADER_SIZE, payload.length);
+        return record;
+    }
+
+    private static boolean hasEnvelope(byte[] _arr) {
+        return _arr != null && hasEnvelope(_arr, 0, _arr.length);
+    }
+
+    private static boolean hasEnvelope(byte[] _arr, int offset, int length) {
+        return length >= HEADER_SIZE && _arr[offset] == MAGIC_0 && _arr[offset + 1] == MAGIC_1;
+    }
+
+    private static int slot(int id, int version) {
+        if (id < 0 || id > 255 || version < 0 || version > 255) {
+            throw new IllegalArgumentException("Codec id and version must be between 0 and 255");
+        }
+        return id << 8 | version;
+    }
+}
@@ -0,0 +1,39 @@
+package com.junowrapper.codec;
+
+/**
+ * Turns keys into the bytes Juno indexes records by. Kept apart from the value {@link BaseCodec} so keys stay short and
+ * do not change when the value codec does.
+ */
+public interface KeyCodec {
+
+    String NAMESPACE_DELIMITER = ":";
+
+    /**
+     * @param key - Key to encode
+     * @return the key bytes sent to Juno
+     */
+    byte[] encode(Object key);
+
+    /**
+     * Encode a key scoped to a namespace, e.g. the name of the collection owning it. Keys of different namespaces never
+     * collide. The default keeps the original layout: the String {@code namespace + ":" + key} encoded as a key.
+     *
+     * @param namespace - Namespace of the key
+     * @param key       - Key within the namespace
+     * @return the key bytes sent to Juno
+     */
+    default byte[] encode(String namespace, Object key) {
+        return encode(namespace + NAMESPACE_DELIMITER + key);
+    }
+
+    /**
+     * Key codec serializing keys with a value codec, the layout used before key codecs existed. For an
+     * {@link EnvelopeCodec} keys go through its key codec, without an envelope.
+     */
+    static KeyCodec of(BaseCodec codec) {
+        if (codec instanceof EnvelopeCodec) {
+            return ((EnvelopeCodec) codec)::serializeKey;
+        }
+        return codec::serialize;
+    }
+}
@@ -3,16 +3,83 @@ package com.junowrapper.codec;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Kryo based codec. {@link Kryo}, {@link Output} and {@link Input} instances are pooled, so the codec is thread-safe
+ * and can be shared by every caller of a {@link com.junowrapper.juno.JunoDBManager}.
+ * <p>
+ * Classes registered through {@link #register(Class, int)} are written as a small varint id instead of the fully
+ * qualified class name. Ids are part of the stored format: keep them stable across deployments.
+ */
 public class KryoCodec extends BaseCodec {
 
-    private final Set<Class<?>> clazz = new HashSet<>();
+    public static final int DEFAULT_POOL_SIZE = 64;
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    // Output buffers grown past this are dropped instead of going back to the pool.
+    private static final int MAX_POOLED_BUFFER_SIZE = 1024 * 1024;
+    private static final byte[] EMPTY = new byte[0];
 
+    private final Map<Class<?>, Integer> registrations = Collections.synchronizedMap(new LinkedHashMap<>());
+    // bumped by every register() while holding registrations
+    private volatile int generation;
+
+    private final Pool<PooledKryo> kryoPool;
+    private final Pool<Output> outputPool;
+    private final Pool<Input> inputPool;
+
+    public KryoCodec() {
+        this(DEFAULT_POOL_SIZE);
+    }
+
+    public KryoCodec(int poolSize) {
+        kryoPool = new Pool<PooledKryo>(true, false, poolSize) {
+            @Override
+            protected PooledKryo create() {
+                return newKryo();
+            }
+        };
+        outputPool = new Pool<Output>(true, false, poolSize) {
+            @Override
+            protected Output create() {
+                return new Output(DEFAULT_BUFFER_SIZE, -1);
+            }
+        };
+        inputPool = new Pool<Input>(true, false, poolSize) {
+            @Override
+            protected Input create() {
+                return new Input();
+            }
+        };
+    }
+
+    /**
+     * Register a class with a stable id. Should be called once at startup before the codec is used; Kryo instances
+     * created before the registration, pooled or borrowed at the time, are discarded instead of being reused, so every
+     * subsequent call sees it.
+     *
+     * @param type - Class to register
+     * @param id   - Stable registration id, must not clash with Kryo's reserved ids (0-9 are used for primitives)
+     * @return this codec, for chaining
+     */
+    public KryoCodec register(Class<?> type, int id) {
+        synchronized (registrations) {
+            registrations.put(type, id);
+            generation++;
+        }
+        kryoPool.clear();
+        return this;
+    }
+
+    public Map<Class<?>, Integer> getRegistrations() {
+        return Collections.unmodifiableMap(registrations);
+    }
 
     @Override
     public <T> byte[] serialize(T object) {
@@ -21,39 +88,109 @@ public class KryoCodec extends BaseCodec {
 
     @Override
     public <T> byte[] serialize(T object, Class<T> tClass) {
-        System.out.println(tClass.getName());
-        try (ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-             Output output = new Output(byteArrayOutputStream)) {
-//            getInstance().writeObject(output, object);
-            getInstance().writeClassAndObject(output, object);
-            output.close();
-            return byteArrayOutputStream.toByteArray();
+        PooledKryo kryo = obtainKryo();
+        Output output = outputPool.obtain();
+        try {
+            output.reset();
+            kryo.kryo.writeClassAndObject(output, object);
+            return output.toBytes();
         } catch (Exception e) {
             // to change to logger
             System.out.println("Error fail to serialize(): " + e);
             return new byte[0];
+        } finally {
+            freeKryo(kryo);
+            if (output.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+                outputPool.free(output);
+            }
+        }
+    }
+
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        PooledKryo kryo = obtainKryo();
+        Output output = outputPool.obtain();
+        try {
+            output.reset();
+            try {
+                kryo.kryo.writeClassAndObject(output, object);
+            } catch (Exception e) {
+                System.out.println("Error fail to serialize(): " + e);
+                return 0;
+            }
+            if (output.position() > buffer.remaining()) {
+                throw new BufferOverflowException();
+            }
+            buffer.put(output.getBuffer(), 0, output.position());
+            return output.position();
+        } finally {
+            freeKryo(kryo);
+            if (output.getBuffer().length <= MAX_POOLED_BUFFER_SIZE) {
+                outputPool.free(output);
+            }
         }
     }
 
     @Override
     public <T> T deserialize(byte[] _arr, Class<T> type) {
-        System.out.println(type.getName());
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(_arr);
-             Input input = new Input(byteArrayInputStream)) {
-//            Object o = getInstance().readObject(input, type);
-            Object o = getInstance().readClassAndObject(input);
-            T deserializedObject = (T) o;
-            input.close();
-            return deserializedObject;
+        if (_arr == null) {
+            System.out.println("Error fail to deserialize(): null input");
+            return null;
+        }
+        return deserialize(_arr, 0, _arr.length, type);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> type) {
+        PooledKryo kryo = obtainKryo();
+        Input input = inputPool.obtain();
+        try {
+            input.setBuffer(_arr, offset, length);
+            return (T) kryo.kryo.readClassAndObject(input);
         } catch (Exception e) {
             System.out.println("Error fail to deserialize(): " + e);
             return null;
+        } finally {
+            input.setBuffer(EMPTY);
+            freeKryo(kryo);
+            inputPool.free(input);
+        }
+    }
+
+    private PooledKryo obtainKryo() {
+        PooledKryo kryo = kryoPool.obtain();
+        return isCurrent(kryo) ? kryo : newKryo();
+    }
+
+    private void freeKryo(PooledKryo kryo) {
+        if (isCurrent(kryo)) {
+            kryoPool.free(kryo);
         }
     }
 
-    private Kryo getInstance() {
+    private boolean isCurrent(PooledKryo kryo) {
+        return kryo.generation == generation;
+    }
+
+    private PooledKryo newKryo() {
         Kryo kryo = new Kryo();
         kryo.setRegistrationRequired(false);
-        return kryo;
+        synchronized (registrations) {
+            registrations.forEach(kryo::register);
+            return new PooledKryo(kryo, generation);
+        }
+    }
+
+    /**
+     * Kryo instance tagged with the registration generation it was configured with.
+     */
+    private static final class PooledKryo {
+        private final Kryo kryo;
+        private final int generation;
+
+        private PooledKryo(Kryo kryo, int generation) {
+            this.kryo = kryo;
+            this.generation = generation;
+        }
     }
 }
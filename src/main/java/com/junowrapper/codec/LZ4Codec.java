@@ -1,35 +1,235 @@
-//package com.junowrapper.codec;
-//
-//import net.jpountz.lz4.LZ4Compressor;
-//import net.jpountz.lz4.LZ4Factory;
-//
-//public class LZ4Codec extends KryoCodec {
-//    private static final int DECOMPRESSION_HEADER_SIZE = Integer.SIZE / 8;
-//
-//    @Override
-//    public <T> byte[] serialize(T object) {
-//        return serialize(object, (Class<T>) object.getClass());
-//    }
-//
-//    @Override
-//    public <T> byte[] serialize(T object, Class<T> tClass) {
-//        LZ4Factory factory = LZ4Factory.fastestInstance();
-//        LZ4Compressor compressor = factory.fastCompressor();
-//        byte[] serialize = super.serialize(object, tClass);
-//        int maxCompressedLength = compressor.maxCompressedLength(serialize.length);
-//        byte[] compressedData = new byte[maxCompressedLength];
-//
-//        int compressedLength = compressor.compress(serialize, 0, serialize.length, compressedData, 0, maxCompressedLength);
-//
-//        // Trim the array to the actual compressed length
-//        byte[] trimmedCompressedData = new byte[compressedLength];
-//        System.arraycopy(compressedData, 0, trimmedCompressedData, 0, compressedLength);
-//
-//        return trimmedCompressedData;
-//    }
-//
-//    @Override
-//    public <T> T deserialize(byte[] _arr, Class<T> tClass) {
-//        return null;
-//    }
-//}
+package com.junowrapper.codec;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compressing codec wrapping any other {@link BaseCodec}. Payloads smaller than the threshold are stored as they are,
+ * larger ones are LZ4 compressed when that actually saves space.
+ * <p>
+ * Every value starts with a one byte flag. Compressed values follow it with the original length as a 4 byte big-endian
+ * int, so the decompression buffer is allocated once at its exact size:
+ * <pre>
+ * [0][payload]
+ * [1][original length][lz4 block]
+ * </pre>
+ */
+public class LZ4Codec extends BaseCodec {
+
+    public enum Mode {
+        /** LZ4 fast compressor, cheapest on CPU. */
+        FAST,
+        /** LZ4 HC compressor, better ratio for a slower write. Decompression speed is the same. */
+        HIGH
+    }
+
+    public static final int DEFAULT_THRESHOLD = 1024;
+    public static final int DEFAULT_MAX_DECOMPRESSED_SIZE = 64 * 1024 * 1024;
+    private static final byte RAW = 0;
+    private static final byte COMPRESSED = 1;
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+    // Scratch buffers grown past this are dropped after the call instead of being kept per thread.
+    private static final int MAX_SCRATCH_SIZE = 1024 * 1024;
+    // LZ4 expands at most ~255x, a header claiming more than that of its block is corrupt
+    private static final int MAX_RATIO = 255;
+
+    private final BaseCodec delegate;
+    private final int threshold;
+    private final Mode mode;
+    private final int maxDecompressedSize;
+    private final LZ4Compressor compressor;
+    private final LZ4SafeDecompressor decompressor;
+    private final ThreadLocal<byte[]> scratch = new ThreadLocal<>();
+
+    public LZ4Codec() {
+        this(new KryoCodec());
+    }
+
+    public LZ4Codec(BaseCodec delegate) {
+        this(delegate, DEFAULT_THRESHOLD, Mode.FAST);
+    }
+
+    /**
+     * @param delegate  - Codec producing the uncompressed bytes
+     * @param threshold - Payloads below this many bytes are never compressed
+     * @param mode      - LZ4 compression mode
+     */
+    public LZ4Codec(BaseCodec delegate, int threshold, Mode mode) {
+        this(delegate, threshold, mode, DEFAULT_MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * @param delegate            - Codec producing the uncompressed bytes
+     * @param threshold           - Payloads below this many bytes are never compressed
+     * @param mode                - LZ4 compression mode
+     * @param maxDecompressedSize - Records claiming a larger original length are rejected before anything is allocated
+     */
+    public LZ4Codec(BaseCodec delegate, int threshold, Mode mode, int maxDecompressedSize) {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0");
+        }
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.mode = mode;
+        this.maxDecompressedSize = maxDecompressedSize;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = mode == Mode.HIGH ? factory.highCompressor() : factory.fastCompressor();
+        this.decompressor = factory.safeDecompressor();
+    }
+
+    public BaseCodec getDelegate() {
+        return delegate;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getMaxDecompressedSize() {
+        return maxDecompressedSize;
+    }
+
+    @Override
+    public <T> byte[] serialize(T object) {
+        return compress(delegate.serialize(object));
+    }
+
+    @Override
+    public <T> byte[] serialize(T object, Class<T> tClass) {
+        return compress(delegate.serialize(object, tClass));
+    }
+
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        byte[] payload = delegate.serialize(object);
+        if (payload == null) {
+            return 0;
+        }
+        int length = compressToScratch(payload);
+        if (length > 0) {
+            try {
+                if (length > buffer.remaining()) {
+                    throw new BufferOverflowException();
+                }
+                buffer.put(scratch.get(), 0, length);
+                return length;
+            } finally {
+                releaseScratch();
+            }
+        }
+        if (payload.length + 1 > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        buffer.put(RAW).put(payload);
+        return payload.length + 1;
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, Class<T> tClass) {
+        if (_arr == null || _arr.length == 0) {
+            return null;
+        }
+        return deserialize(_arr, 0, _arr.length, tClass);
+    }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        try {
+            switch (_arr[offset]) {
+                case RAW:
+                    return delegate.deserialize(_arr, offset + 1, length - 1, tClass);
+                case COMPRESSED:
+                    int blockLength = length - HEADER_SIZE;
+                    int originalLength = readInt(_arr, offset + 1);
+                    if (originalLength < 0 || originalLength > maxDecompressedSize || originalLength > (long) blockLength * MAX_RATIO) {
+                        System.out.println("Error fail to decompress(): invalid original length " + originalLength);
+                        return null;
+                    }
+                    byte[] restored = new byte[originalLength];
+                    int restoredLength = decompressor.decompress(_arr, offset + HEADER_SIZE, blockLength, restored, 0, originalLength);
+                    if (restoredLength != originalLength) {
+                        System.out.println("Error fail to decompress(): got " + restoredLength + " of " + originalLength + " bytes");
+                        return null;
+                    }
+                    return delegate.deserialize(restored, tClass);
+                default:
+                    System.out.println("Error fail to decompress(): unknown header " + _arr[offset]);
+                    return null;
+            }
+        } catch (Exception e) {
+            System.out.println("Error fail to decompress(): " + e);
+            return null;
+        }
+    }
+
+    private byte[] compress(byte[] payload) {
+        if (payload == null) {
+            return null;
+        }
+        int length = compressToScratch(payload);
+        if (length > 0) {
+            try {
+                return Arrays.copyOf(scratch.get(), length);
+            } finally {
+                releaseScratch();
+            }
+        }
+        byte[] raw = new byte[payload.length + 1];
+        raw[0] = RAW;
+        System.arraycopy(payload, 0, raw, 1, payload.length);
+        return raw;
+    }
+
+    /**
+     * Compress into this thread's scratch buffer, header included.
+     *
+     * @return the compressed record length, or -1 when the payload is to be stored raw
+     */
+    private int compressToScratch(byte[] payload) {
+        if (payload.length < threshold) {
+            return -1;
+        }
+        int maxLength = HEADER_SIZE + compressor.maxCompressedLength(payload.length);
+        byte[] compressed = scratch.get();
+        if (compressed == null || compressed.length < maxLength) {
+            compressed = new byte[maxLength];
+            scratch.set(compressed);
+        }
+        int compressedLength = compressor.compress(payload, 0, payload.length, compressed, HEADER_SIZE);
+        if (compressedLength + Integer.BYTES >= payload.length) {
+            releaseScratch();
+            return -1;
+        }
+        compressed[0] = COMPRESSED;
+        writeInt(compressed, 1, payload.length);
+        return HEADER_SIZE + compressedLength;
+    }
+
+    private void releaseScratch() {
+        byte[] compressed = scratch.get();
+        if (compressed != null && compressed.length > MAX_SCRATCH_SIZE) {
+            scratch.remove();
+        }
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) << 24 | (bytes[offset + 1] & 0xFF) << 16
+                | (bytes[offset + 2] & 0xFF) << 8 | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -1,16 +1,61 @@
 package com.junowrapper.codec;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Jackson based codec writing JSON, or one of its binary equivalents: Smile or CBOR. Both are smaller and faster to
+ * parse than JSON text; the mode is part of the stored format, records written in one mode can't be read in another.
+ * <p>
+ * Values decode to the requested class. {@link ObjectReader}/{@link ObjectWriter} instances are immutable and cached
+ * per class, so lookups of the type's (de)serializer happen once.
+ */
 public class OMCodec extends BaseCodec {
 
-    private final ObjectMapper om = new ObjectMapper();
+    public enum Format {
+        JSON,
+        SMILE,
+        CBOR
+    }
+
+    private final ObjectMapper om;
+    private final Format format;
+    private final ConcurrentHashMap<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public OMCodec() {
+        this(Format.JSON);
+    }
+
+    public OMCodec(Format format) {
+        this(newObjectMapper(format), format);
+    }
+
+    /**
+     * @param om     - Preconfigured mapper, its factory must match the format
+     * @param format - Format written by the mapper
+     */
+    public OMCodec(ObjectMapper om, Format format) {
+        this.om = om;
+        this.format = format;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return om;
+    }
 
     @Override
     public <T> byte[] serialize(T object) {
@@ -21,7 +66,7 @@ public class OMCodec extends BaseCodec {
     public <T> byte[] serialize(T object, Class<T> tClass) {
         try {
             Objects.requireNonNull(object, "Can not serialize null object");
-            return om.writeValueAsBytes(object);
+            return writers.computeIfAbsent(tClass, om::writerFor).writeValueAsBytes(object);
         } catch (IOException ioe) {
             System.out.println("Error [I/O] serializeObject(): " + ioe);
         } catch (Exception e) {
@@ -30,13 +75,31 @@ public class OMCodec extends BaseCodec {
         return null;
     }
 
+    @Override
+    public <T> int serialize(T object, ByteBuffer buffer) {
+        CodecBuffers.Output output = CodecBuffers.output();
+        try {
+            Objects.requireNonNull(object, "Can not serialize null object");
+            writers.computeIfAbsent(object.getClass(), om::writerFor).writeValue(output, object);
+        } catch (IOException ioe) {
+            System.out.println("Error [I/O] serializeObject(): " + ioe);
+            return 0;
+        } catch (Exception e) {
+            System.out.println("Error serializeObject(): " + e);
+            return 0;
+        }
+        if (output.size() > buffer.remaining()) {
+            throw new BufferOverflowException();
+        }
+        output.writeTo(buffer);
+        return output.size();
+    }
+
     @Override
     public <T> T deserialize(byte[] _arr, Class<T> tClass) {
-        try (InputStream is = new ByteArrayInputStream(_arr)) {
+        try {
             Objects.requireNonNull(_arr, "Can not deserialize null object");
-            // Type Erasure; might not work;
-            return om.readValue(is, new TypeReference<T>() {
-            });
+            return readers.computeIfAbsent(tClass, om::readerFor).readValue(_arr);
         } catch (IOException ioe) {
             System.out.println("Error [I/O] deserializeObject(): " + ioe);
         } catch (Exception e) {
@@ -44,4 +107,28 @@ public class OMCodec extends BaseCodec {
         }
         return null;
     }
+
+    @Override
+    public <T> T deserialize(byte[] _arr, int offset, int length, Class<T> tClass) {
+        try {
+            Objects.requireNonNull(_arr, "Can not deserialize null object");
+            return readers.computeIfAbsent(tClass, om::readerFor).readValue(_arr, offset, length);
+        } catch (IOException ioe) {
+            System.out.println("Error [I/O] deserializeObject(): " + ioe);
+        } catch (Exception e) {
+            System.out.println("Error deserializeObject(): " + e);
+        }
+        return null;
+    }
+
+    private static ObjectMapper newObjectMapper(Format format) {
+        switch (format) {
+            case SMILE:
+                return new ObjectMapper(new SmileFactory());
+            case CBOR:
+                return new ObjectMapper(new CBORFactory());
+            default:
+                return new ObjectMapper();
+        }
+    }
 }
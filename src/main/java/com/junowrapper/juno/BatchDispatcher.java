@@ -0,0 +1,230 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.BatchConfig;
+import com.paypal.juno.client.JunoAsyncClient;
+import com.paypal.juno.client.JunoClient;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Splits a batch into sub-batches bounded by request count and serialized bytes, runs them on a {@link JunoClient} or
+ * {@link JunoAsyncClient} with a concurrency cap and merges the responses back in request order.
+ * <p>
+ * A failing sub-batch does not fail the others: its requests get an {@link OperationStatus#UnknownError} response.
+ */
+final class BatchDispatcher {
+
+    static final ExecutorService BATCH_EXECUTOR = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "juno-batch-" + r.hashCode());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BatchDispatcher() {
+    }
+
+    static List<JunoResponse> dispatch(JunoClient junoClient, List<JunoRequest> all, BatchConfig batchConfig) {
+        List<List<JunoRequest>> chunks = split(all, batchConfig);
+        if (chunks.size() <= 1) {
+            return run(junoClient, all);
+        }
+
+        List<List<JunoResponse>> results = new ArrayList<>(Collections.nCopies(chunks.size(), null));
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            int index;
+            while ((index = next.getAndIncrement()) < chunks.size()) {
+                results.set(index, run(junoClient, chunks.get(index)));
+            }
+        };
+
+        int workers = Math.min(Math.max(batchConfig.getMaxConcurrentBatches(), 1), chunks.size());
+        CompletableFuture<?>[] futures = new CompletableFuture[workers - 1];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(worker, BATCH_EXECUTOR);
+        }
+        // the calling thread takes its share of the sub-batches
+        worker.run();
+        CompletableFuture.allOf(futures).join();
+
+        List<JunoResponse> responses = new ArrayList<>(all.size());
+        results.forEach(responses::addAll);
+        return responses;
+    }
+
+    /**
+     * Non-blocking {@link #dispatch(JunoClient, List, BatchConfig)} on a {@link JunoAsyncClient}: at most
+     * {@link BatchConfig#getMaxConcurrentBatches()} sub-batches are in flight, each lane sending its next one when the
+     * previous answered. The future always completes normally.
+     */
+    static CompletableFuture<List<JunoResponse>> dispatchAsync(JunoAsyncClient junoAsyncClient, List<JunoRequest> all, BatchConfig batchConfig) {
+        AsyncBatch batch = new AsyncBatch(junoAsyncClient, split(all, batchConfig), all.size());
+        int lanes = Math.min(Math.max(batchConfig.getMaxConcurrentBatches(), 1), batch.chunks.size());
+        for (int i = 0; i < lanes; i++) {
+            batch.sendNext();
+        }
+        return batch.done;
+    }
+
+    static List<List<JunoRequest>> split(List<JunoRequest> requests, BatchConfig batchConfig) {
+        List<List<JunoRequest>> chunks = new ArrayList<>();
+        List<JunoRequest> chunk = new ArrayList<>();
+        long chunkBytes = 0;
+        for (JunoRequest request : requests) {
+            long bytes = sizeOf(request);
+            if (!chunk.isEmpty() && (chunk.size() >= batchConfig.getMaxRequestsPerBatch() || chunkBytes + bytes > batchConfig.getMaxBytesPerBatch())) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+                chunkBytes = 0;
+            }
+            chunk.add(request);
+            chunkBytes += bytes;
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs one sub-batch and orders its responses like its requests, responses are matched on key bytes. The result
+     * always has exactly one response per request: a response matching no pending request is logged and dropped.
+     */
+    private static List<JunoResponse> run(JunoClient junoClient, List<JunoRequest> chunk) {
+        JunoResponse[] ordered = new JunoResponse[chunk.size()];
+        Map<ByteBuffer, Deque<Integer>> positions = positions(chunk);
+
+        int unmatched = 0;
+        try {
+            for (JunoResponse response : junoClient.doBatch(chunk)) {
+                unmatched += place(response, positions, ordered);
+            }
+        } catch (Exception exception) {
+            System.out.println("Error doBatch() sub-batch of " + chunk.size() + ": " + exception);
+        }
+        return ordered(chunk, ordered, unmatched);
+    }
+
+    /**
+     * Like {@link #run(JunoClient, List)}, on the async client.
+     */
+    private static CompletableFuture<List<JunoResponse>> runAsync(JunoAsyncClient junoAsyncClient, List<JunoRequest> chunk) {
+        CompletableFuture<List<JunoResponse>> future = new CompletableFuture<>();
+        try {
+            junoAsyncClient.doBatch(chunk).toList().subscribe(received -> {
+                JunoResponse[] ordered = new JunoResponse[chunk.size()];
+                Map<ByteBuffer, Deque<Integer>> positions = positions(chunk);
+                int unmatched = 0;
+                for (JunoResponse response : received) {
+                    unmatched += place(response, positions, ordered);
+                }
+                future.complete(ordered(chunk, ordered, unmatched));
+            }, e -> {
+                System.out.println("Error doBatch() sub-batch of " + chunk.size() + ": " + e);
+                future.complete(ordered(chunk, new JunoResponse[chunk.size()], 0));
+            });
+        } catch (RuntimeException e) {
+            System.out.println("Error doBatch() sub-batch of " + chunk.size() + ": " + e);
+            future.complete(ordered(chunk, new JunoResponse[chunk.size()], 0));
+        }
+        return future;
+    }
+
+    private static Map<ByteBuffer, Deque<Integer>> positions(List<JunoRequest> chunk) {
+        Map<ByteBuffer, Deque<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            positions.computeIfAbsent(ByteBuffer.wrap(chunk.get(i).key()), k -> new ArrayDeque<>()).add(i);
+        }
+        return positions;
+    }
+
+    /**
+     * @return 1 if the response matched no pending request, else 0
+     */
+    private static int place(JunoResponse response, Map<ByteBuffer, Deque<Integer>> positions, JunoResponse[] ordered) {
+        Deque<Integer> slots = response.getKey() == null ? null : positions.get(ByteBuffer.wrap(response.getKey()));
+        Integer slot = slots == null ? null : slots.poll();
+        if (slot == null) {
+            return 1;
+        }
+        ordered[slot] = response;
+        return 0;
+    }
+
+    private static List<JunoResponse> ordered(List<JunoRequest> chunk, JunoResponse[] ordered, int unmatched) {
+        if (unmatched > 0) {
+            System.out.println("Error doBatch() sub-batch of " + chunk.size() + ": dropped " + unmatched + " responses matching no request");
+        }
+
+        List<JunoResponse> responses = new ArrayList<>(chunk.size());
+        for (int i = 0; i < ordered.length; i++) {
+            responses.add(ordered[i] != null ? ordered[i] : new JunoResponse(chunk.get(i).key(), null, 0, 0, 0, OperationStatus.UnknownError));
+        }
+        return responses;
+    }
+
+    private static long sizeOf(JunoRequest request) {
+        return (request.key() == null ? 0 : request.key().length) + (request.getValue() == null ? 0 : request.getValue().length);
+    }
+
+    /**
+     * Sub-batches of one {@link #dispatchAsync(JunoAsyncClient, List, BatchConfig)} call and their responses.
+     */
+    private static final class AsyncBatch {
+        private final JunoAsyncClient junoAsyncClient;
+        private final List<List<JunoRequest>> chunks;
+        private final AtomicReferenceArray<List<JunoResponse>> results;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final int requests;
+        private final CompletableFuture<List<JunoResponse>> done = new CompletableFuture<>();
+
+        private AsyncBatch(JunoAsyncClient junoAsyncClient, List<List<JunoRequest>> chunks, int requests) {
+            this.junoAsyncClient = junoAsyncClient;
+            this.chunks = chunks;
+            this.results = new AtomicReferenceArray<>(chunks.size());
+            this.remaining = new AtomicInteger(chunks.size());
+            this.requests = requests;
+        }
+
+        /**
+         * Send sub-batches one after the other until the next one is still pending, it continues the lane when it
+         * answers. Looping rather than chaining keeps a client that answers synchronously from growing the stack.
+         */
+        private void sendNext() {
+            int index;
+            while ((index = next.getAndIncrement()) < chunks.size()) {
+                int chunk = index;
+                CompletableFuture<List<JunoResponse>> responses = runAsync(junoAsyncClient, chunks.get(chunk));
+                if (!responses.isDone()) {
+                    responses.thenAccept(r -> {
+                        complete(chunk, r);
+                        sendNext();
+                    });
+                    return;
+                }
+                complete(chunk, responses.join());
+            }
+        }
+
+        private void complete(int chunk, List<JunoResponse> responses) {
+            results.set(chunk, responses);
+            if (remaining.decrementAndGet() == 0) {
+                List<JunoResponse> all = new ArrayList<>(requests);
+                for (int i = 0; i < results.length(); i++) {
+                    all.addAll(results.get(i));
+                }
+                done.complete(all);
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.CircuitBreakerConfig;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker guarding the Juno calls of one {@link JunoDBManager}, see {@link CircuitBreakerConfig}.
+ * <p>
+ * Every admitted call gets a permit naming the breaker epoch it was admitted in; each state change starts a new epoch,
+ * so a call admitted while closed that finishes after the breaker opened is not mistaken for a half-open probe. A call
+ * refused while open costs one volatile read and a clock read. Probes that never report back, e.g. a result lost to a
+ * bug, are written off after {@link CircuitBreakerConfig#getHalfOpenTimeoutMSec()} and a fresh round of probes starts.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Notified after every state change, on the thread that caused it. Must be cheap and not call back into the manager.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param name - Name of the breaker, the shard name for {@link ShardedJunoDBManager} shards
+         */
+        void onStateChange(String name, State from, State to);
+    }
+
+    static final long NOT_PERMITTED = -1;
+    private static final byte SUCCESS = 0;
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final String name;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final Listener listener;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final long halfOpenTimeoutNanos;
+
+    // guarded by this
+    private final byte[] window;
+    private int next;
+    private int calls;
+    private int failures;
+    private int slowCalls;
+    private int probesIssued;
+    private int probeResults;
+    private int probeFailures;
+    private int probeSlowCalls;
+    private long halfOpenSinceNanos;
+
+    private volatile State state = State.CLOSED;
+    private volatile long epoch;
+    private volatile long openUntilNanos;
+
+    CircuitBreaker(String name, CircuitBreakerConfig circuitBreakerConfig, Listener listener) {
+        this.name = name;
+        this.circuitBreakerConfig = circuitBreakerConfig;
+        this.listener = listener;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(circuitBreakerConfig.getSlowCallDurationMSec());
+        this.openNanos = TimeUnit.MILLISECONDS.toNanos(circuitBreakerConfig.getOpenDurationMSec());
+        this.halfOpenTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(circuitBreakerConfig.getHalfOpenTimeoutMSec());
+        this.window = new byte[Math.max(1, circuitBreakerConfig.getWindowSize())];
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * @return a permit for {@link #record(long, long, boolean)}, or {@link #NOT_PERMITTED} when the call must fail fast
+     */
+    long tryAcquire() {
+        if (state == State.CLOSED) {
+            return epoch;
+        }
+        if (state == State.OPEN && System.nanoTime() - openUntilNanos < 0) {
+            return NOT_PERMITTED;
+        }
+        State from;
+        long permit;
+        synchronized (this) {
+            from = state;
+            if (from == State.OPEN) {
+                if (System.nanoTime() - openUntilNanos < 0) {
+                    return NOT_PERMITTED;
+                }
+                moveTo(State.HALF_OPEN);
+            } else if (from == State.CLOSED) {
+                return epoch;
+            } else if (probesIssued >= Math.max(1, circuitBreakerConfig.getHalfOpenProbes())
+                    && System.nanoTime() - halfOpenSinceNanos >= halfOpenTimeoutNanos) {
+                // the outstanding probes are lost, start over with a new epoch so late results are ignored
+                moveTo(State.HALF_OPEN);
+            }
+            if (probesIssued >= Math.max(1, circuitBreakerConfig.getHalfOpenProbes())) {
+                permit = NOT_PERMITTED;
+            } else {
+                probesIssued++;
+                permit = epoch;
+            }
+        }
+        if (from == State.OPEN) {
+            notify(State.OPEN, State.HALF_OPEN);
+        }
+        return permit;
+    }
+
+    /**
+     * Record the outcome of an admitted call.
+     *
+     * @param permit - Returned by {@link #tryAcquire()} for this call
+     * @param nanos  - Duration of the call, or a negative value to leave it out of the slow-call rate
+     */
+    void record(long permit, long nanos, boolean failed) {
+        if (permit == NOT_PERMITTED || permit != epoch) {
+            return;
+        }
+        byte outcome = failed ? FAILED : (nanos >= slowCallNanos ? SLOW : SUCCESS);
+        State from;
+        State to;
+        synchronized (this) {
+            if (permit != epoch) {
+                return;
+            }
+            from = state;
+            to = from == State.CLOSED ? recordClosed(outcome) : recordProbe(outcome);
+            if (to == from) {
+                return;
+            }
+            moveTo(to);
+        }
+        notify(from, to);
+    }
+
+    /**
+     * Give back the permit of an admitted call that ended without an outcome, e.g. a cancelled stream, without
+     * counting it either way. A half-open probe slot is freed for another call.
+     */
+    void release(long permit) {
+        if (permit == NOT_PERMITTED || permit != epoch) {
+            return;
+        }
+        synchronized (this) {
+            if (permit == epoch && state == State.HALF_OPEN && probesIssued > probeResults) {
+                probesIssued--;
+            }
+        }
+    }
+
+    static boolean isFailure(OperationStatus status) {
+        if (status == null) {
+            return true;
+        }
+        switch (status) {
+            case InternalError:
+            case QueueOverflow:
+            case NoStorage:
+            case ResponseTimeout:
+            case ConnectionError:
+            case UnknownError:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private State recordClosed(byte outcome) {
+        if (calls == window.length) {
+            forget(window[next]);
+        } else {
+            calls++;
+        }
+        window[next] = outcome;
+        next = (next + 1) % window.length;
+        if (outcome == FAILED) {
+            failures++;
+        } else if (outcome == SLOW) {
+            slowCalls++;
+        }
+        if (calls < Math.max(1, circuitBreakerConfig.getMinimumCalls())) {
+            return State.CLOSED;
+        }
+        return tripped(failures, slowCalls, calls) ? State.OPEN : State.CLOSED;
+    }
+
+    private State recordProbe(byte outcome) {
+        probeResults++;
+        if (outcome == FAILED) {
+            probeFailures++;
+        } else if (outcome == SLOW) {
+            probeSlowCalls++;
+        }
+        if (probeResults < Math.max(1, circuitBreakerConfig.getHalfOpenProbes())) {
+            return State.HALF_OPEN;
+        }
+        return tripped(probeFailures, probeSlowCalls, probeResults) ? State.OPEN : State.CLOSED;
+    }
+
+    private boolean tripped(int failed, int slow, int total) {
+        return 100.0 * failed / total >= circuitBreakerConfig.getFailureRateThreshold()
+                || 100.0 * slow / total >= circuitBreakerConfig.getSlowCallRateThreshold();
+    }
+
+    private void forget(byte outcome) {
+        if (outcome == FAILED) {
+            failures--;
+        } else if (outcome == SLOW) {
+            slowCalls--;
+        }
+    }
+
+    // caller holds the lock
+    private void moveTo(State to) {
+        if (to == State.OPEN) {
+            openUntilNanos = System.nanoTime() + openNanos;
+        } else if (to == State.HALF_OPEN) {
+            halfOpenSinceNanos = System.nanoTime();
+        }
+        next = 0;
+        calls = 0;
+        failures = 0;
+        slowCalls = 0;
+        probesIssued = 0;
+        probeResults = 0;
+        probeFailures = 0;
+        probeSlowCalls = 0;
+        epoch++;
+        state = to;
+    }
+
+    private void notify(State from, State to) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onStateChange(name, from, to);
+        } catch (Exception e) {
+            System.out.println("Error CircuitBreaker listener: " + e);
+        }
+    }
+}
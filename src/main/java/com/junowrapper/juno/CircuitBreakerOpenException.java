@@ -0,0 +1,12 @@
+package com.junowrapper.juno;
+
+/**
+ * Thrown, or used to fail a future, instead of calling Juno while a {@link CircuitBreaker} is open. Carries no stack
+ * trace, so failing fast stays cheap.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String name) {
+        super("Circuit breaker '" + name + "' is open", null, false, false);
+    }
+}
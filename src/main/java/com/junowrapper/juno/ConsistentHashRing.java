@@ -0,0 +1,77 @@
+package com.junowrapper.juno;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable consistent-hash ring. Every node is placed at {@code virtualNodes * weight} points derived from its name;
+ * a key belongs to the first point at or after its hash, wrapping around. Adding or removing a node only moves the
+ * keys between its points and their predecessors, about {@code weight / totalWeight} of all keys.
+ */
+final class ConsistentHashRing<T> {
+
+    private final long[] points;
+    private final Object[] owners;
+
+    /**
+     * @param names        - Stable node names, unique
+     * @param weights      - Relative node weights, >= 1
+     * @param nodes        - Nodes, in the same order as names
+     * @param virtualNodes - Points per unit of weight
+     */
+    ConsistentHashRing(List<String> names, List<Integer> weights, List<T> nodes, int virtualNodes) {
+        int total = 0;
+        for (Integer weight : weights) {
+            total += weight * virtualNodes;
+        }
+        long[] hashes = new long[total];
+        int[] nodeOf = new int[total];
+        int p = 0;
+        for (int n = 0; n < nodes.size(); n++) {
+            for (int v = 0; v < weights.get(n) * virtualNodes; v++) {
+                hashes[p] = hash((names.get(n) + "#" + v).getBytes(StandardCharsets.UTF_8));
+                nodeOf[p] = n;
+                p++;
+            }
+        }
+
+        // sort points, carrying their node along
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+        points = new long[total];
+        owners = new Object[total];
+        for (int i = 0; i < total; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = nodes.get(nodeOf[order[i]]);
+        }
+    }
+
+    T nodeFor(byte[] keyBytes) {
+        int i = Arrays.binarySearch(points, hash(keyBytes));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return (T) owners[i == points.length ? 0 : i];
+    }
+
+    /**
+     * 64-bit FNV-1a followed by the MurmurHash3 finalizer for good avalanche on short keys.
+     */
+    static long hash(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,242 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.HedgeConfig;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a read, and when it is still pending after the hedge delay and the budget allows, the same read a second time;
+ * the first {@link OperationStatus#Success} or {@link OperationStatus#NoKey} response is returned. When neither attempt
+ * gets one, the call ends the way the primary did: with its response or its error.
+ * <p>
+ * Blocking reads run on at most {@link #HEDGE_THREADS} threads shared by all hedgers. When they are all busy a primary
+ * runs on the calling thread and a hedge is not sent, so hedging can't pile up threads while Juno is slow.
+ */
+final class Hedger {
+
+    static final int HEDGE_THREADS = 64;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ExecutorService HEDGE_EXECUTOR = new ThreadPoolExecutor(0, HEDGE_THREADS, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), r -> {
+        Thread thread = new Thread(r, "juno-hedge-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int MIN_SAMPLES = 100;
+    // budget is kept in thousandths of a hedge
+    private static final long TOKEN = 1000;
+
+    private final HedgeConfig hedgeConfig;
+    private final Recorder latencies = new Recorder(MAX_TRACKED_NANOS, 2);
+    private final Histogram samples = new Histogram(MAX_TRACKED_NANOS, 2);
+    private Histogram interval;
+    private volatile long observedDelayNanos = -1;
+    private volatile long nextRefreshNanos = System.nanoTime() + REFRESH_NANOS;
+
+    private final AtomicLong tokens;
+    private final LongAdder hedgesSent = new LongAdder();
+    private final LongAdder hedgesWon = new LongAdder();
+
+    Hedger(HedgeConfig hedgeConfig) {
+        this.hedgeConfig = hedgeConfig;
+        this.tokens = new AtomicLong(maxTokens());
+    }
+
+    HedgeConfig getHedgeConfig() {
+        return hedgeConfig;
+    }
+
+    long getHedgesSent() {
+        return hedgesSent.sum();
+    }
+
+    long getHedgesWon() {
+        return hedgesWon.sum();
+    }
+
+    /**
+     * @param attempt - Starts one non-blocking read, called once for the primary and once more for a hedge
+     */
+    JunoResponse get(Supplier<CompletableFuture<JunoResponse>> attempt) {
+        deposit();
+        return hedge(System.nanoTime(), attempt.get(), attempt);
+    }
+
+    /**
+     * @param call - One blocking read, run on the hedge threads for the primary and once more for a hedge
+     */
+    JunoResponse getBlocking(Supplier<JunoResponse> call) {
+        deposit();
+        long start = System.nanoTime();
+        CompletableFuture<JunoResponse> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(call, HEDGE_EXECUTOR);
+        } catch (RejectedExecutionException e) {
+            return call.get();
+        }
+        return hedge(start, primary, () -> CompletableFuture.supplyAsync(call, HEDGE_EXECUTOR));
+    }
+
+    private JunoResponse hedge(long start, CompletableFuture<JunoResponse> primary, Supplier<CompletableFuture<JunoResponse>> attempt) {
+        primary.whenComplete((r, e) -> {
+            if (e == null) {
+                latencies.recordValue(Math.min(System.nanoTime() - start, MAX_TRACKED_NANOS));
+            }
+        });
+
+        try {
+            return primary.get(delayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // fall through to hedging
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+
+        if (!withdraw()) {
+            return await(primary);
+        }
+        CompletableFuture<JunoResponse> hedge;
+        try {
+            hedge = attempt.get();
+        } catch (RejectedExecutionException e) {
+            tokens.addAndGet(TOKEN);
+            return await(primary);
+        }
+        hedgesSent.increment();
+        CompletableFuture<JunoResponse> first = new CompletableFuture<>();
+        AtomicInteger losers = new AtomicInteger();
+        primary.whenComplete((r, e) -> {
+            if (wins(r, e)) {
+                first.complete(r);
+            } else if (losers.incrementAndGet() == 2) {
+                endLikePrimary(first, primary);
+            }
+        });
+        hedge.whenComplete((r, e) -> {
+            if (wins(r, e)) {
+                if (first.complete(r)) {
+                    hedgesWon.increment();
+                }
+            } else if (losers.incrementAndGet() == 2) {
+                endLikePrimary(first, primary);
+            }
+        });
+        return await(first);
+    }
+
+    /**
+     * @return true for an answer worth returning before the other attempt completes
+     */
+    private static boolean wins(JunoResponse r, Throwable e) {
+        return e == null && r != null && (r.getStatus() == OperationStatus.Success || r.getStatus() == OperationStatus.NoKey);
+    }
+
+    private static void endLikePrimary(CompletableFuture<JunoResponse> first, CompletableFuture<JunoResponse> primary) {
+        primary.whenComplete((r, e) -> {
+            if (e != null) {
+                first.completeExceptionally(e);
+            } else {
+                first.complete(r);
+            }
+        });
+    }
+
+    private long delayNanos() {
+        if (hedgeConfig.getPercentile() > 0) {
+            refresh();
+            long observed = observedDelayNanos;
+            if (observed >= 0) {
+                return Math.max(observed, TimeUnit.MILLISECONDS.toNanos(hedgeConfig.getMinDelayMSec()));
+            }
+        }
+        return TimeUnit.MILLISECONDS.toNanos(hedgeConfig.getDelayMSec());
+    }
+
+    /**
+     * Recompute the observed percentile about once a second, from at least {@link #MIN_SAMPLES} latencies.
+     */
+    private void refresh() {
+        if (System.nanoTime() < nextRefreshNanos) {
+            return;
+        }
+        synchronized (samples) {
+            long now = System.nanoTime();
+            if (now < nextRefreshNanos) {
+                return;
+            }
+            nextRefreshNanos = now + REFRESH_NANOS;
+            interval = latencies.getIntervalHistogram(interval);
+            samples.add(interval);
+            if (samples.getTotalCount() >= MIN_SAMPLES) {
+                observedDelayNanos = samples.getValueAtPercentile(hedgeConfig.getPercentile());
+                samples.reset();
+            }
+        }
+    }
+
+    private void deposit() {
+        long refill = (long) (hedgeConfig.getBudgetRatio() * TOKEN);
+        long max = maxTokens();
+        tokens.getAndUpdate(t -> Math.min(max, t + refill));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long t = tokens.get();
+            if (t < TOKEN) {
+                return false;
+            }
+            if (tokens.compareAndSet(t, t - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private long maxTokens() {
+        return hedgeConfig.getMaxBurst() * TOKEN;
+    }
+
+    private static JunoResponse await(CompletableFuture<JunoResponse> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable t) {
+        if (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new CompletionException(t);
+    }
+}
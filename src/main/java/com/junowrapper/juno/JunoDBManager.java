@@ -1,21 +1,57 @@
 package com.junowrapper.juno;
 
 import com.junowrapper.codec.BaseCodec;
+import com.junowrapper.codec.CompactKeyCodec;
+import com.junowrapper.codec.EncodedKey;
+import com.junowrapper.codec.EnvelopeCodec;
+import com.junowrapper.codec.KeyCodec;
 import com.junowrapper.codec.KryoCodec;
+import com.junowrapper.juno.cache.NearCache;
+import com.junowrapper.juno.metrics.MetricsSink;
+import com.junowrapper.juno.metrics.MetricsSink.Operation;
+import com.junowrapper.juno.model.BatchConfig;
+import com.junowrapper.juno.model.CircuitBreakerConfig;
+import com.junowrapper.juno.model.HedgeConfig;
 import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.JunoResult;
+import com.junowrapper.juno.model.LargeObjectConfig;
+import com.junowrapper.juno.model.MicroBatchConfig;
+import com.junowrapper.juno.model.RetryConfig;
+import com.junowrapper.juno.model.SlidingTtlConfig;
+import com.paypal.juno.client.JunoAsyncClient;
 import com.paypal.juno.client.JunoClient;
 import com.paypal.juno.client.JunoClientFactory;
+import com.paypal.juno.client.JunoReactClient;
 import com.paypal.juno.client.io.JunoRequest;
 import com.paypal.juno.client.io.JunoResponse;
 import com.paypal.juno.client.io.OperationStatus;
 import com.paypal.juno.conf.JunoPropertiesProvider;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import rx.Single;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public final class JunoDBManager {
@@ -23,7 +59,27 @@ public final class JunoDBManager {
     public final JunoClient junoClient;
     public static final long MAX_TTL_ALLOWED = 259200;
 
+    public static final int DEFAULT_STREAM_BATCH_SIZE = 256;
+    public static final int DEFAULT_STREAM_CONCURRENCY = 4;
+
+    private final JunoAsyncClient junoAsyncClient;
+    private final JunoReactClient junoReactClient;
     private final BaseCodec codec;
+    private volatile KeyCodec keyCodec;
+    private volatile Executor codecExecutor = ForkJoinPool.commonPool();
+    private volatile BatchConfig batchConfig = new BatchConfig();
+    private volatile RetryConfig retryConfig = new RetryConfig();
+    private volatile LargeObjectConfig largeObjectConfig = new LargeObjectConfig();
+    private final LargeObjectStore largeObjects = new LargeObjectStore(this::doBatch);
+    private volatile NearCache nearCache;
+    private volatile boolean coalescing;
+    private volatile boolean reencodeOnRead;
+    private volatile MicroBatcher microBatcher;
+    private volatile Hedger hedger;
+    private volatile CircuitBreaker circuitBreaker;
+    private volatile SlidingTtl slidingTtl;
+    private volatile MetricsSink metricsSink = MetricsSink.NOOP;
+    private final ConcurrentHashMap<ByteBuffer, CompletableFuture<Optional<?>>> inFlightGets = new ConcurrentHashMap<>();
 
 
     public JunoDBManager(JunoDBConfig junoDBConfig) {
@@ -31,8 +87,7 @@ public final class JunoDBManager {
     }
 
     public JunoDBManager(JunoDBConfig junoDBConfig, BaseCodec codec) {
-        junoClient = initializeJunoClient(junoDBConfig);
-        this.codec = codec;
+        this(initializeJunoClient(junoDBConfig), initializeJunoAsyncClient(junoDBConfig), initializeJunoReactClient(junoDBConfig), codec);
     }
 
     public JunoDBManager(String serverHost, int serverPort, String applicationName, String recordNameSpace) {
@@ -40,13 +95,34 @@ public final class JunoDBManager {
     }
 
     public JunoDBManager(String serverHost, int serverPort, String applicationName, String recordNameSpace, BaseCodec codec) {
-        JunoDBConfig junoDBConfig = new JunoDBConfig(serverHost, serverPort, applicationName, recordNameSpace);
-        junoClient = initializeJunoClient(junoDBConfig);
+        this(new JunoDBConfig(serverHost, serverPort, applicationName, recordNameSpace), codec);
+    }
+
+    public JunoDBManager(JunoClient junoClient, BaseCodec codec) {
+        this(junoClient, null, codec);
+    }
+
+    /**
+     * @param junoAsyncClient - Client backing the *Async methods; when null they run the blocking client on the codec
+     *                        executor instead
+     */
+    public JunoDBManager(JunoClient junoClient, JunoAsyncClient junoAsyncClient, BaseCodec codec) {
+        this(junoClient, junoAsyncClient, null, codec);
+    }
+
+    /**
+     * @param junoReactClient - Client backing the streaming getAll; when null sub-batches run on the blocking client
+     */
+    public JunoDBManager(JunoClient junoClient, JunoAsyncClient junoAsyncClient, JunoReactClient junoReactClient, BaseCodec codec) {
+        this.junoClient = junoClient;
+        this.junoAsyncClient = junoAsyncClient;
+        this.junoReactClient = junoReactClient;
         this.codec = codec;
+        this.keyCodec = KeyCodec.of(codec);
     }
 
 
-    private JunoClient initializeJunoClient(JunoDBConfig junoDBConfig) {
+    private static JunoClient initializeJunoClient(JunoDBConfig junoDBConfig) {
         JunoClient junoClient = null;
         try {
             if (junoDBConfig != null) {
@@ -58,6 +134,30 @@ public final class JunoDBManager {
         return junoClient;
     }
 
+    private static JunoAsyncClient initializeJunoAsyncClient(JunoDBConfig junoDBConfig) {
+        JunoAsyncClient junoAsyncClient = null;
+        try {
+            if (junoDBConfig != null) {
+                junoAsyncClient = JunoClientFactory.newJunoAsyncClient(new JunoPropertiesProvider(junoDBConfig.getProperties()));
+            }
+        } catch (Throwable e) {
+            System.out.println("Exception occur JunoDBManager.initializeAsync(): " + e);
+        }
+        return junoAsyncClient;
+    }
+
+    private static JunoReactClient initializeJunoReactClient(JunoDBConfig junoDBConfig) {
+        JunoReactClient junoReactClient = null;
+        try {
+            if (junoDBConfig != null) {
+                junoReactClient = JunoClientFactory.newJunoReactClient(new JunoPropertiesProvider(junoDBConfig.getProperties()));
+            }
+        } catch (Throwable e) {
+            System.out.println("Exception occur JunoDBManager.initializeReact(): " + e);
+        }
+        return junoReactClient;
+    }
+
 
     /**
      * Get a record from Juno DB and Extend the TTL
@@ -70,7 +170,16 @@ public final class JunoDBManager {
      */
     public <T> Optional<JunoResponse> getJResponse(T key, TimeUnit timeUnit, long newTTL) {
         try {
-            return Optional.ofNullable(junoClient.get(codec.serialize(key), timeUnit.toSeconds(newTTL)));
+            byte[] keyBytes = encodeKey(key);
+            SlidingTtl sliding = slidingTtl;
+            long ttl = sliding == null ? timeUnit.toSeconds(newTTL) : sliding.ttlFor(keyBytes, timeUnit.toSeconds(newTTL));
+            JunoResponse junoResponse = call(Operation.GET, () -> junoClient.get(keyBytes, ttl));
+            if (sliding != null) {
+                sliding.observe(keyBytes, junoResponse);
+            }
+            return Optional.ofNullable(junoResponse);
+        } catch (CircuitBreakerOpenException e) {
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JunoDB failed to 'get': " + key);
         }
@@ -87,20 +196,168 @@ public final class JunoDBManager {
      */
     public <T, V> Optional<V> get(T key, Class<V> vClass, TimeUnit timeUnit, long newTTL) {
         try {
-            JunoResponse junoResponse = junoClient.get(codec.serialize(key), timeUnit.toSeconds(newTTL));
-            if (junoResponse.getStatus() == OperationStatus.Success) {
-                V v = codec.deserialize(junoResponse.getValue(), vClass);
-                return Optional.ofNullable(v);
+            byte[] keyBytes = encodeKey(key);
+            NearCache cache = nearCache;
+            if (cache != null) {
+                Optional<V> cached = cache.get(keyBytes, vClass);
+                if (cached.isPresent()) {
+                    return cached;
+                }
+            }
+
+            long ttl = timeUnit.toSeconds(newTTL);
+            if (coalescing) {
+                return coalesce(keyBytes, vClass, () -> load(keyBytes, vClass, ttl, cache));
             }
+            return load(keyBytes, vClass, ttl, cache);
+        } catch (CircuitBreakerOpenException e) {
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JunoDB failed to 'get': " + key);
         }
         return Optional.empty();
     }
 
+    private <V> Optional<V> load(byte[] keyBytes, Class<V> vClass, long requestedTtlSec, NearCache cache) {
+        MicroBatcher batcher = microBatcher;
+        Hedger hedging = hedger;
+        SlidingTtl sliding = slidingTtl;
+        long timeToLiveSec = sliding == null ? requestedTtlSec : sliding.ttlFor(keyBytes, requestedTtlSec);
+        long generation = cache == null ? 0 : cache.generation(keyBytes);
+        JunoResponse junoResponse;
+        if (batcher != null) {
+            junoResponse = join(batcher.submit(new JunoRequest(keyBytes, null, 0, timeToLiveSec, JunoRequest.OperationType.Get)));
+        } else if (hedging != null && junoAsyncClient != null) {
+            junoResponse = hedging.get(() -> submit(Operation.GET, () -> junoAsyncClient.get(keyBytes, timeToLiveSec),
+                    () -> junoClient.get(keyBytes, timeToLiveSec)));
+        } else if (hedging != null) {
+            junoResponse = hedging.getBlocking(() -> call(Operation.GET, () -> junoClient.get(keyBytes, timeToLiveSec)));
+        } else {
+            junoResponse = call(Operation.GET, () -> junoClient.get(keyBytes, timeToLiveSec));
+        }
+        return loaded(keyBytes, junoResponse, vClass, sliding, cache, generation);
+    }
+
+    /**
+     * Non-blocking {@link #load(byte[], Class, long, NearCache)}, decoding on the codec executor. Not hedged or
+     * micro-batched.
+     */
+    private <V> CompletableFuture<Optional<V>> loadAsync(byte[] keyBytes, Class<V> vClass, long requestedTtlSec, NearCache cache) {
+        SlidingTtl sliding = slidingTtl;
+        long timeToLiveSec = sliding == null ? requestedTtlSec : sliding.ttlFor(keyBytes, requestedTtlSec);
+        long generation = cache == null ? 0 : cache.generation(keyBytes);
+        return submit(Operation.GET, () -> junoAsyncClient.get(keyBytes, timeToLiveSec), () -> junoClient.get(keyBytes, timeToLiveSec))
+                .thenApplyAsync(r -> loaded(keyBytes, r, vClass, sliding, cache, generation), codecExecutor);
+    }
+
+    /**
+     * Decode a loaded record, then update sliding TTL tracking and the near cache with it.
+     *
+     * @param generation - {@link NearCache#generation(byte[])} from before the request was sent
+     */
+    private <V> Optional<V> loaded(byte[] keyBytes, JunoResponse junoResponse, Class<V> vClass, SlidingTtl sliding, NearCache cache, long generation) {
+        if (sliding != null) {
+            sliding.observe(keyBytes, junoResponse);
+        }
+        if (junoResponse.getStatus() == OperationStatus.Success) {
+            V v = decode(junoResponse.getValue(), vClass);
+            if (cache != null) {
+                cache.put(keyBytes, v, junoResponse.getTtl(), generation);
+            }
+            if (v != null && reencodeOnRead) {
+                reencode(junoResponse, v);
+            }
+            return Optional.ofNullable(v);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Rewrite a record decoded by an older codec with the {@link EnvelopeCodec} writer. Runs in the background as a
+     * compare-and-set on the version just read, keeping the remaining TTL, so a concurrent update always wins.
+     */
+    private <V> void reencode(JunoResponse junoResponse, V v) {
+        if (!(codec instanceof EnvelopeCodec) || ((EnvelopeCodec) codec).isCurrent(junoResponse.getValue())) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                byte[] valueBytes = encodeValue(v);
+                call(Operation.CREATE, () -> junoClient.compareAndSet(junoResponse.getRecordContext(), valueBytes, junoResponse.getTtl()));
+            } catch (CircuitBreakerOpenException e) {
+                // a later read tries again
+            } catch (Exception e) {
+                System.out.println("JunoDB failed to 're-encode': " + e.getMessage());
+            }
+        }, codecExecutor);
+    }
+
+    /**
+     * Single-flight: the first caller for a key runs {@code loader}, callers arriving while it is in flight wait for
+     * and share its decoded result instead of sending their own request.
+     */
+    private <V> Optional<V> coalesce(byte[] keyBytes, Class<V> vClass, Supplier<Optional<V>> loader) {
+        ByteBuffer id = ByteBuffer.wrap(keyBytes);
+        CompletableFuture<Optional<?>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<?>> leader = inFlightGets.putIfAbsent(id, flight);
+        if (leader != null) {
+            Optional<?> shared = leader.join();
+            if (!shared.isPresent() || vClass.isInstance(shared.get())) {
+                return (Optional<V>) shared;
+            }
+            // the leader decoded into an incompatible type, fetch our own copy
+            return loader.get();
+        }
+
+        try {
+            Optional<V> v = loader.get();
+            flight.complete(v);
+            return v;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightGets.remove(id, flight);
+        }
+    }
+
+    /**
+     * Non-blocking {@link #coalesce(byte[], Class, Supplier)}, sharing the same in-flight reads.
+     */
+    private <V> CompletableFuture<Optional<V>> coalesceAsync(byte[] keyBytes, Class<V> vClass, Supplier<CompletableFuture<Optional<V>>> loader) {
+        ByteBuffer id = ByteBuffer.wrap(keyBytes);
+        CompletableFuture<Optional<?>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<?>> leader = inFlightGets.putIfAbsent(id, flight);
+        if (leader != null) {
+            return leader.thenCompose(shared -> !shared.isPresent() || vClass.isInstance(shared.get())
+                    ? CompletableFuture.completedFuture((Optional<V>) shared)
+                    : loader.get());
+        }
+
+        CompletableFuture<Optional<V>> v;
+        try {
+            v = loader.get();
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            inFlightGets.remove(id, flight);
+            throw e;
+        }
+        return v.whenComplete((shared, e) -> {
+            if (e != null) {
+                flight.completeExceptionally(e);
+            } else {
+                flight.complete(shared);
+            }
+            inFlightGets.remove(id, flight);
+        });
+    }
+
     public <T> Optional<JunoResponse> getJResponse(T key) {
         try {
-            return Optional.ofNullable(junoClient.get(codec.serialize(key)));
+            byte[] keyBytes = encodeKey(key);
+            return Optional.ofNullable(call(Operation.GET, () -> junoClient.get(keyBytes)));
+        } catch (CircuitBreakerOpenException e) {
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JunoDB failed to 'getJResponse': " + key);
         }
@@ -128,7 +385,17 @@ public final class JunoDBManager {
      */
     public <T, V> Optional<JunoResponse> createJResponse(T key, V value, TimeUnit timeUnit, long newTTL) {
         try {
-            return Optional.ofNullable(junoClient.set(codec.serialize(key), codec.serialize(value), timeUnit.toSeconds(newTTL)));
+            byte[] keyBytes = encodeKey(key);
+            return Optional.ofNullable(write(keyBytes, () -> {
+                MicroBatcher batcher = microBatcher;
+                if (batcher != null) {
+                    return join(batcher.submit(new JunoRequest(keyBytes, encodeValue(value), 0, timeUnit.toSeconds(newTTL), JunoRequest.OperationType.Set)));
+                }
+                byte[] valueBytes = encodeValue(value);
+                return call(Operation.CREATE, () -> junoClient.set(keyBytes, valueBytes, timeUnit.toSeconds(newTTL)));
+            }));
+        } catch (CircuitBreakerOpenException e) {
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JunoDB failed to 'create': " + key);
         }
@@ -153,7 +420,10 @@ public final class JunoDBManager {
      */
     public <T> Optional<JunoResponse> deleteJResponse(T key) {
         try {
-            return Optional.ofNullable(junoClient.delete(codec.serialize(key)));
+            byte[] keyBytes = encodeKey(key);
+            return Optional.ofNullable(write(keyBytes, () -> call(Operation.DELETE, () -> junoClient.delete(keyBytes))));
+        } catch (CircuitBreakerOpenException e) {
+            return Optional.empty();
         } catch (Exception e) {
             System.out.println("JunoDB failed to 'delete': " + key);
         }
@@ -165,11 +435,190 @@ public final class JunoDBManager {
         return junoResponse.map(r -> r.getStatus() == OperationStatus.Success).orElse(false);
     }
 
+    /**
+     * Large-object write: the serialized value is split into {@link LargeObjectConfig} sized chunk records, written in
+     * parallel batches a window at a time, followed by a manifest record under {@code key} holding the length and a
+     * CRC32 checksum. Read it back with {@link #getLarge(Object, Class)} or {@link #getLargeStream(Object)} only.
+     *
+     * @param key           - Key of the manifest record
+     * @param value         - Value to store
+     * @param timeToLiveSec - TTL of the manifest and every chunk
+     * @return true if every chunk and the manifest were written
+     */
+    public <T, V> boolean createLarge(T key, V value, long timeToLiveSec) {
+        try {
+            byte[] valueBytes = encodeValue(value);
+            return valueBytes != null && writeLarge(key, new ByteArrayInputStream(valueBytes), timeToLiveSec);
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'createLarge': " + key);
+        }
+        return false;
+    }
+
+    /**
+     * Large-object write of raw bytes read from {@code in}, a chunk at a time, so the blob is never held in memory as a
+     * whole. The stream is read to its end but not closed.
+     *
+     * @param key           - Key of the manifest record
+     * @param in            - Bytes to store
+     * @param timeToLiveSec - TTL of the manifest and every chunk
+     * @return true if every chunk and the manifest were written
+     */
+    public <T> boolean writeLarge(T key, InputStream in, long timeToLiveSec) {
+        try {
+            return largeObjects.write(encodeKey(key), in, timeToLiveSec, largeObjectConfig);
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'writeLarge': " + key + " " + e);
+        }
+        return false;
+    }
+
+    /**
+     * Stream a large object chunk by chunk; only {@link LargeObjectConfig#getReadAheadChunks()} chunks are held at a
+     * time. A missing chunk or a checksum mismatch surfaces as an {@link java.io.IOException} from the stream.
+     *
+     * @param key - Key of the manifest record
+     * @return Optional<InputStream> - empty if there is no large object under the key
+     */
+    public <T> Optional<InputStream> getLargeStream(T key) {
+        try {
+            return largeObjects.open(encodeKey(key), largeObjectConfig).map(in -> (InputStream) in);
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'getLargeStream': " + key);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Read a large object back into a single array of its exact length and deserialize it.
+     *
+     * @param key - Key of the manifest record
+     * @return Optional<V> - empty if there is no large object under the key or it could not be read back intact
+     */
+    public <T, V> Optional<V> getLarge(T key, Class<V> vClass) {
+        try {
+            Optional<LargeObjectStore.ChunkedInputStream> stream = largeObjects.open(encodeKey(key), largeObjectConfig);
+            if (!stream.isPresent()) {
+                return Optional.empty();
+            }
+            try (LargeObjectStore.ChunkedInputStream in = stream.get()) {
+                byte[] valueBytes = new byte[Math.toIntExact(in.length())];
+                int filled = 0;
+                while (filled < valueBytes.length) {
+                    int n = in.read(valueBytes, filled, valueBytes.length - filled);
+                    if (n < 0) {
+                        break;
+                    }
+                    filled += n;
+                }
+                // reaching the end of the stream verifies length and checksum
+                if (filled != valueBytes.length || in.read() != -1) {
+                    return Optional.empty();
+                }
+                return Optional.ofNullable(decode(valueBytes, vClass));
+            }
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'getLarge': " + key + " " + e);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Delete a large object's manifest and chunks.
+     */
+    public <T> boolean deleteLarge(T key) {
+        try {
+            return largeObjects.delete(encodeKey(key));
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'deleteLarge': " + key);
+        }
+        return false;
+    }
+
+
+    /**
+     * Lock-free read-modify-write. The record is read with its version and written back with a conditional update
+     * (or a create if it did not exist); when another writer got in first the whole cycle is retried with jittered
+     * backoff per {@link RetryConfig}.
+     *
+     * @param key           - Key of the record
+     * @param mutator       - Receives the current value (null if absent) and returns the value to write, or null to
+     *                      leave the record untouched. May be invoked once per attempt, so it must not keep state
+     *                      across calls other than its latest outcome
+     * @param timeToLiveSec - TTL of the written record
+     * @return true if the mutation was applied (or nothing needed writing), false on failure or exhausted retries
+     */
+    public <T, V> boolean compareAndUpdate(T key, Class<V> vClass, UnaryOperator<V> mutator, long timeToLiveSec) {
+        RetryConfig retry = retryConfig;
+        try {
+            byte[] keyBytes = encodeKey(key);
+            invalidate(keyBytes);
+            try {
+                for (int attempt = 1; attempt <= retry.getMaxAttempts(); attempt++) {
+                    JunoResponse current = call(Operation.GET, () -> junoClient.get(keyBytes, timeToLiveSec));
+                    JunoResponse written;
+                    if (current.getStatus() == OperationStatus.Success) {
+                        V updated = mutator.apply(decode(current.getValue(), vClass));
+                        if (updated == null) {
+                            return true;
+                        }
+                        byte[] valueBytes = encodeValue(updated);
+                        written = call(Operation.CREATE, () -> junoClient.compareAndSet(current.getRecordContext(), valueBytes, timeToLiveSec));
+                    } else if (current.getStatus() == OperationStatus.NoKey) {
+                        V created = mutator.apply(null);
+                        if (created == null) {
+                            return true;
+                        }
+                        byte[] valueBytes = encodeValue(created);
+                        written = call(Operation.CREATE, () -> junoClient.create(keyBytes, valueBytes, timeToLiveSec));
+                    } else {
+                        System.out.println("JunoDB failed to 'compareAndUpdate' read: " + key + " " + current.getStatus());
+                        return false;
+                    }
+
+                    if (written.getStatus() == OperationStatus.Success) {
+                        return true;
+                    }
+                    if (!isConflict(written.getStatus()) || !retry.backoff(attempt)) {
+                        System.out.println("JunoDB failed to 'compareAndUpdate': " + key + " " + written.getStatus());
+                        return false;
+                    }
+                }
+                System.out.println("JunoDB 'compareAndUpdate' retries exhausted: " + key);
+            } finally {
+                invalidate(keyBytes);
+            }
+        } catch (CircuitBreakerOpenException e) {
+            return false;
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'compareAndUpdate': " + key);
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the status means a concurrent writer won and the read-modify-write should be retried
+     */
+    public static boolean isConflict(OperationStatus status) {
+        return status == OperationStatus.ConditionViolation
+                || status == OperationStatus.UniqueKeyViolation
+                || status == OperationStatus.NoKey
+                || status == OperationStatus.RecordLocked;
+    }
+
+    /**
+     * @return true if the status reports a failure that may pass, e.g. an overloaded or unreachable Juno, so the same
+     * write is worth sending again
+     */
+    public static boolean isTransient(OperationStatus status) {
+        return CircuitBreaker.isFailure(status) || status == OperationStatus.RecordLocked;
+    }
+
 
     public <T, V> List<V> getAll(Collection<T> keys, Class<V> vClass, long timeToLiveSec) {
         List<V> values = new ArrayList<>();
         try {
-            List<JunoRequest> batchGetReq = keys.stream().map(k -> new JunoRequest(codec.serialize(k), null, 0, timeToLiveSec, JunoRequest.OperationType.Get)).collect(Collectors.toList());
+            List<JunoRequest> batchGetReq = keys.stream().map(k -> new JunoRequest(encodeKey(k), null, 0, timeToLiveSec, JunoRequest.OperationType.Get)).collect(Collectors.toList());
 
             if (batchGetReq.isEmpty()) {
                 return values;
@@ -182,7 +631,7 @@ public final class JunoDBManager {
 
             junoResponses.forEach(r -> {
                 if (r.getStatus() == OperationStatus.Success && r.getValue() != null && r.getValue().length > 0) {
-                    values.add(codec.deserialize(r.getValue(), vClass));
+                    values.add(decode(r.getValue(), vClass));
                 }
             });
         } catch (Exception exception) {
@@ -196,21 +645,63 @@ public final class JunoDBManager {
         return getAll(keys, vClass, MAX_TTL_ALLOWED);
     }
 
+    /**
+     * Execute a batch of requests. Batches above the {@link BatchConfig} limits are split into sub-batches by request
+     * count and serialized bytes, dispatched in parallel and merged back in request order; a failed sub-batch reports
+     * {@link OperationStatus#UnknownError} for its requests.
+     *
+     * @param requests - Requests to execute
+     * @return Iterable<JunoResponse> - one response per request, in request order
+     */
     public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
         try {
-            return junoClient.doBatch(requests);
+            return dispatchBatch(requests);
+        } catch (CircuitBreakerOpenException e) {
+            return null;
         } catch (Exception exception) {
             System.out.println("Error doBatch(): " + exception);
         }
         return null;
     }
 
+    /**
+     * {@link #doBatch(Iterable)} throwing its failures instead of logging them.
+     */
+    private List<JunoResponse> dispatchBatch(Iterable<JunoRequest> requests) {
+        // a single pass over the caller's iterable, it may not support another
+        List<JunoRequest> batch = new ArrayList<>();
+        requests.forEach(batch::add);
+        invalidateWrites(batch);
+        MetricsSink sink = metricsSink;
+        CircuitBreaker breaker = circuitBreaker;
+        long permit = admit(breaker);
+        long start = System.nanoTime();
+        List<JunoResponse> junoResponses;
+        try {
+            junoResponses = BatchDispatcher.dispatch(junoClient, batch, batchConfig);
+        } catch (RuntimeException e) {
+            record(breaker, permit, -1, true);
+            throw e;
+        } finally {
+            invalidateWrites(batch);
+        }
+        recordBatch(sink, breaker, permit, start, junoResponses);
+        return junoResponses;
+    }
+
+    private static void recordBatch(MetricsSink sink, CircuitBreaker breaker, long permit, long start, List<JunoResponse> junoResponses) {
+        sink.recordLatency(Operation.BATCH, System.nanoTime() - start);
+        sink.recordBatchSize(junoResponses.size());
+        junoResponses.forEach(r -> sink.recordStatus(Operation.BATCH, r.getStatus()));
+        record(breaker, permit, -1, anyFailure(junoResponses));
+    }
+
     public <K> JunoRequest setJunoRequest(K key, JunoRequest.OperationType operationType) {
         return setJunoRequest(key, operationType, MAX_TTL_ALLOWED);
     }
 
     public <K> JunoRequest setJunoRequest(K key, JunoRequest.OperationType operationType, long timeToLiveSec) {
-        return new JunoRequest(codec.serialize(key), null, 0, timeToLiveSec, operationType);
+        return new JunoRequest(encodeKey(key), null, 0, timeToLiveSec, operationType);
     }
 
     public <K, V> JunoRequest setJunoRequest(K key, V value, JunoRequest.OperationType operationType) {
@@ -222,12 +713,650 @@ public final class JunoDBManager {
     }
 
     public <K, V> JunoRequest setJunoRequest(K key, V value, JunoRequest.OperationType operationType, TimeUnit timeUnit, long newTTL) {
-        byte[] serializedKey = codec.serialize(key);
-        byte[] serializedValue = codec.serialize(value);
+        byte[] serializedKey = encodeKey(key);
+        byte[] serializedValue = encodeValue(value);
         return new JunoRequest(serializedKey, serializedValue, 0, timeUnit.toSeconds(newTTL), operationType);
     }
 
+    /**
+     * Non-blocking {@link #get(Object, Class, TimeUnit, long)}. The returned future completes with the decoded value;
+     * decoding runs on the codec executor, never on the Juno I/O threads. Served from and filled into the near cache,
+     * coalesced with concurrent gets of the key and counted in the metrics like a blocking get, but never hedged or
+     * micro-batched.
+     *
+     * @param key      - Key of the record to be retrieved
+     * @param timeUnit - Provide type of newTTL
+     * @param newTTL   - Replace previous TTL
+     * @return CompletableFuture<Optional<V>> - completes with an empty Optional if the record is missing or the call fails
+     */
+    public <T, V> CompletableFuture<Optional<V>> getAsync(T key, Class<V> vClass, TimeUnit timeUnit, long newTTL) {
+        try {
+            byte[] keyBytes = encodeKey(key);
+            NearCache cache = nearCache;
+            if (cache != null) {
+                Optional<V> cached = cache.get(keyBytes, vClass);
+                if (cached.isPresent()) {
+                    return CompletableFuture.completedFuture(cached);
+                }
+            }
+
+            long ttl = timeUnit.toSeconds(newTTL);
+            CompletableFuture<Optional<V>> value = coalescing
+                    ? coalesceAsync(keyBytes, vClass, () -> loadAsync(keyBytes, vClass, ttl, cache))
+                    : loadAsync(keyBytes, vClass, ttl, cache);
+            return value
+                    .exceptionally(e -> {
+                        if (!failedFast(e)) {
+                            System.out.println("JunoDB failed to 'getAsync': " + key);
+                        }
+                        return Optional.empty();
+                    });
+        } catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'getAsync': " + key);
+        }
+        return CompletableFuture.completedFuture(Optional.empty());
+    }
+
+    public <T, V> CompletableFuture<Optional<V>> getAsync(T key, Class<V> vClass) {
+        return getAsync(key, vClass, TimeUnit.SECONDS, MAX_TTL_ALLOWED);
+    }
+
+    /**
+     * Non-blocking {@link #create(Object, Object, long)}, value encoding runs on the codec executor.
+     *
+     * @return CompletableFuture<Boolean> - completes with true if the record was written
+     */
+    public <T, V> CompletableFuture<Boolean> createAsync(T key, V value, long timeToLiveSec) {
+        return CompletableFuture.supplyAsync(() -> encodeValue(value), codecExecutor)
+                .thenCompose(valueBytes -> {
+                    byte[] keyBytes = encodeKey(key);
+                    invalidate(keyBytes);
+                    return submit(Operation.CREATE, () -> junoAsyncClient.set(keyBytes, valueBytes, timeToLiveSec),
+                            () -> junoClient.set(keyBytes, valueBytes, timeToLiveSec))
+                            .whenComplete((r, e) -> invalidate(keyBytes));
+                })
+                .thenApply(r -> r.getStatus() == OperationStatus.Success)
+                .exceptionally(e -> {
+                    if (!failedFast(e)) {
+                        System.out.println("JunoDB failed to 'createAsync': " + key);
+                    }
+                    return false;
+                });
+    }
+
+    public <T, V> CompletableFuture<Boolean> createAsync(T key, V value) {
+        return createAsync(key, value, MAX_TTL_ALLOWED);
+    }
+
+    /**
+     * Non-blocking {@link #delete(Object)}.
+     *
+     * @return CompletableFuture<Boolean> - completes with true if the record was deleted
+     */
+    public <T> CompletableFuture<Boolean> deleteAsync(T key) {
+        try {
+            byte[] keyBytes = encodeKey(key);
+            invalidate(keyBytes);
+            return submit(Operation.DELETE, () -> junoAsyncClient.delete(keyBytes), () -> junoClient.delete(keyBytes))
+                    .whenComplete((r, e) -> invalidate(keyBytes))
+                    .thenApply(r -> r.getStatus() == OperationStatus.Success)
+                    .exceptionally(e -> {
+                        if (!failedFast(e)) {
+                            System.out.println("JunoDB failed to 'deleteAsync': " + key);
+                        }
+                        return false;
+                    });
+        } catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.completedFuture(false);
+        } catch (Exception e) {
+            System.out.println("JunoDB failed to 'deleteAsync': " + key);
+        }
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * Non-blocking {@link #getAll(Collection, Class, long)}, decoding of the batch runs on the codec executor. Split into
+     * sub-batches per {@link BatchConfig} and counted in the metrics like {@link #doBatch(Iterable)}; like getAll it
+     * always reads Juno, bypassing the near cache.
+     *
+     * @return CompletableFuture<List<V>> - completes with the values found, those of failed sub-batches are left out
+     */
+    public <T, V> CompletableFuture<List<V>> getAllAsync(Collection<T> keys, Class<V> vClass, long timeToLiveSec) {
+        try {
+            List<JunoRequest> batchGetReq = keys.stream().map(k -> new JunoRequest(encodeKey(k), null, 0, timeToLiveSec, JunoRequest.OperationType.Get)).collect(Collectors.toList());
+            if (batchGetReq.isEmpty()) {
+                return CompletableFuture.completedFuture(new ArrayList<>());
+            }
+
+            CompletableFuture<List<JunoResponse>> responses;
+            if (junoAsyncClient != null) {
+                MetricsSink sink = metricsSink;
+                CircuitBreaker breaker = circuitBreaker;
+                long permit = admit(breaker);
+                long start = System.nanoTime();
+                responses = BatchDispatcher.dispatchAsync(junoAsyncClient, batchGetReq, batchConfig)
+                        .whenComplete((r, e) -> recordBatch(sink, breaker, permit, start, r));
+            } else {
+                responses = CompletableFuture.supplyAsync(() -> dispatchBatch(batchGetReq), codecExecutor);
+            }
+
+            return responses.thenApplyAsync(junoResponses -> {
+                List<V> values = new ArrayList<>();
+                junoResponses.forEach(r -> {
+                    if (r.getStatus() == OperationStatus.Success && r.getValue() != null && r.getValue().length > 0) {
+                        values.add(decode(r.getValue(), vClass));
+                    }
+                });
+                return values;
+            }, codecExecutor).exceptionally(e -> {
+                if (!failedFast(e)) {
+                    System.out.println("Error getAllAsync(): " + e);
+                }
+                return new ArrayList<>();
+            });
+        } catch (CircuitBreakerOpenException e) {
+            return CompletableFuture.completedFuture(new ArrayList<>());
+        } catch (Exception exception) {
+            System.out.println("Error getAllAsync(): " + exception);
+        }
+        return CompletableFuture.completedFuture(new ArrayList<>());
+    }
+
+    public <T, V> CompletableFuture<List<V>> getAllAsync(Collection<T> keys, Class<V> vClass) {
+        return getAllAsync(keys, vClass, MAX_TTL_ALLOWED);
+    }
+
+    /**
+     * Streaming {@link #getAll(Collection, Class, long)}. Keys are sent in sub-batches of {@code batchSize} with at most
+     * {@code concurrency} in flight, and each result is emitted as soon as its response is decoded, so demand from the
+     * subscriber bounds how much is buffered. A failing key or sub-batch yields failed {@link JunoResult}s for those
+     * keys only; the stream itself does not error.
+     *
+     * @param keys          - Keys to fetch
+     * @param timeToLiveSec - Replace previous TTL
+     * @param batchSize     - Keys per sub-batch
+     * @param concurrency   - Sub-batches in flight
+     * @return Flux<JunoResult<K, V>> - one result per key, in arrival order
+     */
+    public <K, V> Flux<JunoResult<K, V>> getAllPublisher(Collection<K> keys, Class<V> vClass, long timeToLiveSec, int batchSize, int concurrency) {
+        Scheduler codecScheduler = Schedulers.fromExecutor(codecExecutor);
+        return Flux.fromIterable(keys)
+                .buffer(batchSize)
+                .flatMap(chunk -> streamBatch(chunk, vClass, timeToLiveSec, codecScheduler), concurrency);
+    }
+
+    public <K, V> Flux<JunoResult<K, V>> getAllPublisher(Collection<K> keys, Class<V> vClass) {
+        return getAllPublisher(keys, vClass, MAX_TTL_ALLOWED, DEFAULT_STREAM_BATCH_SIZE, DEFAULT_STREAM_CONCURRENCY);
+    }
+
+    /**
+     * Blocking view of {@link #getAllPublisher(Collection, Class, long, int, int)}; at most {@code batchSize} results
+     * are buffered ahead of the consumer. Close the stream to cancel outstanding sub-batches.
+     */
+    public <K, V> Stream<JunoResult<K, V>> getAllStream(Collection<K> keys, Class<V> vClass, long timeToLiveSec, int batchSize, int concurrency) {
+        return getAllPublisher(keys, vClass, timeToLiveSec, batchSize, concurrency).toStream(batchSize);
+    }
+
+    public <K, V> Stream<JunoResult<K, V>> getAllStream(Collection<K> keys, Class<V> vClass) {
+        return getAllStream(keys, vClass, MAX_TTL_ALLOWED, DEFAULT_STREAM_BATCH_SIZE, DEFAULT_STREAM_CONCURRENCY);
+    }
+
+    private <K, V> Flux<JunoResult<K, V>> streamBatch(List<K> chunk, Class<V> vClass, long timeToLiveSec, Scheduler codecScheduler) {
+        Map<ByteBuffer, K> keysByBytes = new HashMap<>();
+        List<JunoRequest> requests = new ArrayList<>(chunk.size());
+        for (K key : chunk) {
+            byte[] keyBytes = encodeKey(key);
+            keysByBytes.put(ByteBuffer.wrap(keyBytes), key);
+            requests.add(new JunoRequest(keyBytes, null, 0, timeToLiveSec, JunoRequest.OperationType.Get));
+        }
+
+        CircuitBreaker breaker = circuitBreaker;
+        Flux<JunoResponse> responses = Flux.defer(() -> {
+            long permit = admit(breaker);
+            boolean[] failed = new boolean[1];
+            Flux<JunoResponse> batch;
+            try {
+                batch = junoReactClient != null
+                        ? junoReactClient.doBatch(requests)
+                        : Flux.fromIterable(junoClient.doBatch(requests));
+            } catch (RuntimeException e) {
+                record(breaker, permit, -1, true);
+                throw e;
+            }
+            // a cancelled batch says nothing about Juno's health, but its permit must still be returned
+            return batch
+                    .doOnNext(r -> failed[0] |= CircuitBreaker.isFailure(r.getStatus()))
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            release(breaker, permit);
+                        } else {
+                            record(breaker, permit, -1, failed[0] || signal == SignalType.ON_ERROR);
+                        }
+                    });
+        });
+        if (junoReactClient == null) {
+            responses = responses.subscribeOn(codecScheduler);
+        }
+
+        return responses
+                .publishOn(codecScheduler, chunk.size())
+                .map(r -> decodeResult(keysByBytes.get(ByteBuffer.wrap(r.getKey())), r, vClass))
+                .onErrorResume(e -> {
+                    if (!failedFast(e)) {
+                        System.out.println("Error getAllPublisher(): " + e);
+                    }
+                    return Flux.fromIterable(chunk).map(k -> JunoResult.failure(k, OperationStatus.UnknownError, e));
+                });
+    }
+
+    private <K, V> JunoResult<K, V> decodeResult(K key, JunoResponse r, Class<V> vClass) {
+        if (r.getStatus() != OperationStatus.Success || r.getValue() == null || r.getValue().length == 0) {
+            return JunoResult.of(key, null, r.getStatus());
+        }
+        try {
+            V v = decode(r.getValue(), vClass);
+            if (v == null) {
+                return JunoResult.failure(key, r.getStatus(), new IllegalStateException("Failed to decode value of key: " + key));
+            }
+            return JunoResult.of(key, v, r.getStatus());
+        } catch (Exception e) {
+            return JunoResult.failure(key, r.getStatus(), e);
+        }
+    }
+
+    /**
+     * Run a write of {@code keyBytes}, invalidating its cached state before it is sent and again once it completed, so
+     * a read racing the write can't leave the old value cached.
+     */
+    private <R> R write(byte[] keyBytes, Supplier<R> write) {
+        invalidate(keyBytes);
+        try {
+            return write.get();
+        } finally {
+            invalidate(keyBytes);
+        }
+    }
+
+    private void invalidateWrites(Iterable<JunoRequest> requests) {
+        if (nearCache == null && slidingTtl == null) {
+            return;
+        }
+        for (JunoRequest request : requests) {
+            if (request.getType() != JunoRequest.OperationType.Get) {
+                invalidate(request.key());
+            }
+        }
+    }
+
+    private void invalidate(byte[] keyBytes) {
+        NearCache cache = nearCache;
+        if (cache != null) {
+            cache.invalidate(keyBytes);
+        }
+        SlidingTtl sliding = slidingTtl;
+        if (sliding != null) {
+            sliding.forget(keyBytes);
+        }
+    }
+
+    private CompletableFuture<JunoResponse> submit(Operation operation, Supplier<Single<JunoResponse>> async, Supplier<JunoResponse> sync) {
+        if (junoAsyncClient == null) {
+            return CompletableFuture.supplyAsync(() -> call(operation, sync), codecExecutor);
+        }
+        MetricsSink sink = metricsSink;
+        CircuitBreaker breaker = circuitBreaker;
+        CompletableFuture<JunoResponse> future = new CompletableFuture<>();
+        long permit;
+        try {
+            permit = admit(breaker);
+        } catch (CircuitBreakerOpenException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        long start = System.nanoTime();
+        try {
+            async.get().subscribe(future::complete, future::completeExceptionally);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future.whenComplete((r, e) -> {
+            long elapsed = System.nanoTime() - start;
+            sink.recordLatency(operation, elapsed);
+            if (e != null) {
+                sink.recordFailure(operation, e);
+            } else {
+                sink.recordStatus(operation, r.getStatus());
+            }
+            record(breaker, permit, elapsed, e != null || CircuitBreaker.isFailure(r.getStatus()));
+        });
+    }
+
+    /**
+     * Run a blocking client call, recording its latency and outcome. Throws {@link CircuitBreakerOpenException} without
+     * calling Juno while the circuit breaker is open.
+     */
+    private JunoResponse call(Operation operation, Supplier<JunoResponse> call) {
+        MetricsSink sink = metricsSink;
+        CircuitBreaker breaker = circuitBreaker;
+        long permit = admit(breaker);
+        long start = System.nanoTime();
+        try {
+            JunoResponse junoResponse = call.get();
+            long elapsed = System.nanoTime() - start;
+            sink.recordLatency(operation, elapsed);
+            sink.recordStatus(operation, junoResponse == null ? null : junoResponse.getStatus());
+            record(breaker, permit, elapsed, junoResponse == null || CircuitBreaker.isFailure(junoResponse.getStatus()));
+            return junoResponse;
+        } catch (RuntimeException e) {
+            long elapsed = System.nanoTime() - start;
+            sink.recordLatency(operation, elapsed);
+            sink.recordFailure(operation, e);
+            record(breaker, permit, elapsed, true);
+            throw e;
+        }
+    }
+
+    private static long admit(CircuitBreaker breaker) {
+        if (breaker == null) {
+            return CircuitBreaker.NOT_PERMITTED;
+        }
+        long permit = breaker.tryAcquire();
+        if (permit == CircuitBreaker.NOT_PERMITTED) {
+            throw new CircuitBreakerOpenException(breaker.getName());
+        }
+        return permit;
+    }
+
+    private static void record(CircuitBreaker breaker, long permit, long nanos, boolean failed) {
+        if (breaker != null) {
+            breaker.record(permit, nanos, failed);
+        }
+    }
+
+    private static void release(CircuitBreaker breaker, long permit) {
+        if (breaker != null) {
+            breaker.release(permit);
+        }
+    }
+
+    /**
+     * @return true if {@code e} is, or wraps, a {@link CircuitBreakerOpenException}: expected while the breaker is open
+     * and not worth a log line per call
+     */
+    private static boolean failedFast(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e instanceof CircuitBreakerOpenException;
+    }
+
+    /**
+     * {@link CompletableFuture#join()} rethrowing an unchecked failure as is rather than wrapped in a
+     * {@link CompletionException}, so a breaker fast-fail reaches the caller's catch unchanged.
+     */
+    private static <R> R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean anyFailure(Iterable<JunoResponse> junoResponses) {
+        if (junoResponses == null) {
+            return true;
+        }
+        for (JunoResponse junoResponse : junoResponses) {
+            if (CircuitBreaker.isFailure(junoResponse.getStatus())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private byte[] encodeKey(Object key) {
+        MetricsSink sink = metricsSink;
+        long start = System.nanoTime();
+        byte[] keyBytes = key instanceof EncodedKey ? ((EncodedKey) key).getBytes() : keyCodec.encode(key);
+        sink.recordCodec(MetricsSink.CodecPhase.SERIALIZE, System.nanoTime() - start);
+        if (keyBytes != null) {
+            sink.recordKeySize(keyBytes.length);
+        }
+        return keyBytes;
+    }
+
+    private byte[] encodeValue(Object value) {
+        MetricsSink sink = metricsSink;
+        long start = System.nanoTime();
+        byte[] valueBytes = codec.serialize(value);
+        sink.recordCodec(MetricsSink.CodecPhase.SERIALIZE, System.nanoTime() - start);
+        if (valueBytes != null) {
+            sink.recordValueSize(valueBytes.length);
+        }
+        return valueBytes;
+    }
+
+    private <V> V decode(byte[] valueBytes, Class<V> vClass) {
+        MetricsSink sink = metricsSink;
+        long start = System.nanoTime();
+        V v = codec.deserialize(valueBytes, vClass);
+        sink.recordCodec(MetricsSink.CodecPhase.DESERIALIZE, System.nanoTime() - start);
+        return v;
+    }
+
+    /**
+     * Serialize a key exactly as this manager does for its own requests.
+     */
+    public <T> byte[] serializeKey(T key) {
+        return encodeKey(key);
+    }
+
+    /**
+     * Key scoped to a namespace with this manager's {@link KeyCodec}, usable as the key of any operation.
+     */
+    public EncodedKey namespacedKey(String namespace, Object key) {
+        return new EncodedKey(keyCodec.encode(namespace, key));
+    }
+
+    public KeyCodec getKeyCodec() {
+        return keyCodec;
+    }
+
+    /**
+     * Codec for keys, by default the value codec (see {@link KeyCodec#of(BaseCodec)}). A {@link CompactKeyCodec}
+     * keeps keys short and independent of the value codec, but changes the key bytes: set it on a fresh namespace, or
+     * existing records can no longer be found.
+     */
+    public void setKeyCodec(KeyCodec keyCodec) {
+        this.keyCodec = keyCodec == null ? KeyCodec.of(codec) : keyCodec;
+    }
+
     public BaseCodec getCodec() {
         return codec;
     }
+
+    public JunoAsyncClient getJunoAsyncClient() {
+        return junoAsyncClient;
+    }
+
+    public BatchConfig getBatchConfig() {
+        return batchConfig;
+    }
+
+    public void setBatchConfig(BatchConfig batchConfig) {
+        this.batchConfig = batchConfig;
+    }
+
+    public LargeObjectConfig getLargeObjectConfig() {
+        return largeObjectConfig;
+    }
+
+    public void setLargeObjectConfig(LargeObjectConfig largeObjectConfig) {
+        this.largeObjectConfig = largeObjectConfig;
+    }
+
+    public NearCache getNearCache() {
+        return nearCache;
+    }
+
+    /**
+     * Put a {@link NearCache} in front of {@link #get(Object, Class, TimeUnit, long)}; writes and deletes through this
+     * manager invalidate it. A hit is served locally and therefore does not extend the record TTL in Juno. Pass null to
+     * turn it off.
+     */
+    public void setNearCache(NearCache nearCache) {
+        this.nearCache = nearCache;
+    }
+
+    public boolean isCoalescing() {
+        return coalescing;
+    }
+
+    /**
+     * Request coalescing for {@link #get(Object, Class, TimeUnit, long)}: concurrent reads of the same serialized key
+     * share one in-flight Juno request and one decoded value. The shared value is handed to every waiting caller, treat
+     * it as read-only.
+     */
+    public void setCoalescing(boolean coalescing) {
+        this.coalescing = coalescing;
+    }
+
+    public boolean isReencodeOnRead() {
+        return reencodeOnRead;
+    }
+
+    /**
+     * With an {@link EnvelopeCodec}, records read through {@link #get(Object, Class, TimeUnit, long)} that were
+     * written by a legacy or older codec are rewritten in place with the current writer codec, migrating hot records
+     * without a flag day. Has no effect with any other codec.
+     */
+    public void setReencodeOnRead(boolean reencodeOnRead) {
+        this.reencodeOnRead = reencodeOnRead;
+    }
+
+    public MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    /**
+     * Sink for per-operation client latency, codec time, key/value/batch sizes and status counts, e.g. an
+     * {@link com.junowrapper.juno.metrics.InMemoryMetricsSink}. Pass null to stop recording.
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink == null ? MetricsSink.NOOP : metricsSink;
+    }
+
+    public boolean isMicroBatching() {
+        return microBatcher != null;
+    }
+
+    /**
+     * Opt-in micro-batching: single-key {@link #get(Object, Class, TimeUnit, long)} and
+     * {@link #createJResponse(Object, Object, TimeUnit, long)} calls from concurrent callers are collected per
+     * {@link MicroBatchConfig} window and sent as one {@link #doBatch(Iterable)}; each caller still blocks for, and
+     * receives, only its own result. Pass null to turn it off, operations already queued are still sent.
+     */
+    public synchronized void setMicroBatching(MicroBatchConfig microBatchConfig) {
+        MicroBatcher previous = microBatcher;
+        microBatcher = microBatchConfig == null ? null : new MicroBatcher(microBatchConfig, this::dispatchBatch);
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    public HedgeConfig getHedgeConfig() {
+        Hedger hedging = hedger;
+        return hedging == null ? null : hedging.getHedgeConfig();
+    }
+
+    /**
+     * Opt-in hedged reads for {@link #get(Object, Class, TimeUnit, long)}: a get still pending after the
+     * {@link HedgeConfig} delay is sent again, within the hedge budget, and the first Success or NoKey response wins.
+     * The Juno client spreads the two requests over its pooled connections, so give it a
+     * {@link JunoDBConfig#getConnectionPoolSize()} above 1. Not applied while micro-batching. Pass null to turn it off.
+     */
+    public void setHedging(HedgeConfig hedgeConfig) {
+        this.hedger = hedgeConfig == null ? null : new Hedger(hedgeConfig);
+    }
+
+    /**
+     * @return hedge requests sent since hedging was last configured
+     */
+    public long getHedgesSent() {
+        Hedger hedging = hedger;
+        return hedging == null ? 0 : hedging.getHedgesSent();
+    }
+
+    /**
+     * @return hedge requests that answered before their primary since hedging was last configured
+     */
+    public long getHedgesWon() {
+        Hedger hedging = hedger;
+        return hedging == null ? 0 : hedging.getHedgesWon();
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Opt-in circuit breaker over every Juno call of this manager, see {@link CircuitBreakerConfig}. While it is open,
+     * calls fail fast with {@link CircuitBreakerOpenException} instead of waiting out the client timeouts: the
+     * Optional/boolean methods return empty/false, batches return null and futures complete the same way, none of them
+     * logging a failure. Batches count toward the failure rate only, their duration grows with their size. Pass a null
+     * config to turn it off.
+     *
+     * @param name     - Reported to the listener, e.g. the cluster or shard name
+     * @param listener - Notified of state changes, may be null
+     */
+    public void setCircuitBreaker(String name, CircuitBreakerConfig circuitBreakerConfig, CircuitBreaker.Listener listener) {
+        this.circuitBreaker = circuitBreakerConfig == null ? null : new CircuitBreaker(name, circuitBreakerConfig, listener);
+    }
+
+    public void setCircuitBreaker(CircuitBreakerConfig circuitBreakerConfig, CircuitBreaker.Listener listener) {
+        setCircuitBreaker("juno", circuitBreakerConfig, listener);
+    }
+
+    public SlidingTtlConfig getSlidingTtlConfig() {
+        SlidingTtl sliding = slidingTtl;
+        return sliding == null ? null : sliding.getSlidingTtlConfig();
+    }
+
+    /**
+     * Opt-in sliding TTL for {@link #get(Object, Class, TimeUnit, long)}, {@link #getJResponse(Object, TimeUnit, long)}
+     * and {@link #getAsync(Object, Class, TimeUnit, long)}: the new TTL is only sent once the record's remaining
+     * lifetime drops below the {@link SlidingTtlConfig} fraction of it, other reads are plain reads and cost Juno no
+     * write. Writes through this manager reset the tracking of their key. Pass null to turn it off.
+     */
+    public void setSlidingTtl(SlidingTtlConfig slidingTtlConfig) {
+        this.slidingTtl = slidingTtlConfig == null ? null : new SlidingTtl(slidingTtlConfig);
+    }
+
+    public RetryConfig getRetryConfig() {
+        return retryConfig;
+    }
+
+    public void setRetryConfig(RetryConfig retryConfig) {
+        this.retryConfig = retryConfig;
+    }
+
+    public JunoReactClient getJunoReactClient() {
+        return junoReactClient;
+    }
+
+    public Executor getCodecExecutor() {
+        return codecExecutor;
+    }
+
+    /**
+     * Executor running encode/decode work of the *Async methods, {@link ForkJoinPool#commonPool()} by default.
+     */
+    public void setCodecExecutor(Executor codecExecutor) {
+        this.codecExecutor = codecExecutor;
+    }
 }
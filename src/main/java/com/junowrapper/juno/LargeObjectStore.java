@@ -0,0 +1,346 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.LargeObjectConfig;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Stores values too large for a single record as chunk records plus a manifest under the value's own key.
+ * <p>
+ * Chunks are written first, a window at a time, then the manifest; a reader therefore never sees a manifest whose
+ * chunks are missing. Each write uses a fresh random generation in the chunk keys, so overwriting a value never mixes
+ * chunks of two versions: the previous generation is deleted once the new manifest is in place. The manifest carries
+ * the CRC32 of the whole value, checked when a stream reaches its end.
+ * <pre>
+ * manifest  [0x4A 0x4C][version][generation, 8][total length, 8][chunk size, 4][chunk count, 4][crc32, 4]
+ * chunk key [key bytes][0x00 0x4C 0x4F][generation, 8][chunk index, 4]
+ * </pre>
+ */
+final class LargeObjectStore {
+
+    private static final byte MAGIC_0 = 0x4A;
+    private static final byte MAGIC_1 = 0x4C;
+    private static final byte VERSION = 1;
+    private static final int MANIFEST_SIZE = 2 + 1 + 8 + 8 + 4 + 4 + 4;
+    private static final byte[] CHUNK_MARKER = {0x00, 0x4C, 0x4F};
+
+    private final Function<List<JunoRequest>, Iterable<JunoResponse>> batchFunction;
+
+    LargeObjectStore(Function<List<JunoRequest>, Iterable<JunoResponse>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    /**
+     * Write {@code in} as chunks plus manifest under {@code keyBytes}. Reads the stream to its end but does not close it.
+     *
+     * @return true if every chunk and the manifest were written
+     */
+    boolean write(byte[] keyBytes, InputStream in, long timeToLiveSec, LargeObjectConfig config) throws IOException {
+        Manifest previous = readManifest(keyBytes);
+        long generation = ThreadLocalRandom.current().nextLong();
+        int chunkSize = config.getChunkSizeInBytes();
+        int window = Math.max(1, config.getWriteWindowChunks());
+        CRC32 crc = new CRC32();
+        long total = 0;
+        int chunks = 0;
+
+        List<JunoRequest> requests = new ArrayList<>(window);
+        while (true) {
+            byte[] chunk = readChunk(in, chunkSize);
+            if (chunk != null) {
+                crc.update(chunk, 0, chunk.length);
+                total += chunk.length;
+                requests.add(new JunoRequest(chunkKey(keyBytes, generation, chunks++), chunk, 0, timeToLiveSec, JunoRequest.OperationType.Set));
+            }
+            if (requests.size() == window || (chunk == null && !requests.isEmpty())) {
+                if (!allSucceeded(batchFunction.apply(requests))) {
+                    System.out.println("Error LargeObjectStore.write(): chunk write failed, " + chunks + " chunks sent");
+                    deleteChunks(keyBytes, generation, chunks);
+                    return false;
+                }
+                requests = new ArrayList<>(window);
+            }
+            if (chunk == null) {
+                break;
+            }
+        }
+
+        Manifest manifest = new Manifest(generation, total, chunkSize, chunks, (int) crc.getValue());
+        List<JunoRequest> manifestWrite = Collections.singletonList(
+                new JunoRequest(keyBytes, manifest.toBytes(), 0, timeToLiveSec, JunoRequest.OperationType.Set));
+        if (!allSucceeded(batchFunction.apply(manifestWrite))) {
+            System.out.println("Error LargeObjectStore.write(): manifest write failed");
+            deleteChunks(keyBytes, generation, chunks);
+            return false;
+        }
+        if (previous != null && previous.generation != generation) {
+            deleteChunks(keyBytes, previous.generation, previous.chunkCount);
+        }
+        return true;
+    }
+
+    /**
+     * @return a stream over the stored value, empty if there is no manifest under {@code keyBytes}
+     */
+    Optional<ChunkedInputStream> open(byte[] keyBytes, LargeObjectConfig config) {
+        Manifest manifest = readManifest(keyBytes);
+        return manifest == null
+                ? Optional.empty()
+                : Optional.of(new ChunkedInputStream(keyBytes, manifest, Math.max(1, config.getReadAheadChunks())));
+    }
+
+    /**
+     * Delete the manifest and every chunk of the value stored under {@code keyBytes}.
+     */
+    boolean delete(byte[] keyBytes) {
+        Manifest manifest = readManifest(keyBytes);
+        if (manifest == null) {
+            return false;
+        }
+        List<JunoRequest> manifestDelete = Collections.singletonList(
+                new JunoRequest(keyBytes, null, 0, 0, JunoRequest.OperationType.Destroy));
+        boolean deleted = allSucceeded(batchFunction.apply(manifestDelete));
+        deleteChunks(keyBytes, manifest.generation, manifest.chunkCount);
+        return deleted;
+    }
+
+    private Manifest readManifest(byte[] keyBytes) {
+        Iterable<JunoResponse> junoResponses = batchFunction.apply(Collections.singletonList(
+                new JunoRequest(keyBytes, null, 0, 0, JunoRequest.OperationType.Get)));
+        if (junoResponses == null) {
+            return null;
+        }
+        Iterator<JunoResponse> iterator = junoResponses.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        JunoResponse junoResponse = iterator.next();
+        if (junoResponse.getStatus() != OperationStatus.Success) {
+            return null;
+        }
+        Manifest manifest = Manifest.parse(junoResponse.getValue());
+        if (manifest == null) {
+            System.out.println("Error LargeObjectStore: record is not a large-object manifest");
+        }
+        return manifest;
+    }
+
+    private void deleteChunks(byte[] keyBytes, long generation, int chunkCount) {
+        if (chunkCount == 0) {
+            return;
+        }
+        List<JunoRequest> requests = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            requests.add(new JunoRequest(chunkKey(keyBytes, generation, i), null, 0, 0, JunoRequest.OperationType.Destroy));
+        }
+        // best effort, chunks left behind expire with their TTL
+        batchFunction.apply(requests);
+    }
+
+    private static boolean allSucceeded(Iterable<JunoResponse> junoResponses) {
+        if (junoResponses == null) {
+            return false;
+        }
+        for (JunoResponse junoResponse : junoResponses) {
+            if (junoResponse.getStatus() != OperationStatus.Success) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the next chunk, shorter than {@code chunkSize} only at the end of the stream, or null at the end
+     */
+    private static byte[] readChunk(InputStream in, int chunkSize) throws IOException {
+        byte[] chunk = new byte[chunkSize];
+        int filled = 0;
+        while (filled < chunkSize) {
+            int n = in.read(chunk, filled, chunkSize - filled);
+            if (n < 0) {
+                break;
+            }
+            filled += n;
+        }
+        if (filled == 0) {
+            return null;
+        }
+        return filled == chunkSize ? chunk : Arrays.copyOf(chunk, filled);
+    }
+
+    static byte[] chunkKey(byte[] keyBytes, long generation, int index) {
+        return ByteBuffer.allocate(keyBytes.length + CHUNK_MARKER.length + 8 + 4)
+                .put(keyBytes)
+                .put(CHUNK_MARKER)
+                .putLong(generation)
+                .putInt(index)
+                .array();
+    }
+
+    private static final class Manifest {
+        private final long generation;
+        private final long totalLength;
+        private final int chunkSize;
+        private final int chunkCount;
+        private final int crc32;
+
+        private Manifest(long generation, long totalLength, int chunkSize, int chunkCount, int crc32) {
+            this.generation = generation;
+            this.totalLength = totalLength;
+            this.chunkSize = chunkSize;
+            this.chunkCount = chunkCount;
+            this.crc32 = crc32;
+        }
+
+        private byte[] toBytes() {
+            return ByteBuffer.allocate(MANIFEST_SIZE)
+                    .put(MAGIC_0).put(MAGIC_1).put(VERSION)
+                    .putLong(generation)
+                    .putLong(totalLength)
+                    .putInt(chunkSize)
+                    .putInt(chunkCount)
+                    .putInt(crc32)
+                    .array();
+        }
+
+        private static Manifest parse(byte[] bytes) {
+            if (bytes == null || bytes.length != MANIFEST_SIZE || bytes[0] != MAGIC_0 || bytes[1] != MAGIC_1 || bytes[2] != VERSION) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 3, MANIFEST_SIZE - 3);
+            return new Manifest(buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+        }
+    }
+
+    /**
+     * Streams a stored value chunk by chunk, fetching {@code readAhead} chunks per batch. Only the fetched window is
+     * held in memory. A missing chunk, or a length or checksum mismatch at the end, fails the read with an
+     * {@link IOException}.
+     */
+    final class ChunkedInputStream extends InputStream {
+
+        private final byte[] keyBytes;
+        private final Manifest manifest;
+        private final int readAhead;
+        private final Deque<byte[]> fetched = new ArrayDeque<>();
+        private final CRC32 crc = new CRC32();
+        private int nextChunk;
+        private byte[] current;
+        private int position;
+        private long consumed;
+        private boolean verified;
+
+        private ChunkedInputStream(byte[] keyBytes, Manifest manifest, int readAhead) {
+            this.keyBytes = keyBytes;
+            this.manifest = manifest;
+            this.readAhead = readAhead;
+        }
+
+        /**
+         * @return total length of the stored value in bytes
+         */
+        long length() {
+            return manifest.totalLength;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (!ensureCurrent()) {
+                return -1;
+            }
+            consumed++;
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!ensureCurrent()) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            consumed += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return current == null ? 0 : current.length - position;
+        }
+
+        @Override
+        public void close() {
+            fetched.clear();
+            current = null;
+            nextChunk = manifest.chunkCount;
+            verified = true;
+        }
+
+        private boolean ensureCurrent() throws IOException {
+            while (current == null || position == current.length) {
+                if (fetched.isEmpty()) {
+                    if (nextChunk >= manifest.chunkCount) {
+                        verify();
+                        current = null;
+                        return false;
+                    }
+                    fetchWindow();
+                }
+                current = fetched.poll();
+                position = 0;
+                crc.update(current, 0, current.length);
+            }
+            return true;
+        }
+
+        private void fetchWindow() throws IOException {
+            int count = Math.min(readAhead, manifest.chunkCount - nextChunk);
+            List<JunoRequest> requests = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                requests.add(new JunoRequest(chunkKey(keyBytes, manifest.generation, nextChunk + i), null, 0, 0, JunoRequest.OperationType.Get));
+            }
+            Iterable<JunoResponse> junoResponses = batchFunction.apply(requests);
+            if (junoResponses == null) {
+                throw new IOException("Large object chunk fetch failed at chunk " + nextChunk);
+            }
+            int index = nextChunk;
+            for (JunoResponse junoResponse : junoResponses) {
+                if (junoResponse.getStatus() != OperationStatus.Success || junoResponse.getValue() == null) {
+                    throw new IOException("Large object chunk " + index + " unavailable: " + junoResponse.getStatus());
+                }
+                fetched.add(junoResponse.getValue());
+                index++;
+            }
+            if (index != nextChunk + count) {
+                throw new IOException("Large object chunk fetch returned " + (index - nextChunk) + " of " + count + " chunks");
+            }
+            nextChunk = index;
+        }
+
+        private void verify() throws IOException {
+            if (verified) {
+                return;
+            }
+            verified = true;
+            if (consumed != manifest.totalLength) {
+                throw new IOException("Large object length mismatch: read " + consumed + " of " + manifest.totalLength + " bytes");
+            }
+            if ((int) crc.getValue() != manifest.crc32) {
+                throw new IOException("Large object checksum mismatch");
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.MicroBatchConfig;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single-key requests from concurrent callers and sends them as one batch per {@link MicroBatchConfig}
+ * window. A collector thread builds the batches, which are then run on the batch executor, so the next window fills
+ * while the previous batch is on the wire. A key appears at most once per batch; a repeat waits for the next one.
+ */
+final class MicroBatcher {
+
+    private final MicroBatchConfig microBatchConfig;
+    private final Function<List<JunoRequest>, Iterable<JunoResponse>> batchFunction;
+    private final BlockingQueue<Pending> queue;
+    private final Thread collector;
+    private volatile boolean running = true;
+    private Pending carry;
+
+    MicroBatcher(MicroBatchConfig microBatchConfig, Function<List<JunoRequest>, Iterable<JunoResponse>> batchFunction) {
+        this.microBatchConfig = microBatchConfig;
+        this.batchFunction = batchFunction;
+        this.queue = new ArrayBlockingQueue<>(microBatchConfig.getMaxQueuedOperations());
+        this.collector = new Thread(this::collect, "juno-micro-batcher");
+        this.collector.setDaemon(true);
+        this.collector.start();
+    }
+
+    CompletableFuture<JunoResponse> submit(JunoRequest request) {
+        Pending pending = new Pending(request);
+        if (!running) {
+            pending.future.completeExceptionally(new IllegalStateException("Micro-batcher is shut down"));
+            return pending.future;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(e);
+            return pending.future;
+        }
+        // shut down while we were queueing: fail it unless the collector already took it
+        if (!running && queue.remove(pending)) {
+            pending.future.completeExceptionally(new IllegalStateException("Micro-batcher is shut down"));
+        }
+        return pending.future;
+    }
+
+    /**
+     * Stop collecting; operations still queued are sent before the collector exits.
+     */
+    void shutdown() {
+        running = false;
+        collector.interrupt();
+    }
+
+    private void collect() {
+        long maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(microBatchConfig.getMaxDelayMicros());
+        while (running || carry != null || !queue.isEmpty()) {
+            try {
+                Pending first = carry != null ? carry : queue.poll(100, TimeUnit.MILLISECONDS);
+                carry = null;
+                if (first == null) {
+                    continue;
+                }
+
+                List<Pending> batch = new ArrayList<>(microBatchConfig.getMaxBatchSize());
+                Set<ByteBuffer> keys = new HashSet<>();
+                batch.add(first);
+                keys.add(ByteBuffer.wrap(first.request.key()));
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < microBatchConfig.getMaxBatchSize()) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 && running ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    if (!keys.add(ByteBuffer.wrap(next.request.key()))) {
+                        carry = next;
+                        break;
+                    }
+                    batch.add(next);
+                }
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                // shutdown(), drain what is left
+            } catch (Exception e) {
+                System.out.println("Error MicroBatcher.collect(): " + e);
+            }
+        }
+        // anything queued after the last drain would otherwise never complete
+        List<Pending> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(p -> p.future.completeExceptionally(new IllegalStateException("Micro-batcher is shut down")));
+    }
+
+    private void dispatch(List<Pending> batch) {
+        BatchDispatcher.BATCH_EXECUTOR.execute(() -> {
+            try {
+                List<JunoRequest> requests = new ArrayList<>(batch.size());
+                batch.forEach(p -> requests.add(p.request));
+                Iterable<JunoResponse> responses = batchFunction.apply(requests);
+                if (responses == null) {
+                    throw new IllegalStateException("Batch of " + batch.size() + " failed");
+                }
+                Iterator<JunoResponse> it = responses.iterator();
+                for (Pending pending : batch) {
+                    if (it.hasNext()) {
+                        pending.future.complete(it.next());
+                    } else {
+                        pending.future.completeExceptionally(new IllegalStateException("No response in batch"));
+                    }
+                }
+            } catch (Exception e) {
+                batch.forEach(p -> p.future.completeExceptionally(e));
+            }
+        });
+    }
+
+    private static final class Pending {
+        private final JunoRequest request;
+        private final CompletableFuture<JunoResponse> future = new CompletableFuture<>();
+
+        private Pending(JunoRequest request) {
+            this.request = request;
+        }
+    }
+}
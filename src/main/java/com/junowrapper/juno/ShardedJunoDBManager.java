@@ -0,0 +1,272 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.BaseCodec;
+import com.junowrapper.codec.EncodedKey;
+import com.junowrapper.codec.KeyCodec;
+import com.junowrapper.codec.KryoCodec;
+import com.junowrapper.juno.model.CircuitBreakerConfig;
+import com.junowrapper.juno.model.ShardConfig;
+import com.junowrapper.juno.model.SlidingTtlConfig;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Spreads keys over several Juno clusters, one {@link JunoDBManager} per {@link ShardConfig}, with a consistent-hash
+ * ring of virtual nodes. Adding a cluster moves only the keys that now belong to it, about its share of the total
+ * weight.
+ * <p>
+ * Keys are serialized once and routed by their bytes, so every shard must use the same codec and key codec. Batches are
+ * split per shard and the per-shard batches run in parallel. Anything not covered here is available on the owning
+ * shard through {@link #shardFor(Object)}.
+ */
+public final class ShardedJunoDBManager {
+
+    public static final int DEFAULT_VIRTUAL_NODES = 160;
+
+    private final Map<String, JunoDBManager> shards = new LinkedHashMap<>();
+    private final ConsistentHashRing<JunoDBManager> ring;
+    // every shard encodes keys and values alike, this one does it for routing and batch decoding
+    private final JunoDBManager router;
+
+    public ShardedJunoDBManager(List<ShardConfig> shardConfigs) {
+        this(shardConfigs, new KryoCodec());
+    }
+
+    public ShardedJunoDBManager(List<ShardConfig> shardConfigs, BaseCodec codec) {
+        this(shardConfigs, shardConfig -> new JunoDBManager(shardConfig.getJunoDBConfig(), codec), DEFAULT_VIRTUAL_NODES);
+    }
+
+    /**
+     * @param shardConfigs   - Clusters to shard over, names must be unique
+     * @param managerFactory - Builds the manager of each shard, all of them with the same codec
+     * @param virtualNodes   - Ring points per unit of shard weight; more points even out the key spread
+     */
+    public ShardedJunoDBManager(List<ShardConfig> shardConfigs, Function<ShardConfig, JunoDBManager> managerFactory, int virtualNodes) {
+        if (shardConfigs == null || shardConfigs.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        List<String> names = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        List<JunoDBManager> managers = new ArrayList<>();
+        for (ShardConfig shardConfig : shardConfigs) {
+            if (shards.containsKey(shardConfig.getName())) {
+                throw new IllegalArgumentException("Duplicate shard name: " + shardConfig.getName());
+            }
+            JunoDBManager manager = managerFactory.apply(shardConfig);
+            shards.put(shardConfig.getName(), manager);
+            names.add(shardConfig.getName());
+            weights.add(shardConfig.getWeight());
+            managers.add(manager);
+        }
+        this.ring = new ConsistentHashRing<>(names, weights, managers, virtualNodes);
+        this.router = managers.get(0);
+    }
+
+    /**
+     * @return shard managers by shard name, in configuration order
+     */
+    public Map<String, JunoDBManager> getShards() {
+        return Collections.unmodifiableMap(shards);
+    }
+
+    /**
+     * @return the manager of the shard owning {@code key}
+     */
+    public <T> JunoDBManager shardFor(T key) {
+        return ring.nodeFor(router.serializeKey(key));
+    }
+
+    /**
+     * Set the key codec of every shard.
+     */
+    public void setKeyCodec(KeyCodec keyCodec) {
+        shards.values().forEach(shard -> shard.setKeyCodec(keyCodec));
+    }
+
+    /**
+     * Turn on sliding TTL on every shard, see {@link JunoDBManager#setSlidingTtl(SlidingTtlConfig)}.
+     */
+    public void setSlidingTtl(SlidingTtlConfig slidingTtlConfig) {
+        shards.values().forEach(shard -> shard.setSlidingTtl(slidingTtlConfig));
+    }
+
+    /**
+     * Give every shard its own circuit breaker, named after the shard, so one failing cluster fails fast without
+     * affecting keys owned by the others. Batches report {@link OperationStatus#UnknownError} for requests of an open
+     * shard. Pass a null config to turn them off.
+     *
+     * @param listener - Notified of state changes of any shard's breaker, may be null
+     */
+    public void setCircuitBreaker(CircuitBreakerConfig circuitBreakerConfig, CircuitBreaker.Listener listener) {
+        shards.forEach((name, shard) -> shard.setCircuitBreaker(name, circuitBreakerConfig, listener));
+    }
+
+    public <T, V> Optional<V> get(T key, Class<V> vClass, TimeUnit timeUnit, long newTTL) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).get(encodedKey, vClass, timeUnit, newTTL);
+    }
+
+    public <T, V> Optional<V> get(T key, Class<V> vClass, long timeToLiveSec) {
+        return get(key, vClass, TimeUnit.SECONDS, timeToLiveSec);
+    }
+
+    public <T, V> Optional<V> get(T key, Class<V> vClass) {
+        return get(key, vClass, JunoDBManager.MAX_TTL_ALLOWED);
+    }
+
+    public <T> Optional<JunoResponse> getJResponse(T key, TimeUnit timeUnit, long newTTL) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).getJResponse(encodedKey, timeUnit, newTTL);
+    }
+
+    public <T> Optional<JunoResponse> getJResponse(T key) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).getJResponse(encodedKey);
+    }
+
+    public <T, V> Optional<JunoResponse> createJResponse(T key, V value, TimeUnit timeUnit, long newTTL) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).createJResponse(encodedKey, value, timeUnit, newTTL);
+    }
+
+    public <T, V> boolean create(T key, V value, long timeToLiveSec) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).create(encodedKey, value, timeToLiveSec);
+    }
+
+    public <T, V> boolean create(T key, V value) {
+        return create(key, value, JunoDBManager.MAX_TTL_ALLOWED);
+    }
+
+    public <T> Optional<JunoResponse> deleteJResponse(T key) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).deleteJResponse(encodedKey);
+    }
+
+    public <T> boolean delete(T key) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).delete(encodedKey);
+    }
+
+    public <T, V> boolean compareAndUpdate(T key, Class<V> vClass, UnaryOperator<V> mutator, long timeToLiveSec) {
+        EncodedKey encodedKey = encode(key);
+        return shardOf(encodedKey).compareAndUpdate(encodedKey, vClass, mutator, timeToLiveSec);
+    }
+
+    /**
+     * Batched get across shards, see {@link JunoDBManager#getAll(Collection, Class, long)}.
+     */
+    public <T, V> List<V> getAll(Collection<T> keys, Class<V> vClass, long timeToLiveSec) {
+        List<V> values = new ArrayList<>();
+        try {
+            List<JunoRequest> batchGetReq = new ArrayList<>(keys.size());
+            for (T key : keys) {
+                batchGetReq.add(setJunoRequest(key, JunoRequest.OperationType.Get, timeToLiveSec));
+            }
+            if (batchGetReq.isEmpty()) {
+                return values;
+            }
+            BaseCodec codec = router.getCodec();
+            for (JunoResponse r : doBatch(batchGetReq)) {
+                if (r.getStatus() == OperationStatus.Success && r.getValue() != null && r.getValue().length > 0) {
+                    values.add(codec.deserialize(r.getValue(), vClass));
+                }
+            }
+        } catch (Exception exception) {
+            System.out.println("Error getAll(): " + exception);
+            values.clear();
+        }
+        return values;
+    }
+
+    public <T, V> List<V> getAll(Collection<T> keys, Class<V> vClass) {
+        return getAll(keys, vClass, JunoDBManager.MAX_TTL_ALLOWED);
+    }
+
+    public <K> JunoRequest setJunoRequest(K key, JunoRequest.OperationType operationType, long timeToLiveSec) {
+        return router.setJunoRequest(key, operationType, timeToLiveSec);
+    }
+
+    public <K, V> JunoRequest setJunoRequest(K key, V value, JunoRequest.OperationType operationType, long timeToLiveSec) {
+        return router.setJunoRequest(key, value, operationType, timeToLiveSec);
+    }
+
+    /**
+     * Execute a batch across shards. Requests are grouped by owning shard, each group goes through that shard's
+     * {@link JunoDBManager#doBatch(Iterable)} in parallel with the others, and the responses are merged back in request
+     * order. A failed shard reports {@link OperationStatus#UnknownError} for its requests.
+     *
+     * @param requests - Requests to execute
+     * @return Iterable<JunoResponse> - one response per request, in request order
+     */
+    public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+        List<JunoRequest> all = new ArrayList<>();
+        requests.forEach(all::add);
+        if (all.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<JunoDBManager, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < all.size(); i++) {
+            positions.computeIfAbsent(ring.nodeFor(all.get(i).key()), s -> new ArrayList<>()).add(i);
+        }
+        if (positions.size() == 1) {
+            JunoDBManager shard = positions.keySet().iterator().next();
+            Iterable<JunoResponse> junoResponses = shard.doBatch(all);
+            return junoResponses != null ? junoResponses : failed(all);
+        }
+
+        JunoResponse[] ordered = new JunoResponse[all.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        Map.Entry<JunoDBManager, List<Integer>> callerShare = null;
+        for (Map.Entry<JunoDBManager, List<Integer>> entry : positions.entrySet()) {
+            if (callerShare == null) {
+                callerShare = entry;
+                continue;
+            }
+            futures.add(CompletableFuture.runAsync(() -> runShard(entry.getKey(), entry.getValue(), all, ordered), BatchDispatcher.BATCH_EXECUTOR));
+        }
+        // the calling thread takes one shard itself
+        runShard(callerShare.getKey(), callerShare.getValue(), all, ordered);
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        return Arrays.asList(ordered);
+    }
+
+    private static void runShard(JunoDBManager shard, List<Integer> indexes, List<JunoRequest> all, JunoResponse[] ordered) {
+        List<JunoRequest> shardRequests = new ArrayList<>(indexes.size());
+        indexes.forEach(i -> shardRequests.add(all.get(i)));
+        Iterable<JunoResponse> junoResponses = null;
+        try {
+            junoResponses = shard.doBatch(shardRequests);
+        } catch (Exception e) {
+            System.out.println("Error doBatch() on shard: " + e);
+        }
+        Iterator<JunoResponse> iterator = junoResponses == null ? Collections.emptyIterator() : junoResponses.iterator();
+        for (int i : indexes) {
+            ordered[i] = iterator.hasNext()
+                    ? iterator.next()
+                    : new JunoResponse(all.get(i).key(), null, 0, 0, 0, OperationStatus.UnknownError);
+        }
+    }
+
+    private static List<JunoResponse> failed(List<JunoRequest> requests) {
+        List<JunoResponse> responses = new ArrayList<>(requests.size());
+        requests.forEach(r -> responses.add(new JunoResponse(r.key(), null, 0, 0, 0, OperationStatus.UnknownError)));
+        return responses;
+    }
+
+    private EncodedKey encode(Object key) {
+        return key instanceof EncodedKey ? (EncodedKey) key : new EncodedKey(router.serializeKey(key));
+    }
+
+    private JunoDBManager shardOf(EncodedKey encodedKey) {
+        return ring.nodeFor(encodedKey.getBytes());
+    }
+}
@@ -0,0 +1,81 @@
+package com.junowrapper.juno;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.junowrapper.juno.model.SlidingTtlConfig;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers when each recently read record expires, from the TTL in its last response, and decides per read whether
+ * the requested TTL has to be sent. Every successful response, plain or extending, refreshes the expiry, so records
+ * extended or shortened by other clients are picked up on the next read. Entries drop out when the record would have
+ * expired.
+ */
+final class SlidingTtl {
+
+    private final SlidingTtlConfig slidingTtlConfig;
+    private final Cache<ByteBuffer, Long> expiries;
+
+    SlidingTtl(SlidingTtlConfig slidingTtlConfig) {
+        this.slidingTtlConfig = slidingTtlConfig;
+        this.expiries = Caffeine.newBuilder()
+                .maximumSize(slidingTtlConfig.getMaximumSize())
+                .expireAfter(new Expiry<ByteBuffer, Long>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Long expiresAtNanos, long currentTime) {
+                        return expiresAtNanos - currentTime;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Long expiresAtNanos, long currentTime, long currentDuration) {
+                        return expiresAtNanos - currentTime;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Long expiresAtNanos, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    SlidingTtlConfig getSlidingTtlConfig() {
+        return slidingTtlConfig;
+    }
+
+    /**
+     * @param timeToLiveSec - TTL the caller asked for
+     * @return {@code timeToLiveSec} when the record is due for an extension or unknown, else 0 for a plain read
+     */
+    long ttlFor(byte[] keyBytes, long timeToLiveSec) {
+        if (timeToLiveSec <= 0) {
+            return timeToLiveSec;
+        }
+        Long expiresAtNanos = expiries.getIfPresent(ByteBuffer.wrap(keyBytes));
+        if (expiresAtNanos == null) {
+            return timeToLiveSec;
+        }
+        double remainingSec = (expiresAtNanos - System.nanoTime()) / 1e9;
+        return remainingSec >= slidingTtlConfig.getRefreshFraction() * timeToLiveSec ? 0 : timeToLiveSec;
+    }
+
+    void observe(byte[] keyBytes, JunoResponse junoResponse) {
+        if (junoResponse == null) {
+            return;
+        }
+        if (junoResponse.getStatus() == OperationStatus.Success && junoResponse.getTtl() > 0) {
+            expiries.put(ByteBuffer.wrap(keyBytes), System.nanoTime() + TimeUnit.SECONDS.toNanos(junoResponse.getTtl()));
+        } else if (junoResponse.getStatus() == OperationStatus.NoKey) {
+            forget(keyBytes);
+        }
+    }
+
+    void forget(byte[] keyBytes) {
+        expiries.invalidate(ByteBuffer.wrap(keyBytes));
+    }
+}
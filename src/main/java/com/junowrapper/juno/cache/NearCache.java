@@ -0,0 +1,137 @@
+package com.junowrapper.juno.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * In-process cache of decoded values keyed on serialized key bytes, sitting in front of
+ * {@link com.junowrapper.juno.JunoDBManager#get(Object, Class)}.
+ * <p>
+ * Backed by Caffeine, whose W-TinyLFU eviction keeps frequently read keys over one-hit wonders once
+ * {@link NearCacheConfig#getMaximumSize()} is reached. Each entry expires at the earlier of the record's remaining TTL
+ * and {@link NearCacheConfig#getMaxTimeToLiveSec()}. Values are shared between callers, treat them as read-only.
+ * <p>
+ * Every invalidation bumps a generation counter for the key. A loader reads {@link #generation(byte[])} before it
+ * sends its read and passes it to {@link #put(byte[], Object, long, long)}, which drops the value if the key was
+ * invalidated in between, so a read that raced a write can't cache what it fetched before the write.
+ */
+public class NearCache {
+
+    // generations are striped; keys sharing a stripe only cost each other a skipped put
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<ByteBuffer, CachedValue> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public NearCache(NearCacheConfig nearCacheConfig) {
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(nearCacheConfig.getMaxTimeToLiveSec());
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(nearCacheConfig.getMaximumSize())
+                .expireAfter(new Expiry<ByteBuffer, CachedValue>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, CachedValue value, long currentTime) {
+                        return Math.min(value.ttlNanos, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, CachedValue value, long currentTime, long currentDuration) {
+                        return Math.min(value.ttlNanos, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, CachedValue value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return cached value, empty on a miss or when the cached value is not a {@code vClass}
+     */
+    public <V> Optional<V> get(byte[] key, Class<V> vClass) {
+        CachedValue cached = cache.getIfPresent(ByteBuffer.wrap(key));
+        if (cached == null || !vClass.isInstance(cached.value)) {
+            return Optional.empty();
+        }
+        return Optional.of(vClass.cast(cached.value));
+    }
+
+    /**
+     * @param recordTtlSec - Remaining TTL of the record in Juno; nothing is cached when it is unknown (0)
+     */
+    public void put(byte[] key, Object value, long recordTtlSec) {
+        if (value == null || recordTtlSec <= 0) {
+            return;
+        }
+        cache.put(ByteBuffer.wrap(key), new CachedValue(value, TimeUnit.SECONDS.toNanos(recordTtlSec)));
+    }
+
+    /**
+     * @return the key's invalidation generation, to be read before loading the value passed to
+     * {@link #put(byte[], Object, long, long)}
+     */
+    public long generation(byte[] key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Cache {@code value} unless {@code key} was invalidated since {@code generation} was read.
+     *
+     * @param recordTtlSec - Remaining TTL of the record in Juno; nothing is cached when it is unknown (0)
+     * @param generation   - {@link #generation(byte[])} of the key, read before the value was loaded
+     */
+    public void put(byte[] key, Object value, long recordTtlSec, long generation) {
+        if (value == null || recordTtlSec <= 0) {
+            return;
+        }
+        int stripe = stripe(key);
+        CachedValue cached = new CachedValue(value, TimeUnit.SECONDS.toNanos(recordTtlSec));
+        // compute runs under the entry's lock, so it either sees the new generation or is undone by invalidate's remove
+        cache.asMap().compute(ByteBuffer.wrap(key), (k, old) -> generations.get(stripe) == generation ? cached : old);
+    }
+
+    public void invalidate(byte[] key) {
+        generations.incrementAndGet(stripe(key));
+        cache.invalidate(ByteBuffer.wrap(key));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * @return hit/miss/eviction counters since creation
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static int stripe(byte[] key) {
+        int h = Arrays.hashCode(key);
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static final class CachedValue {
+        private final Object value;
+        private final long ttlNanos;
+
+        private CachedValue(Object value, long ttlNanos) {
+            this.value = value;
+            this.ttlNanos = ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.junowrapper.juno.cache;
+
+/**
+ * Settings of the client-side {@link NearCache}.
+ */
+public class NearCacheConfig {
+    private long maximumSize = 10_000;
+    // upper bound on how long an entry is served locally, the record's own TTL may cut it shorter
+    private long maxTimeToLiveSec = 60;
+
+    public NearCacheConfig() {
+    }
+
+    public NearCacheConfig(long maximumSize, long maxTimeToLiveSec) {
+        this.maximumSize = maximumSize;
+        this.maxTimeToLiveSec = maxTimeToLiveSec;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public long getMaxTimeToLiveSec() {
+        return maxTimeToLiveSec;
+    }
+
+    public void setMaxTimeToLiveSec(long maxTimeToLiveSec) {
+        this.maxTimeToLiveSec = maxTimeToLiveSec;
+    }
+
+    @Override
+    public String toString() {
+        return "NearCacheConfig{" +
+                "maximumSize=" + maximumSize +
+                ", maxTimeToLiveSec=" + maxTimeToLiveSec +
+                '}';
+    }
+}
@@ -1,7 +1,9 @@
 package com.junowrapper.juno.collection;
 
 
+import com.junowrapper.codec.EncodedKey;
 import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.WriteBehindConfig;
 import com.paypal.juno.client.io.JunoRequest;
 import com.paypal.juno.client.io.JunoResponse;
 import com.paypal.juno.client.io.OperationStatus;
@@ -12,15 +14,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 
-public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
+public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable, AutoCloseable {
 
     private static final long serialVersionUID = -5989264568613454654L;
 
     private final String junoKey;
-    private static final String KEY_DELIMITER = ":";
     private final Set<K> junoSet; // using it to keep track of all entries associated with this specific map.
     private final long timeToLiveSec; // TTL for each entry/record.
     private final JunoDBManager junoDBManager;
+    private transient volatile WriteBehindBuffer<K> writeBehind;
 
     public JunoMap(String junoKey, JunoDBManager junoDBManager) {
         this(junoKey, TimeUnit.SECONDS, JunoDBManager.MAX_TTL_ALLOWED, junoDBManager);
@@ -34,8 +36,20 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
         this.junoKey = junoKey;
     }
 
+    /**
+     * Map whose key index is a {@link ShardedJunoSet} spread over {@code indexBuckets} records, for maps with too many
+     * entries to keep the whole key set in one record.
+     */
+    public JunoMap(String junoKey, TimeUnit timeUnit, long timeToLive, int indexBuckets, JunoDBManager junoDBManager) {
+        this.timeToLiveSec = Math.min(timeUnit.toSeconds(timeToLive), JunoDBManager.MAX_TTL_ALLOWED);
+        this.junoSet = new ShardedJunoSet<>(junoKey, indexBuckets, TimeUnit.SECONDS, timeToLiveSec, junoDBManager);
+        this.junoDBManager = junoDBManager;
+        this.junoKey = junoKey;
+    }
+
     @Override
     public int size() {
+        flush();
         return junoSet.size();
     }
 
@@ -47,6 +61,11 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
     @Override
     public boolean containsKey(Object key) {
         Objects.requireNonNull(key, "Null key not supported");
+        WriteBehindBuffer<K> buffer = writeBehind;
+        Object pending = buffer == null ? null : buffer.peek(key);
+        if (pending != null) {
+            return pending != WriteBehindBuffer.TOMBSTONE;
+        }
         return junoDBManager.get(encodeKey(key), Object.class, timeToLiveSec).isPresent();
     }
 
@@ -59,6 +78,11 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
     @Override
     public V get(Object key) {
         Objects.requireNonNull(key, "Null key not supported");
+        WriteBehindBuffer<K> buffer = writeBehind;
+        Object pending = buffer == null ? null : buffer.peek(key);
+        if (pending != null) {
+            return pending == WriteBehindBuffer.TOMBSTONE ? null : (V) pending;
+        }
         return (V) junoDBManager.get(encodeKey(key), Object.class).orElse(null);
     }
 
@@ -67,10 +91,13 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
         Objects.requireNonNull(key, "Null key not supported");
         Objects.requireNonNull(value, "Null value not supported");
 
-        byte[] keyBytes = junoDBManager.getCodec().serialize(encodeKey(key));
-        byte[] valueBytes = junoDBManager.getCodec().serialize(value);
-        JunoResponse set = junoDBManager.junoClient.set(keyBytes, valueBytes);
-        if (set.getStatus() == OperationStatus.Success) {
+        WriteBehindBuffer<K> buffer = writeBehind;
+        if (buffer != null) {
+            return buffer.put(key, value) ? value : null;
+        }
+
+        Optional<JunoResponse> set = junoDBManager.createJResponse(encodeKey(key), value, TimeUnit.SECONDS, timeToLiveSec);
+        if (set.isPresent() && set.get().getStatus() == OperationStatus.Success) {
             junoSet.add(key);
             return value;
         }
@@ -82,110 +109,244 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
     public V remove(Object key) {
         Objects.requireNonNull(key, "Null key not supported");
         V v = get(key);
+        WriteBehindBuffer<K> buffer = writeBehind;
+        if (buffer != null) {
+            return v != null && buffer.put((K) key, WriteBehindBuffer.TOMBSTONE) ? v : null;
+        }
         return v != null && junoDBManager.delete(encodeKey(key)) && junoSet.remove(key) ? v : null;
     }
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
-//        /** The batch has a client-side queue limit (08-Dec-2023), yet to be tested extensively... **/
-//        List<JunoRequest> junoRequests = m.entrySet()
-//                .stream()
-//                .filter(entry -> Objects.nonNull(entry.getKey()))
-//                .filter(entry -> Objects.nonNull(entry.getValue()))
-//                .map((entry) -> JunoDBManager.setJunoRequest(encodeKey.apply(entry.getKey()), entry.getValue(), JunoRequest.OperationType.Set, timeToLiveSec))
-//                .collect(Collectors.toList());
-//
-//        if (junoRequests.isEmpty()) {
-//            return;
-//        }
-//
-//        Iterable<JunoResponse> junoResponses = JunoDBManager.doBatch(junoRequests);
-//        if (junoResponses == null) {
-//            return;
-//        }
-//
-//        List<K> addedKeys = new ArrayList<>();
-//        for (JunoResponse junoResponse : junoResponses) {
-//            if (junoResponse.getStatus() != OperationStatus.Success) {
-//                continue;
-//            }
-//
-//            String encodedKey = JunoDBManager.deserializeObject(junoResponse.getKey());
-//            K k = decodeKey.apply(encodedKey);
-//            if (k != null) {
-//                addedKeys.add(k);
-//            }
-//        }
-//
-//        junoSet.addAll(addedKeys);
+        WriteBehindBuffer<K> buffer = writeBehind;
+        if (buffer != null) {
+            m.forEach((k, v) -> {
+                if (k != null && v != null) {
+                    buffer.put(k, v);
+                }
+            });
+            return;
+        }
+
+        List<K> keys = new ArrayList<>(m.size());
+        List<JunoRequest> junoRequests = new ArrayList<>(m.size());
+        m.forEach((k, v) -> {
+            if (k != null && v != null) {
+                keys.add(k);
+                junoRequests.add(junoDBManager.setJunoRequest(encodeKey(k), v, JunoRequest.OperationType.Set, timeToLiveSec));
+            }
+        });
+
+        if (junoRequests.isEmpty()) {
+            return;
+        }
+
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(junoRequests);
+        if (junoResponses == null) {
+            return;
+        }
+
+        // doBatch answers in request order, so the i-th response belongs to the i-th key
+        List<K> addedKeys = new ArrayList<>();
+        int i = 0;
+        for (JunoResponse junoResponse : junoResponses) {
+            if (i < keys.size() && junoResponse.getStatus() == OperationStatus.Success) {
+                addedKeys.add(keys.get(i));
+            }
+            i++;
+        }
+
+        if (!addedKeys.isEmpty()) {
+            junoSet.addAll(addedKeys);
+        }
     }
 
     @Override
     public void clear() {
-        /** Batch delete **/
-//        List<JunoRequest> bulkRequest = junoSet.stream()
-//                .map(k -> JunoDBManager.setJunoRequest(encodeKey.apply(k), JunoRequest.OperationType.Destroy))
-//                .collect(Collectors.toList());
-//
-//        if (bulkRequest.isEmpty()) {
-//            return;
-//        }
-//
-//        Iterable<JunoResponse> junoResponses = JunoDBManager.doBatch(bulkRequest);
-//        if (junoResponses == null) {
-//            return;
-//        }
-//
-//        // Assumed everything is deleted, if not max TTL is 3 days, so ¯\_(ツ)_/¯
-//        junoSet.clear();
+        flush();
+        List<K> keys = new ArrayList<>(junoSet);
+        List<JunoRequest> bulkRequest = keys.stream()
+                .map(k -> junoDBManager.setJunoRequest(encodeKey(k), JunoRequest.OperationType.Destroy))
+                .collect(Collectors.toList());
+
+        if (bulkRequest.isEmpty()) {
+            return;
+        }
+
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(bulkRequest);
+        if (junoResponses == null) {
+            return;
+        }
+
+        List<K> deletedKeys = new ArrayList<>();
+        int i = 0;
+        for (JunoResponse junoResponse : junoResponses) {
+            if (i < keys.size() && junoResponse.getStatus() == OperationStatus.Success) {
+                deletedKeys.add(keys.get(i));
+            }
+            i++;
+        }
+
+        if (deletedKeys.size() == keys.size()) {
+            junoSet.clear();
+        } else if (!deletedKeys.isEmpty()) {
+            junoSet.removeAll(deletedKeys);
+        }
     }
 
     @Override
     public Set<K> keySet() {
+        flush();
         return junoSet;
     }
 
     @Override
     public Collection<V> values() {
-        Set<String> encKeySet = junoSet.stream()
-                .map(this::encodeKey)
-                .collect(Collectors.toSet());
-        List<Object> all = junoDBManager.getAll(encKeySet, Object.class, timeToLiveSec);
-        System.out.println(all);
-        return null;
+        return fetchAll().stream()
+                .map(Entry::getValue)
+                .collect(Collectors.toList());
     }
 
     @Override
     public Set<Entry<K, V>> entrySet() {
-        Set<Entry<K, V>> entrySet = new HashSet<>();
-//        List<JunoRequest> junoRequests = keySet().stream()
-//                .map(k -> JunoDBManager.setJunoRequest(encodeKey.apply(k), JunoRequest.OperationType.Get, timeToLiveSec))
-//                .collect(Collectors.toList());
-//
-//        if (junoRequests.isEmpty()) {
-//            return entrySet;
-//        }
-//
-//        Iterable<JunoResponse> junoResponses = JunoDBManager.doBatch(junoRequests);
-//        if (junoResponses == null) {
-//            return entrySet;
-//        }
-//
-//        for (JunoResponse junoResponse : junoResponses) {
-//            if (junoResponse.getStatus() != OperationStatus.Success || junoResponse.getValue() == null || junoResponse.getValue().length == 0) {
-//                continue;
-//            }
-//
-//            String encodedKey = new String(junoResponse.getKey());
-//            K k = decodeKey.apply(encodedKey);
-//            V v = JunoDBManager.deserializeObject(junoResponse.getValue(), valueTypeReference);
-//            if (v == null || k == null) {
-//                continue;
-//            }
-//
-//            entrySet.add(new AbstractMap.SimpleEntry<>(k, v));
-//        }
-        return entrySet;
+        return new LinkedHashSet<>(fetchAll());
+    }
+
+    /**
+     * Fetch every member tracked in the key index with a single batched get. Keys come from the index rather than
+     * from the response, so they keep their original type.
+     */
+    private List<Entry<K, V>> fetchAll() {
+        flush();
+        List<Entry<K, V>> entries = new ArrayList<>();
+        List<K> keys = new ArrayList<>(junoSet);
+        List<JunoRequest> junoRequests = keys.stream()
+                .map(k -> junoDBManager.setJunoRequest(encodeKey(k), JunoRequest.OperationType.Get, timeToLiveSec))
+                .collect(Collectors.toList());
+
+        if (junoRequests.isEmpty()) {
+            return entries;
+        }
+
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(junoRequests);
+        if (junoResponses == null) {
+            return entries;
+        }
+
+        int i = 0;
+        for (JunoResponse junoResponse : junoResponses) {
+            K k = i < keys.size() ? keys.get(i) : null;
+            i++;
+            if (k == null || junoResponse.getStatus() != OperationStatus.Success || junoResponse.getValue() == null || junoResponse.getValue().length == 0) {
+                continue;
+            }
+
+            V v = (V) junoDBManager.getCodec().deserialize(junoResponse.getValue(), Object.class);
+            if (v != null) {
+                entries.add(new AbstractMap.SimpleEntry<>(k, v));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Write-behind mode: put, putAll and remove only record the write in memory, merged per key, and return at once.
+     * Pending writes are sent in batches when {@link WriteBehindConfig#getFlushSize()} keys are pending, every
+     * {@link WriteBehindConfig#getFlushIntervalMSec()}, on {@link #flush()} and at JVM shutdown. get and containsKey see
+     * pending writes; bulk reads (size, keySet, values, entrySet) flush first. Writes pending at a crash are lost.
+     * While {@link WriteBehindConfig#getMaxPendingWrites()} keys are pending, writes of other keys wait for a flush and
+     * are rejected after {@link WriteBehindConfig#getMaxBlockMSec()}: put and remove then return null. A write Juno
+     * refuses, e.g. with IllegalArgument, is dropped and reported; one failing transiently is retried on at most
+     * {@link WriteBehindConfig#getMaxRetries()} more flushes. Pass null, or {@link #close()} the map, to flush and turn
+     * the mode off.
+     */
+    public synchronized void setWriteBehind(WriteBehindConfig writeBehindConfig) {
+        WriteBehindBuffer<K> previous = writeBehind;
+        writeBehind = writeBehindConfig == null ? null : new WriteBehindBuffer<>(junoKey, writeBehindConfig, this::writeBatch);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Flush and turn write-behind off, releasing its background flushing; the map stays usable with direct writes.
+     */
+    @Override
+    public void close() {
+        setWriteBehind(null);
+    }
+
+    /**
+     * Send every pending write-behind write now; no-op when write-behind is off.
+     */
+    public void flush() {
+        WriteBehindBuffer<K> buffer = writeBehind;
+        if (buffer != null) {
+            buffer.flush();
+        }
+    }
+
+    /**
+     * @return number of keys with a write-behind write waiting to be flushed, 0 when write-behind is off
+     */
+    public int pendingWrites() {
+        WriteBehindBuffer<K> buffer = writeBehind;
+        return buffer == null ? 0 : buffer.pendingCount();
+    }
+
+    /**
+     * Write merged pending writes in one batch and update the key index once for the whole batch.
+     *
+     * @return status of each write that got a response
+     */
+    private Map<K, OperationStatus> writeBatch(Map<K, Object> writes) {
+        List<K> keys = new ArrayList<>(writes.size());
+        List<JunoRequest> junoRequests = new ArrayList<>(writes.size());
+        writes.forEach((k, v) -> {
+            keys.add(k);
+            junoRequests.add(v == WriteBehindBuffer.TOMBSTONE
+                    ? junoDBManager.setJunoRequest(encodeKey(k), JunoRequest.OperationType.Destroy)
+                    : junoDBManager.setJunoRequest(encodeKey(k), v, JunoRequest.OperationType.Set, timeToLiveSec));
+        });
+
+        Map<K, OperationStatus> statuses = new HashMap<>();
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(junoRequests);
+        if (junoResponses == null) {
+            return statuses;
+        }
+
+        List<K> added = new ArrayList<>();
+        List<K> removed = new ArrayList<>();
+        int i = 0;
+        for (JunoResponse junoResponse : junoResponses) {
+            if (i >= keys.size()) {
+                break;
+            }
+            K k = keys.get(i++);
+            if (junoResponse.getStatus() == OperationStatus.Success) {
+                (writes.get(k) == WriteBehindBuffer.TOMBSTONE ? removed : added).add(k);
+            }
+            statuses.put(k, junoResponse.getStatus());
+        }
+
+        if (!added.isEmpty()) {
+            junoSet.addAll(added);
+        }
+        if (!removed.isEmpty()) {
+            junoSet.removeAll(removed);
+        }
+        return statuses;
+    }
+
+    /**
+     * Switch the key index to version-checked updates, see {@link JunoSet#setOptimistic(boolean)}.
+     */
+    public void setOptimistic(boolean optimistic) {
+        if (junoSet instanceof JunoSet) {
+            ((JunoSet<K>) junoSet).setOptimistic(optimistic);
+        } else if (junoSet instanceof ShardedJunoSet) {
+            ((ShardedJunoSet<K>) junoSet).setOptimistic(optimistic);
+        }
     }
 
     @Override
@@ -197,12 +358,7 @@ public class JunoMap<K, V> implements Map<K, V>, Cloneable, Serializable {
         }
     }
 
-    private String encodeKey(Object key) {
-        return junoKey + KEY_DELIMITER + key;
-    }
-
-    private K decodeKey(String encKey) {
-        String substring = encKey.substring(encKey.lastIndexOf(KEY_DELIMITER) + 1);
-        return (K) substring;
+    private EncodedKey encodeKey(Object key) {
+        return junoDBManager.namespacedKey(junoKey, key);
     }
 }
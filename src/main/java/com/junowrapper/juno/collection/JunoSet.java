@@ -1,16 +1,20 @@
 package com.junowrapper.juno.collection;
 
 import com.junowrapper.juno.JunoDBManager;
+import com.paypal.juno.client.io.OperationStatus;
 
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 
 public class JunoSet<E> extends AbstractSet<E> implements Set<E>, Serializable {
 
     private static final long serialVersionUID = -3568975462455467924L;
     private final String junoKey;
     private long timeToLiveSec = JunoDBManager.MAX_TTL_ALLOWED;
+    // version-checked updates instead of unconditional get-modify-create
+    private volatile boolean optimistic;
 
     private final JunoDBManager junoDBManager;
 
@@ -52,24 +56,41 @@ public class JunoSet<E> extends AbstractSet<E> implements Set<E>, Serializable {
 
     @Override
     public boolean add(E o) {
+        if (optimistic) {
+            return mutate(set -> set.add(o));
+        }
         Set<E> junoSet = get();
         return junoSet.add(o) && push(junoSet);
     }
 
     @Override
     public boolean remove(Object o) {
+        if (optimistic) {
+            return mutate(set -> set.remove(o));
+        }
         Set<E> junoSet = get();
         return junoSet.remove(o) && push(junoSet);
     }
 
     @Override
     public boolean addAll(Collection<? extends E> c) {
+        if (optimistic) {
+            return mutate(set -> set.addAll(c));
+        }
         Set<E> junoSet = get();
         return junoSet.addAll(c) && push(junoSet);
     }
 
     @Override
     public void clear() {
+        if (optimistic) {
+            mutate(set -> {
+                boolean changed = !set.isEmpty();
+                set.clear();
+                return changed;
+            });
+            return;
+        }
         Set<E> junoSet = get();
         junoSet.clear();
         push(junoSet);
@@ -77,12 +98,18 @@ public class JunoSet<E> extends AbstractSet<E> implements Set<E>, Serializable {
 
     @Override
     public boolean removeAll(Collection<?> c) {
+        if (optimistic) {
+            return mutate(set -> set.removeAll(c));
+        }
         Set<E> junoSet = get();
         return junoSet.removeAll(c) && push(junoSet);
     }
 
     @Override
     public boolean retainAll(Collection<?> c) {
+        if (optimistic) {
+            return mutate(set -> set.retainAll(c));
+        }
         Set<E> junoSet = get();
         return junoSet.retainAll(c) && push(junoSet);
     }
@@ -102,12 +129,38 @@ public class JunoSet<E> extends AbstractSet<E> implements Set<E>, Serializable {
         return junoKey;
     }
 
+    public boolean isOptimistic() {
+        return optimistic;
+    }
+
+    /**
+     * Lock-free mode: mutations read the record version and write back with a conditional update, retrying with
+     * jitter per {@link JunoDBManager#getRetryConfig()}, so concurrent writers on other nodes never drop each other's
+     * changes.
+     */
+    public void setOptimistic(boolean optimistic) {
+        this.optimistic = optimistic;
+    }
+
     private boolean push(Set<E> localSet) {
         return junoDBManager.create(junoKey, localSet, timeToLiveSec);
     }
 
+    private boolean mutate(Predicate<Set<E>> change) {
+        boolean[] changed = {false};
+        boolean written = junoDBManager.compareAndUpdate(junoKey, HashSet.class, current -> {
+            HashSet<E> junoSet = current == null ? new HashSet<>() : current;
+            changed[0] = change.test(junoSet);
+            return changed[0] ? junoSet : null;
+        }, timeToLiveSec);
+        return written && changed[0];
+    }
+
+    // read through getJResponse rather than get: the set is mutated in place, so it must never come from the near cache
     private Set<E> get() {
-        Optional<HashSet> jSetFromKey = junoDBManager.get(junoKey, HashSet.class, TimeUnit.SECONDS, timeToLiveSec);
+        Optional<HashSet> jSetFromKey = junoDBManager.getJResponse(junoKey, TimeUnit.SECONDS, timeToLiveSec)
+                .filter(r -> r.getStatus() == OperationStatus.Success)
+                .map(r -> junoDBManager.getCodec().deserialize(r.getValue(), HashSet.class));
         return jSetFromKey.orElse(new HashSet<>());
     }
 }
@@ -0,0 +1,427 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.RetryConfig;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+
+/**
+ * {@link JunoSet} variant that spreads members over N bucket records instead of one whole-set record.
+ * <p>
+ * Layout: a manifest record {@code junoKey} holds the bucket count, bucket {@code i} lives under {@code junoKey},
+ * a NUL-delimited "bucket" marker and {@code i}. A member's bucket is chosen by an FNV-1a hash of the member encoded
+ * with the manager's {@link JunoDBManager#getKeyCodec() key codec}, so it is the same in every JVM and for every
+ * instance sharing the codec; members must encode deterministically, i.e. equal members to equal bytes. Single-member
+ * operations read and write one bucket; full scans fetch every bucket in one batch, which
+ * {@link JunoDBManager#doBatch(Iterable)} splits and runs in parallel.
+ * <p>
+ * The manifest is created with a create-only write, so concurrent first users agree on one bucket count, and every
+ * bucket read or write extends its TTL along with the bucket's, so it never expires before its buckets.
+ */
+public class ShardedJunoSet<E> extends AbstractSet<E> implements Set<E>, Serializable {
+
+    private static final long serialVersionUID = 2817146587309431655L;
+    public static final int DEFAULT_BUCKETS = 16;
+    // NUL keeps bucket keys apart from JunoMap entry keys ("junoKey:" + key) sharing the same prefix
+    private static final String BUCKET_DELIMITER = "\u0000bucket\u0000";
+
+    private final String junoKey;
+    private final int requestedBuckets;
+    private long timeToLiveSec = JunoDBManager.MAX_TTL_ALLOWED;
+    private volatile int buckets;
+    // version-checked bucket writes instead of unconditional get-modify-set
+    private volatile boolean optimistic;
+
+    private final JunoDBManager junoDBManager;
+
+    public ShardedJunoSet(String junoKey, JunoDBManager junoDBManager) {
+        this(junoKey, DEFAULT_BUCKETS, TimeUnit.SECONDS, JunoDBManager.MAX_TTL_ALLOWED, junoDBManager);
+    }
+
+    /**
+     * @param buckets - Bucket count used when the set does not exist yet, an existing set keeps the count in its
+     *                manifest
+     */
+    public ShardedJunoSet(String junoKey, int buckets, TimeUnit timeUnit, long timeToLive, JunoDBManager junoDBManager) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException("Bucket count must be positive: " + buckets);
+        }
+        this.junoKey = junoKey;
+        this.requestedBuckets = buckets;
+        this.junoDBManager = junoDBManager;
+        this.timeToLiveSec = Math.min(timeUnit.toSeconds(timeToLive), timeToLiveSec);
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Set<E> bucket : getAllBuckets().values()) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return getBucket(bucketOf(o)).contains(o);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<E> snapshot = snapshot().iterator();
+        return new Iterator<E>() {
+            private E current;
+
+            @Override
+            public boolean hasNext() {
+                return snapshot.hasNext();
+            }
+
+            @Override
+            public E next() {
+                current = snapshot.next();
+                return current;
+            }
+
+            @Override
+            public void remove() {
+                ShardedJunoSet.this.remove(current);
+            }
+        };
+    }
+
+    @Override
+    public Object[] toArray() {
+        return snapshot().toArray();
+    }
+
+    @Override
+    public <T> T[] toArray(T[] a) {
+        return snapshot().toArray(a);
+    }
+
+    @Override
+    public boolean add(E o) {
+        int bucket = bucketOf(o);
+        if (optimistic) {
+            return mutateBucket(bucket, members -> members.add(o));
+        }
+        return mutateBuckets(Collections.singletonList(bucket), (id, members) -> members.add(o));
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int bucket = bucketOf(o);
+        if (optimistic) {
+            return mutateBucket(bucket, members -> members.remove(o));
+        }
+        return mutateBuckets(Collections.singletonList(bucket), (id, members) -> members.remove(o));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Map<Integer, List<Object>> grouped = groupByBucket(c);
+        return mutateBuckets(grouped.keySet(), (bucket, members) -> members.addAll((List<E>) grouped.get(bucket)));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Map<Integer, List<Object>> grouped = groupByBucket(c);
+        return mutateBuckets(grouped.keySet(), (bucket, members) -> members.removeAll(grouped.get(bucket)));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        return mutateBuckets(allBucketIds(), (bucket, members) -> members.retainAll(c));
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        Map<Integer, List<Object>> grouped = groupByBucket(c);
+        Map<Integer, Set<E>> buckets = getBuckets(grouped.keySet(), null);
+        for (Map.Entry<Integer, List<Object>> entry : grouped.entrySet()) {
+            if (!buckets.getOrDefault(entry.getKey(), Collections.emptySet()).containsAll(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        List<JunoRequest> bulkRequest = new ArrayList<>();
+        for (int i = 0; i < buckets(); i++) {
+            bulkRequest.add(junoDBManager.setJunoRequest(bucketKey(i), JunoRequest.OperationType.Destroy));
+        }
+        junoDBManager.doBatch(bulkRequest);
+    }
+
+    public String getJunoKey() {
+        return junoKey;
+    }
+
+    public int getBucketCount() {
+        return buckets();
+    }
+
+    public boolean isOptimistic() {
+        return optimistic;
+    }
+
+    /**
+     * Lock-free mode: bucket writes carry the version read with the bucket and are retried with jitter per
+     * {@link JunoDBManager#getRetryConfig()} when another writer got in first.
+     */
+    public void setOptimistic(boolean optimistic) {
+        this.optimistic = optimistic;
+    }
+
+    private Set<E> snapshot() {
+        Set<E> all = new HashSet<>();
+        getAllBuckets().values().forEach(all::addAll);
+        return all;
+    }
+
+    private int bucketOf(Object o) {
+        byte[] bytes = junoDBManager.getKeyCodec().encode(o);
+        // 64-bit FNV-1a and the MurmurHash3 finalizer, as for shard routing
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return (int) ((h & Long.MAX_VALUE) % buckets());
+    }
+
+    private String bucketKey(int bucket) {
+        return junoKey + BUCKET_DELIMITER + bucket;
+    }
+
+    /**
+     * Bucket count from the manifest, created with the requested count on first use. Only a count read from or written
+     * to Juno is kept; when Juno can't be reached the requested count is used for this call and the manifest is
+     * looked up again on the next one.
+     */
+    private int buckets() {
+        int current = buckets;
+        if (current > 0) {
+            return current;
+        }
+        synchronized (this) {
+            if (buckets == 0) {
+                Optional<Integer> manifest = readManifest();
+                if (manifest.isPresent()) {
+                    buckets = manifest.get();
+                } else {
+                    return createManifest();
+                }
+            }
+            return buckets;
+        }
+    }
+
+    private Optional<Integer> readManifest() {
+        return junoDBManager.get(junoKey, Integer.class, TimeUnit.SECONDS, timeToLiveSec).filter(count -> count > 0);
+    }
+
+    /**
+     * Create the manifest unless another node got in first, in which case its count wins.
+     */
+    private int createManifest() {
+        List<JunoRequest> create = Collections.singletonList(
+                junoDBManager.setJunoRequest(junoKey, requestedBuckets, JunoRequest.OperationType.Create, timeToLiveSec));
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(create);
+        OperationStatus status = junoResponses == null || !junoResponses.iterator().hasNext()
+                ? OperationStatus.UnknownError
+                : junoResponses.iterator().next().getStatus();
+        if (status == OperationStatus.Success) {
+            buckets = requestedBuckets;
+        } else if (status == OperationStatus.UniqueKeyViolation) {
+            readManifest().ifPresent(count -> buckets = count);
+        }
+        if (buckets == 0) {
+            System.out.println("Error ShardedJunoSet manifest unavailable: " + junoKey + " " + status);
+            return requestedBuckets;
+        }
+        return buckets;
+    }
+
+    private JunoRequest touchManifest() {
+        return junoDBManager.setJunoRequest(junoKey, JunoRequest.OperationType.Get, timeToLiveSec);
+    }
+
+    // buckets are mutated in place, so they are read past the near cache
+    private Set<E> getBucket(int bucket) {
+        return getBuckets(Collections.singletonList(bucket), null).getOrDefault(bucket, Collections.emptySet());
+    }
+
+    private Map<Integer, List<Object>> groupByBucket(Collection<?> c) {
+        Map<Integer, List<Object>> grouped = new HashMap<>();
+        for (Object o : c) {
+            grouped.computeIfAbsent(bucketOf(o), k -> new ArrayList<>()).add(o);
+        }
+        return grouped;
+    }
+
+    private List<Integer> allBucketIds() {
+        int count = buckets();
+        List<Integer> all = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            all.add(i);
+        }
+        return all;
+    }
+
+    private Map<Integer, Set<E>> getAllBuckets() {
+        return getBuckets(allBucketIds(), null);
+    }
+
+    /**
+     * Fetch the given buckets in one batch; the manifest rides along so its TTL is extended with the buckets.
+     *
+     * @param versions - When not null, receives the record version of every bucket that exists
+     * @return members of every bucket that was read, empty for a bucket that does not exist; a bucket whose read failed
+     * or could not be decoded is left out, so it is never mistaken for an empty one and overwritten
+     */
+    private Map<Integer, Set<E>> getBuckets(Collection<Integer> bucketIds, Map<Integer, Long> versions) {
+        List<Integer> ids = new ArrayList<>(bucketIds);
+        List<JunoRequest> junoRequests = new ArrayList<>(ids.size() + 1);
+        for (Integer id : ids) {
+            junoRequests.add(junoDBManager.setJunoRequest(bucketKey(id), JunoRequest.OperationType.Get, timeToLiveSec));
+        }
+        junoRequests.add(touchManifest());
+
+        Map<Integer, Set<E>> result = new HashMap<>();
+        Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(junoRequests);
+        if (junoResponses == null) {
+            return result;
+        }
+
+        int i = 0;
+        for (JunoResponse junoResponse : junoResponses) {
+            if (i >= ids.size()) {
+                break;
+            }
+            Integer id = ids.get(i++);
+            if (junoResponse.getStatus() == OperationStatus.NoKey) {
+                result.put(id, new HashSet<>());
+            } else if (junoResponse.getStatus() == OperationStatus.Success) {
+                HashSet<E> members = junoResponse.getValue() == null || junoResponse.getValue().length == 0
+                        ? new HashSet<>()
+                        : junoDBManager.getCodec().deserialize(junoResponse.getValue(), HashSet.class);
+                if (members != null) {
+                    result.put(id, members);
+                    if (versions != null) {
+                        versions.put(id, junoResponse.getVersion());
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private boolean mutateBucket(int bucket, Predicate<Set<E>> change) {
+        boolean[] changed = {false};
+        boolean written = junoDBManager.compareAndUpdate(bucketKey(bucket), HashSet.class, current -> {
+            HashSet<E> members = current == null ? new HashSet<>() : current;
+            changed[0] = change.test(members);
+            return changed[0] ? members : null;
+        }, timeToLiveSec);
+        if (written && changed[0]) {
+            junoDBManager.doBatch(Collections.singletonList(touchManifest()));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Read the buckets in one batch, apply {@code change} to each and write the changed ones back in one batch. In
+     * optimistic mode the writes are conditional on the version read, and buckets that lost a race are re-read and
+     * retried on their own. Nothing is written when a bucket can't be read.
+     *
+     * @return true if any bucket changed and every write succeeded
+     */
+    private boolean mutateBuckets(Collection<Integer> bucketIds, BiPredicate<Integer, Set<E>> change) {
+        RetryConfig retry = junoDBManager.getRetryConfig();
+        Collection<Integer> pending = bucketIds;
+        boolean changedAny = false;
+        for (int attempt = 1; ; attempt++) {
+            Map<Integer, Long> versions = new HashMap<>();
+            Map<Integer, Set<E>> current = getBuckets(pending, versions);
+            if (current.size() < pending.size()) {
+                System.out.println("Error mutateBuckets() bucket read failed: " + junoKey);
+                return false;
+            }
+            List<Integer> changed = new ArrayList<>();
+            List<JunoRequest> junoRequests = new ArrayList<>();
+            for (Map.Entry<Integer, Set<E>> entry : current.entrySet()) {
+                if (!change.test(entry.getKey(), entry.getValue())) {
+                    continue;
+                }
+                changed.add(entry.getKey());
+                junoRequests.add(writeRequest(entry.getKey(), entry.getValue(), versions.get(entry.getKey())));
+            }
+            if (junoRequests.isEmpty()) {
+                return changedAny;
+            }
+            junoRequests.add(touchManifest());
+
+            Iterable<JunoResponse> junoResponses = junoDBManager.doBatch(junoRequests);
+            if (junoResponses == null) {
+                return false;
+            }
+
+            List<Integer> conflicts = new ArrayList<>();
+            int i = 0;
+            for (JunoResponse junoResponse : junoResponses) {
+                if (i >= changed.size()) {
+                    break;
+                }
+                OperationStatus status = junoResponse.getStatus();
+                if (status == OperationStatus.Success) {
+                    changedAny = true;
+                } else if (optimistic && JunoDBManager.isConflict(status)) {
+                    conflicts.add(changed.get(i));
+                } else {
+                    return false;
+                }
+                i++;
+            }
+
+            if (conflicts.isEmpty()) {
+                return changedAny;
+            }
+            if (attempt >= retry.getMaxAttempts() || !retry.backoff(attempt)) {
+                System.out.println("Error mutateBuckets() retries exhausted: " + junoKey);
+                return false;
+            }
+            pending = conflicts;
+        }
+    }
+
+    private JunoRequest writeRequest(int bucket, Set<E> members, Long version) {
+        if (!optimistic) {
+            return junoDBManager.setJunoRequest(bucketKey(bucket), members, JunoRequest.OperationType.Set, timeToLiveSec);
+        }
+        byte[] keyBytes = junoDBManager.serializeKey(bucketKey(bucket));
+        byte[] valueBytes = junoDBManager.getCodec().serialize(members);
+        return version == null
+                ? new JunoRequest(keyBytes, valueBytes, 0, timeToLiveSec, JunoRequest.OperationType.Create)
+                : new JunoRequest(keyBytes, valueBytes, version, timeToLiveSec, JunoRequest.OperationType.Update);
+    }
+}
@@ -0,0 +1,199 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.WriteBehindConfig;
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Pending writes of a write-behind {@link JunoMap}, merged per key: a later put or remove of the same key replaces the
+ * earlier one before it is ever sent. Flushed by size, by time, explicitly or on shutdown.
+ * <p>
+ * Bounded: once {@link WriteBehindConfig#getMaxPendingWrites()} keys are pending, a write of another key waits up to
+ * {@link WriteBehindConfig#getMaxBlockMSec()} for a background flush to make room and is rejected otherwise, so an
+ * outage can't grow the buffer without limit. Concurrent writers may overshoot the bound by one key each.
+ * <p>
+ * A write failing with a transient status stays pending for at most {@link WriteBehindConfig#getMaxRetries()} more
+ * flushes; any other failure drops it at once. Dropped writes are reported and no longer hide the stored value.
+ * <p>
+ * All buffers share {@link #FLUSH_THREADS} flush threads and one shutdown hook.
+ */
+final class WriteBehindBuffer<K> {
+
+    static final Object TOMBSTONE = new Object();
+
+    static final int FLUSH_THREADS = 2;
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    private static final ScheduledExecutorService SCHEDULER = Executors.newScheduledThreadPool(FLUSH_THREADS, r -> {
+        Thread thread = new Thread(r, "juno-write-behind-" + THREAD_COUNT.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    // buffers flushed by the shutdown hook
+    private static final Set<WriteBehindBuffer<?>> FLUSH_ON_SHUTDOWN = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> FLUSH_ON_SHUTDOWN.forEach(WriteBehindBuffer::flushQuietly),
+                "juno-write-behind-shutdown"));
+    }
+
+    private final String name;
+    private final WriteBehindConfig writeBehindConfig;
+    // receives a snapshot of pending writes (value or TOMBSTONE) and returns the status of each write it sent
+    private final Function<Map<K, Object>, Map<K, OperationStatus>> writer;
+    private final ConcurrentHashMap<K, PendingWrite> pending = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> periodicFlush;
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Object flushLock = new Object();
+    // notified whenever a flush made room
+    private final Object capacity = new Object();
+    private volatile boolean closed;
+
+    WriteBehindBuffer(String name, WriteBehindConfig writeBehindConfig, Function<Map<K, Object>, Map<K, OperationStatus>> writer) {
+        this.name = name;
+        this.writeBehindConfig = writeBehindConfig;
+        this.writer = writer;
+        long interval = writeBehindConfig.getFlushIntervalMSec();
+        this.periodicFlush = SCHEDULER.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        if (writeBehindConfig.isFlushOnShutdown()) {
+            FLUSH_ON_SHUTDOWN.add(this);
+        }
+    }
+
+    /**
+     * @param value - Value to write, or {@link #TOMBSTONE} to delete
+     * @return false if the buffer stayed full for the configured wait and the write was rejected
+     */
+    boolean put(K key, Object value) {
+        if (pending.size() >= writeBehindConfig.getMaxPendingWrites() && !pending.containsKey(key) && !awaitCapacity()) {
+            System.out.println("Error WriteBehindBuffer full, write rejected: " + key);
+            return false;
+        }
+        pending.put(key, new PendingWrite(value));
+        if (pending.size() >= writeBehindConfig.getFlushSize()) {
+            scheduleFlush();
+        }
+        return true;
+    }
+
+    private boolean awaitCapacity() {
+        scheduleFlush();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(writeBehindConfig.getMaxBlockMSec());
+        synchronized (capacity) {
+            while (pending.size() >= writeBehindConfig.getMaxPendingWrites()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(capacity, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void scheduleFlush() {
+        if (!closed && flushScheduled.compareAndSet(false, true)) {
+            try {
+                SCHEDULER.execute(() -> {
+                    flushScheduled.set(false);
+                    flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * @return pending value, {@link #TOMBSTONE} for a pending remove, null if nothing is pending for the key
+     */
+    Object peek(Object key) {
+        PendingWrite write = pending.get(key);
+        return write == null ? null : write.value;
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write everything pending now. Writes that fail transiently stay pending for the next flush, up to the retry cap;
+     * a key rewritten while its flush was in flight keeps the newer value pending.
+     */
+    void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            Map<K, PendingWrite> snapshot = new LinkedHashMap<>(pending);
+            Map<K, Object> values = new LinkedHashMap<>(snapshot.size());
+            snapshot.forEach((k, write) -> values.put(k, write.value));
+            Map<K, OperationStatus> statuses = writer.apply(values);
+            snapshot.forEach((k, write) -> {
+                OperationStatus status = statuses.get(k);
+                if (status == OperationStatus.Success) {
+                    pending.remove(k, write);
+                } else if (++write.failures > writeBehindConfig.getMaxRetries()
+                        || (status != null && !JunoDBManager.isTransient(status))) {
+                    drop(k, write, status);
+                }
+            });
+        }
+        synchronized (capacity) {
+            capacity.notifyAll();
+        }
+    }
+
+    private void drop(K key, PendingWrite write, OperationStatus status) {
+        if (pending.remove(key, write)) {
+            System.out.println("Error WriteBehindBuffer " + name + " dropped the write of " + key + " after "
+                    + write.failures + " failed flushes: " + status);
+        }
+    }
+
+    /**
+     * Stop flushing in the background and write what is pending.
+     */
+    void close() {
+        closed = true;
+        periodicFlush.cancel(false);
+        FLUSH_ON_SHUTDOWN.remove(this);
+        flush();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            System.out.println("Error WriteBehindBuffer.flush(): " + e);
+        }
+    }
+
+    private static final class PendingWrite {
+        private final Object value;
+        // guarded by flushLock
+        private int failures;
+
+        private PendingWrite(Object value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.junowrapper.juno.metrics;
+
+import com.paypal.juno.client.io.OperationStatus;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in {@link MetricsSink} keeping HdrHistogram {@link Recorder}s (lock-free, wait-free on the recording side) and
+ * counters in memory. {@link #snapshot()} returns and resets the interval, so call it from a single reporter thread.
+ */
+public class InMemoryMetricsSink implements MetricsSink {
+
+    // 3 significant digits, values clamped to these ceilings
+    private static final long MAX_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final long MAX_BYTES = 1L << 31;
+
+    private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+    private final Map<CodecPhase, Recorder> codecTimes = new EnumMap<>(CodecPhase.class);
+    private final Recorder keySizes = new Recorder(MAX_BYTES, 3);
+    private final Recorder valueSizes = new Recorder(MAX_BYTES, 3);
+    private final Recorder batchSizes = new Recorder(MAX_BYTES, 3);
+    private final Map<Operation, Map<OperationStatus, LongAdder>> statusCounts = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failureCounts = new EnumMap<>(Operation.class);
+
+    private final Map<Recorder, Histogram> intervals = new IdentityHashMap<>();
+
+    public InMemoryMetricsSink() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new Recorder(MAX_NANOS, 3));
+            failureCounts.put(operation, new LongAdder());
+            Map<OperationStatus, LongAdder> counts = new EnumMap<>(OperationStatus.class);
+            for (OperationStatus status : OperationStatus.values()) {
+                counts.put(status, new LongAdder());
+            }
+            statusCounts.put(operation, counts);
+        }
+        for (CodecPhase phase : CodecPhase.values()) {
+            codecTimes.put(phase, new Recorder(MAX_NANOS, 3));
+        }
+    }
+
+    @Override
+    public void recordLatency(Operation operation, long nanos) {
+        latencies.get(operation).recordValue(clamp(nanos, MAX_NANOS));
+    }
+
+    @Override
+    public void recordCodec(CodecPhase phase, long nanos) {
+        codecTimes.get(phase).recordValue(clamp(nanos, MAX_NANOS));
+    }
+
+    @Override
+    public void recordKeySize(int bytes) {
+        keySizes.recordValue(clamp(bytes, MAX_BYTES));
+    }
+
+    @Override
+    public void recordValueSize(int bytes) {
+        valueSizes.recordValue(clamp(bytes, MAX_BYTES));
+    }
+
+    @Override
+    public void recordBatchSize(int requests) {
+        batchSizes.recordValue(clamp(requests, MAX_BYTES));
+    }
+
+    @Override
+    public void recordStatus(Operation operation, OperationStatus status) {
+        if (status != null) {
+            statusCounts.get(operation).get(status).increment();
+        }
+    }
+
+    @Override
+    public void recordFailure(Operation operation, Throwable error) {
+        failureCounts.get(operation).increment();
+    }
+
+    /**
+     * @return metrics recorded since the previous call; counters are reset too
+     */
+    public synchronized MetricsSnapshot snapshot() {
+        Map<Operation, MetricsSnapshot.HistogramSummary> latencySummaries = new EnumMap<>(Operation.class);
+        latencies.forEach((operation, recorder) -> latencySummaries.put(operation, summarize(recorder)));
+        Map<CodecPhase, MetricsSnapshot.HistogramSummary> codecSummaries = new EnumMap<>(CodecPhase.class);
+        codecTimes.forEach((phase, recorder) -> codecSummaries.put(phase, summarize(recorder)));
+
+        Map<Operation, Map<OperationStatus, Long>> statuses = new EnumMap<>(Operation.class);
+        statusCounts.forEach((operation, counts) -> {
+            Map<OperationStatus, Long> nonZero = new EnumMap<>(OperationStatus.class);
+            counts.forEach((status, adder) -> {
+                long count = adder.sumThenReset();
+                if (count > 0) {
+                    nonZero.put(status, count);
+                }
+            });
+            statuses.put(operation, nonZero);
+        });
+        Map<Operation, Long> failures = new EnumMap<>(Operation.class);
+        failureCounts.forEach((operation, adder) -> failures.put(operation, adder.sumThenReset()));
+
+        return new MetricsSnapshot(latencySummaries, codecSummaries, summarize(keySizes), summarize(valueSizes),
+                summarize(batchSizes), statuses, failures);
+    }
+
+    private MetricsSnapshot.HistogramSummary summarize(Recorder recorder) {
+        // recycle the previous interval histogram to keep snapshots allocation-free
+        Histogram interval = recorder.getIntervalHistogram(intervals.get(recorder));
+        intervals.put(recorder, interval);
+        return new MetricsSnapshot.HistogramSummary(interval.getTotalCount(), interval.getMean(),
+                interval.getValueAtPercentile(50), interval.getValueAtPercentile(90), interval.getValueAtPercentile(99),
+                interval.getValueAtPercentile(99.9), interval.getMaxValue());
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
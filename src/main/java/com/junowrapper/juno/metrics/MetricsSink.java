@@ -0,0 +1,49 @@
+package com.junowrapper.juno.metrics;
+
+import com.paypal.juno.client.io.OperationStatus;
+
+/**
+ * Receives instrumentation events from {@link com.junowrapper.juno.JunoDBManager}. Called inline on the request path,
+ * so implementations must be thread-safe and cheap. Every method defaults to a no-op so sinks only override what
+ * they export.
+ */
+public interface MetricsSink {
+
+    MetricsSink NOOP = new MetricsSink() {
+    };
+
+    enum Operation {
+        GET, CREATE, DELETE, BATCH
+    }
+
+    enum CodecPhase {
+        SERIALIZE, DESERIALIZE
+    }
+
+    /**
+     * @param nanos - Time spent in the Juno client (network and server), codec work excluded
+     */
+    default void recordLatency(Operation operation, long nanos) {
+    }
+
+    default void recordCodec(CodecPhase phase, long nanos) {
+    }
+
+    default void recordKeySize(int bytes) {
+    }
+
+    default void recordValueSize(int bytes) {
+    }
+
+    default void recordBatchSize(int requests) {
+    }
+
+    default void recordStatus(Operation operation, OperationStatus status) {
+    }
+
+    /**
+     * The client threw instead of answering with a status.
+     */
+    default void recordFailure(Operation operation, Throwable error) {
+    }
+}
@@ -0,0 +1,132 @@
+package com.junowrapper.juno.metrics;
+
+import com.paypal.juno.client.io.OperationStatus;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Point-in-time view of an {@link InMemoryMetricsSink}, covering the interval since the previous snapshot.
+ */
+public final class MetricsSnapshot {
+    private final Map<MetricsSink.Operation, HistogramSummary> latencies;
+    private final Map<MetricsSink.CodecPhase, HistogramSummary> codecTimes;
+    private final HistogramSummary keySizes;
+    private final HistogramSummary valueSizes;
+    private final HistogramSummary batchSizes;
+    private final Map<MetricsSink.Operation, Map<OperationStatus, Long>> statusCounts;
+    private final Map<MetricsSink.Operation, Long> failureCounts;
+
+    MetricsSnapshot(Map<MetricsSink.Operation, HistogramSummary> latencies, Map<MetricsSink.CodecPhase, HistogramSummary> codecTimes,
+                    HistogramSummary keySizes, HistogramSummary valueSizes, HistogramSummary batchSizes,
+                    Map<MetricsSink.Operation, Map<OperationStatus, Long>> statusCounts, Map<MetricsSink.Operation, Long> failureCounts) {
+        this.latencies = Collections.unmodifiableMap(latencies);
+        this.codecTimes = Collections.unmodifiableMap(codecTimes);
+        this.keySizes = keySizes;
+        this.valueSizes = valueSizes;
+        this.batchSizes = batchSizes;
+        this.statusCounts = Collections.unmodifiableMap(statusCounts);
+        this.failureCounts = Collections.unmodifiableMap(failureCounts);
+    }
+
+    /**
+     * @return client latency in nanoseconds per operation
+     */
+    public Map<MetricsSink.Operation, HistogramSummary> getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * @return codec time in nanoseconds per phase
+     */
+    public Map<MetricsSink.CodecPhase, HistogramSummary> getCodecTimes() {
+        return codecTimes;
+    }
+
+    public HistogramSummary getKeySizes() {
+        return keySizes;
+    }
+
+    public HistogramSummary getValueSizes() {
+        return valueSizes;
+    }
+
+    public HistogramSummary getBatchSizes() {
+        return batchSizes;
+    }
+
+    public Map<MetricsSink.Operation, Map<OperationStatus, Long>> getStatusCounts() {
+        return statusCounts;
+    }
+
+    public Map<MetricsSink.Operation, Long> getFailureCounts() {
+        return failureCounts;
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsSnapshot{" +
+                "latencies=" + latencies +
+                ", codecTimes=" + codecTimes +
+                ", keySizes=" + keySizes +
+                ", valueSizes=" + valueSizes +
+                ", batchSizes=" + batchSizes +
+                ", statusCounts=" + statusCounts +
+                ", failureCounts=" + failureCounts +
+                '}';
+    }
+
+    public static final class HistogramSummary {
+        private final long count;
+        private final double mean;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        HistogramSummary(long count, double mean, long p50, long p90, long p99, long p999, long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count + ", mean=" + Math.round(mean) + ", p50=" + p50 + ", p90=" + p90 +
+                    ", p99=" + p99 + ", p999=" + p999 + ", max=" + max + '}';
+        }
+    }
+}
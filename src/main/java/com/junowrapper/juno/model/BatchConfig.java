@@ -0,0 +1,54 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Limits used by {@link com.junowrapper.juno.JunoDBManager#doBatch(Iterable)} to split large batches into sub-batches
+ * that are dispatched in parallel.
+ */
+public class BatchConfig {
+    private int maxRequestsPerBatch = 500;
+    // serialized key + value bytes
+    private long maxBytesPerBatch = 4 * 1024 * 1024;
+    private int maxConcurrentBatches = 4;
+
+    public BatchConfig() {
+    }
+
+    public BatchConfig(int maxRequestsPerBatch, long maxBytesPerBatch, int maxConcurrentBatches) {
+        this.maxRequestsPerBatch = maxRequestsPerBatch;
+        this.maxBytesPerBatch = maxBytesPerBatch;
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    public int getMaxRequestsPerBatch() {
+        return maxRequestsPerBatch;
+    }
+
+    public void setMaxRequestsPerBatch(int maxRequestsPerBatch) {
+        this.maxRequestsPerBatch = maxRequestsPerBatch;
+    }
+
+    public long getMaxBytesPerBatch() {
+        return maxBytesPerBatch;
+    }
+
+    public void setMaxBytesPerBatch(long maxBytesPerBatch) {
+        this.maxBytesPerBatch = maxBytesPerBatch;
+    }
+
+    public int getMaxConcurrentBatches() {
+        return maxConcurrentBatches;
+    }
+
+    public void setMaxConcurrentBatches(int maxConcurrentBatches) {
+        this.maxConcurrentBatches = maxConcurrentBatches;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchConfig{" +
+                "maxRequestsPerBatch=" + maxRequestsPerBatch +
+                ", maxBytesPerBatch=" + maxBytesPerBatch +
+                ", maxConcurrentBatches=" + maxConcurrentBatches +
+                '}';
+    }
+}
@@ -0,0 +1,110 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Circuit breaker for {@link com.junowrapper.juno.JunoDBManager}. The outcome of the last {@code windowSize} Juno calls
+ * is kept; once at least {@code minimumCalls} are in the window and either the failure rate or the slow-call rate
+ * reaches its threshold, the breaker opens and calls fail fast for {@code openDurationMSec}. After that
+ * {@code halfOpenProbes} calls go through as probes: the breaker closes when they stay under both thresholds and opens
+ * again otherwise. Probes still unanswered after {@code halfOpenTimeoutMSec} are written off and new ones are sent.
+ * <p>
+ * A call fails when the client throws or answers with a transport or server status (timeouts, connection and internal
+ * errors, overflow); business outcomes such as NoKey or ConditionViolation are successes. Rates are percentages, a
+ * threshold above 100 disables that rule.
+ */
+public class CircuitBreakerConfig {
+    private double failureRateThreshold = 50;
+    private double slowCallRateThreshold = 50;
+    private long slowCallDurationMSec = 1000;
+    private int windowSize = 100;
+    private int minimumCalls = 20;
+    private long openDurationMSec = 5000;
+    private int halfOpenProbes = 5;
+    private long halfOpenTimeoutMSec = 30000;
+
+    public CircuitBreakerConfig() {
+    }
+
+    public CircuitBreakerConfig(double failureRateThreshold, long slowCallDurationMSec, long openDurationMSec) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallDurationMSec = slowCallDurationMSec;
+        this.openDurationMSec = openDurationMSec;
+    }
+
+    public double getFailureRateThreshold() {
+        return failureRateThreshold;
+    }
+
+    public void setFailureRateThreshold(double failureRateThreshold) {
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    public double getSlowCallRateThreshold() {
+        return slowCallRateThreshold;
+    }
+
+    public void setSlowCallRateThreshold(double slowCallRateThreshold) {
+        this.slowCallRateThreshold = slowCallRateThreshold;
+    }
+
+    public long getSlowCallDurationMSec() {
+        return slowCallDurationMSec;
+    }
+
+    public void setSlowCallDurationMSec(long slowCallDurationMSec) {
+        this.slowCallDurationMSec = slowCallDurationMSec;
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    public void setWindowSize(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    public int getMinimumCalls() {
+        return minimumCalls;
+    }
+
+    public void setMinimumCalls(int minimumCalls) {
+        this.minimumCalls = minimumCalls;
+    }
+
+    public long getOpenDurationMSec() {
+        return openDurationMSec;
+    }
+
+    public void setOpenDurationMSec(long openDurationMSec) {
+        this.openDurationMSec = openDurationMSec;
+    }
+
+    public int getHalfOpenProbes() {
+        return halfOpenProbes;
+    }
+
+    public void setHalfOpenProbes(int halfOpenProbes) {
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    public long getHalfOpenTimeoutMSec() {
+        return halfOpenTimeoutMSec;
+    }
+
+    public void setHalfOpenTimeoutMSec(long halfOpenTimeoutMSec) {
+        this.halfOpenTimeoutMSec = halfOpenTimeoutMSec;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerConfig{" +
+                "failureRateThreshold=" + failureRateThreshold +
+                ", slowCallRateThreshold=" + slowCallRateThreshold +
+                ", slowCallDurationMSec=" + slowCallDurationMSec +
+                ", windowSize=" + windowSize +
+                ", minimumCalls=" + minimumCalls +
+                ", openDurationMSec=" + openDurationMSec +
+                ", halfOpenProbes=" + halfOpenProbes +
+                ", halfOpenTimeoutMSec=" + halfOpenTimeoutMSec +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Hedged reads for {@link com.junowrapper.juno.JunoDBManager}: a get still unanswered after the hedge delay is sent a
+ * second time and the first Success or NoKey answer wins.
+ * <p>
+ * The delay is {@code delayMSec}, or, when {@code percentile} is set, that percentile of recently observed get
+ * latencies (never below {@code minDelayMSec}). Hedges are paid from a budget refilled by {@code budgetRatio} per get,
+ * holding at most {@code maxBurst} hedges, so extra load stays around {@code budgetRatio} of reads even when the
+ * cluster is slow across the board.
+ */
+public class HedgeConfig {
+    private long delayMSec = 50;
+    // 0 disables percentile based delays, e.g. 95 hedges the slowest ~5% of reads
+    private double percentile = 0;
+    private long minDelayMSec = 1;
+    private double budgetRatio = 0.05;
+    private int maxBurst = 10;
+
+    public HedgeConfig() {
+    }
+
+    public HedgeConfig(long delayMSec, double percentile, double budgetRatio) {
+        this.delayMSec = delayMSec;
+        this.percentile = percentile;
+        this.budgetRatio = budgetRatio;
+    }
+
+    public long getDelayMSec() {
+        return delayMSec;
+    }
+
+    public void setDelayMSec(long delayMSec) {
+        this.delayMSec = delayMSec;
+    }
+
+    public double getPercentile() {
+        return percentile;
+    }
+
+    public void setPercentile(double percentile) {
+        this.percentile = percentile;
+    }
+
+    public long getMinDelayMSec() {
+        return minDelayMSec;
+    }
+
+    public void setMinDelayMSec(long minDelayMSec) {
+        this.minDelayMSec = minDelayMSec;
+    }
+
+    public double getBudgetRatio() {
+        return budgetRatio;
+    }
+
+    public void setBudgetRatio(double budgetRatio) {
+        this.budgetRatio = budgetRatio;
+    }
+
+    public int getMaxBurst() {
+        return maxBurst;
+    }
+
+    public void setMaxBurst(int maxBurst) {
+        this.maxBurst = maxBurst;
+    }
+
+    @Override
+    public String toString() {
+        return "HedgeConfig{" +
+                "delayMSec=" + delayMSec +
+                ", percentile=" + percentile +
+                ", minDelayMSec=" + minDelayMSec +
+                ", budgetRatio=" + budgetRatio +
+                ", maxBurst=" + maxBurst +
+                '}';
+    }
+}
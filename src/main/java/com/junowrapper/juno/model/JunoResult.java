@@ -0,0 +1,61 @@
+package com.junowrapper.juno.model;
+
+import com.paypal.juno.client.io.OperationStatus;
+
+/**
+ * Outcome of a single key within a streamed batch: either a decoded value, a miss or a per-key failure.
+ */
+public final class JunoResult<K, V> {
+    private final K key;
+    private final V value;
+    private final OperationStatus status;
+    private final Throwable error;
+
+    private JunoResult(K key, V value, OperationStatus status, Throwable error) {
+        this.key = key;
+        this.value = value;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static <K, V> JunoResult<K, V> of(K key, V value, OperationStatus status) {
+        return new JunoResult<>(key, value, status, null);
+    }
+
+    public static <K, V> JunoResult<K, V> failure(K key, OperationStatus status, Throwable error) {
+        return new JunoResult<>(key, null, status, error);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * @return decoded value, null unless {@link #isSuccess()}
+     */
+    public V getValue() {
+        return value;
+    }
+
+    public OperationStatus getStatus() {
+        return status;
+    }
+
+    public Throwable getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return status == OperationStatus.Success && error == null && value != null;
+    }
+
+    @Override
+    public String toString() {
+        return "JunoResult{" +
+                "key=" + key +
+                ", value=" + value +
+                ", status=" + status +
+                ", error=" + error +
+                '}';
+    }
+}
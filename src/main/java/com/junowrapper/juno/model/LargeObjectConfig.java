@@ -0,0 +1,57 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Chunking used by the large-object methods of {@link com.junowrapper.juno.JunoDBManager}
+ * ({@code createLarge}, {@code getLargeStream}, ...). A value is split into records of at most
+ * {@code chunkSizeInBytes}; writes and read-ahead are done a bounded number of chunks at a time so heap use stays
+ * proportional to the window, not the value.
+ */
+public class LargeObjectConfig {
+    private int chunkSizeInBytes = 512 * 1024;
+    // chunks buffered and sent per write batch
+    private int writeWindowChunks = 16;
+    // chunks fetched per read batch
+    private int readAheadChunks = 4;
+
+    public LargeObjectConfig() {
+    }
+
+    public LargeObjectConfig(int chunkSizeInBytes, int writeWindowChunks, int readAheadChunks) {
+        this.chunkSizeInBytes = chunkSizeInBytes;
+        this.writeWindowChunks = writeWindowChunks;
+        this.readAheadChunks = readAheadChunks;
+    }
+
+    public int getChunkSizeInBytes() {
+        return chunkSizeInBytes;
+    }
+
+    public void setChunkSizeInBytes(int chunkSizeInBytes) {
+        this.chunkSizeInBytes = chunkSizeInBytes;
+    }
+
+    public int getWriteWindowChunks() {
+        return writeWindowChunks;
+    }
+
+    public void setWriteWindowChunks(int writeWindowChunks) {
+        this.writeWindowChunks = writeWindowChunks;
+    }
+
+    public int getReadAheadChunks() {
+        return readAheadChunks;
+    }
+
+    public void setReadAheadChunks(int readAheadChunks) {
+        this.readAheadChunks = readAheadChunks;
+    }
+
+    @Override
+    public String toString() {
+        return "LargeObjectConfig{" +
+                "chunkSizeInBytes=" + chunkSizeInBytes +
+                ", writeWindowChunks=" + writeWindowChunks +
+                ", readAheadChunks=" + readAheadChunks +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.junowrapper.juno.model;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Window used to collect single-key operations from concurrent callers into one batch: a batch is sent once it holds
+ * {@code maxBatchSize} operations or {@code maxDelayMicros} after its first operation arrived, whichever comes first.
+ */
+public class MicroBatchConfig {
+    private int maxBatchSize = 64;
+    private long maxDelayMicros = TimeUnit.MILLISECONDS.toMicros(1);
+    // callers block once this many operations are waiting to be batched
+    private int maxQueuedOperations = 10_000;
+
+    public MicroBatchConfig() {
+    }
+
+    public MicroBatchConfig(int maxBatchSize, long maxDelayMicros) {
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayMicros = maxDelayMicros;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public long getMaxDelayMicros() {
+        return maxDelayMicros;
+    }
+
+    public void setMaxDelayMicros(long maxDelayMicros) {
+        this.maxDelayMicros = maxDelayMicros;
+    }
+
+    public int getMaxQueuedOperations() {
+        return maxQueuedOperations;
+    }
+
+    public void setMaxQueuedOperations(int maxQueuedOperations) {
+        this.maxQueuedOperations = maxQueuedOperations;
+    }
+
+    @Override
+    public String toString() {
+        return "MicroBatchConfig{" +
+                "maxBatchSize=" + maxBatchSize +
+                ", maxDelayMicros=" + maxDelayMicros +
+                ", maxQueuedOperations=" + maxQueuedOperations +
+                '}';
+    }
+}
@@ -0,0 +1,79 @@
+package com.junowrapper.juno.model;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Bounded retry with exponential backoff and full jitter, used by optimistic (version-checked) updates when another
+ * writer got in first.
+ */
+public class RetryConfig {
+    private int maxAttempts = 10;
+    private long baseDelayMSec = 1;
+    private long maxDelayMSec = 100;
+
+    public RetryConfig() {
+    }
+
+    public RetryConfig(int maxAttempts, long baseDelayMSec, long maxDelayMSec) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMSec = baseDelayMSec;
+        this.maxDelayMSec = maxDelayMSec;
+    }
+
+    /**
+     * @param attempt - Attempt that just failed, starting at 1
+     * @return random delay in [0, min(maxDelay, baseDelay * 2^(attempt - 1))]
+     */
+    public long backoffMSec(int attempt) {
+        long ceiling = Math.min(maxDelayMSec, baseDelayMSec << Math.min(attempt - 1, 30));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Sleep for {@link #backoffMSec(int)}.
+     *
+     * @return false if interrupted, callers should stop retrying
+     */
+    public boolean backoff(int attempt) {
+        try {
+            Thread.sleep(backoffMSec(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getBaseDelayMSec() {
+        return baseDelayMSec;
+    }
+
+    public void setBaseDelayMSec(long baseDelayMSec) {
+        this.baseDelayMSec = baseDelayMSec;
+    }
+
+    public long getMaxDelayMSec() {
+        return maxDelayMSec;
+    }
+
+    public void setMaxDelayMSec(long maxDelayMSec) {
+        this.maxDelayMSec = maxDelayMSec;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryConfig{" +
+                "maxAttempts=" + maxAttempts +
+                ", baseDelayMSec=" + baseDelayMSec +
+                ", maxDelayMSec=" + maxDelayMSec +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.junowrapper.juno.model;
+
+/**
+ * One Juno cluster behind a {@link com.junowrapper.juno.ShardedJunoDBManager}. The name places the shard on the hash
+ * ring, keep it stable: renaming a shard moves its keys. The weight scales the shard's share of keys relative to the
+ * others.
+ */
+public class ShardConfig {
+    private final String name;
+    private final JunoDBConfig junoDBConfig;
+    private final int weight;
+
+    public ShardConfig(JunoDBConfig junoDBConfig) {
+        this(junoDBConfig, 1);
+    }
+
+    public ShardConfig(JunoDBConfig junoDBConfig, int weight) {
+        this(junoDBConfig.getServerHost() + ":" + junoDBConfig.getServerPort(), junoDBConfig, weight);
+    }
+
+    public ShardConfig(String name, JunoDBConfig junoDBConfig, int weight) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("weight must be >= 1");
+        }
+        this.name = name;
+        this.junoDBConfig = junoDBConfig;
+        this.weight = weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public JunoDBConfig getJunoDBConfig() {
+        return junoDBConfig;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "ShardConfig{" +
+                "name='" + name + '\'' +
+                ", weight=" + weight +
+                '}';
+    }
+}
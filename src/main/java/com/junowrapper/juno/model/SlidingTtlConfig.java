@@ -0,0 +1,45 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Sliding TTL for reads of {@link com.junowrapper.juno.JunoDBManager}: a read asking for a new TTL only sends it when
+ * the record's remaining lifetime, as last seen by this manager, is below {@code refreshFraction} of that TTL, and is a
+ * plain read otherwise. Remaining lifetimes are tracked for at most {@code maximumSize} keys; an untracked key is read
+ * with its TTL, as without sliding TTL.
+ */
+public class SlidingTtlConfig {
+    // e.g. 0.5 extends a 3 day TTL once less than 1.5 days are left
+    private double refreshFraction = 0.5;
+    private long maximumSize = 100_000;
+
+    public SlidingTtlConfig() {
+    }
+
+    public SlidingTtlConfig(double refreshFraction, long maximumSize) {
+        this.refreshFraction = refreshFraction;
+        this.maximumSize = maximumSize;
+    }
+
+    public double getRefreshFraction() {
+        return refreshFraction;
+    }
+
+    public void setRefreshFraction(double refreshFraction) {
+        this.refreshFraction = refreshFraction;
+    }
+
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    public void setMaximumSize(long maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    @Override
+    public String toString() {
+        return "SlidingTtlConfig{" +
+                "refreshFraction=" + refreshFraction +
+                ", maximumSize=" + maximumSize +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.junowrapper.juno.model;
+
+/**
+ * Settings of the write-behind mode of {@link com.junowrapper.juno.collection.JunoMap}.
+ */
+public class WriteBehindConfig {
+    // flush once this many keys have pending writes
+    private int flushSize = 500;
+    private long flushIntervalMSec = 100;
+    // writes of new keys wait for a flush once this many keys are pending
+    private int maxPendingWrites = 10_000;
+    // how long such a write waits for room before it is rejected
+    private long maxBlockMSec = 1000;
+    // flushes a transiently failing write is retried on before it is dropped
+    private int maxRetries = 10;
+    private boolean flushOnShutdown = true;
+
+    public WriteBehindConfig() {
+    }
+
+    public WriteBehindConfig(int flushSize, long flushIntervalMSec, int maxPendingWrites) {
+        this.flushSize = flushSize;
+        this.flushIntervalMSec = flushIntervalMSec;
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    public int getFlushSize() {
+        return flushSize;
+    }
+
+    public void setFlushSize(int flushSize) {
+        this.flushSize = flushSize;
+    }
+
+    public long getFlushIntervalMSec() {
+        return flushIntervalMSec;
+    }
+
+    public void setFlushIntervalMSec(long flushIntervalMSec) {
+        this.flushIntervalMSec = flushIntervalMSec;
+    }
+
+    public int getMaxPendingWrites() {
+        return maxPendingWrites;
+    }
+
+    public void setMaxPendingWrites(int maxPendingWrites) {
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    public long getMaxBlockMSec() {
+        return maxBlockMSec;
+    }
+
+    public void setMaxBlockMSec(long maxBlockMSec) {
+        this.maxBlockMSec = maxBlockMSec;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public boolean isFlushOnShutdown() {
+        return flushOnShutdown;
+    }
+
+    public void setFlushOnShutdown(boolean flushOnShutdown) {
+        this.flushOnShutdown = flushOnShutdown;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindConfig{" +
+                "flushSize=" + flushSize +
+                ", flushIntervalMSec=" + flushIntervalMSec +
+                ", maxPendingWrites=" + maxPendingWrites +
+                ", maxBlockMSec=" + maxBlockMSec +
+                ", maxRetries=" + maxRetries +
+                ", flushOnShutdown=" + flushOnShutdown +
+                '}';
+    }
+}
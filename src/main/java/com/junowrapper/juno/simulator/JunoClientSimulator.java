@@ -0,0 +1,274 @@
+package com.junowrapper.juno.simulator;
+
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.paypal.juno.client.JunoClient;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import com.paypal.juno.client.io.RecordContext;
+import com.paypal.juno.conf.JunoPropertiesProvider;
+import com.paypal.juno.exception.JunoException;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * In-process {@link JunoClient} for load tests and profiling without a Juno proxy.
+ * <p>
+ * Records live in memory and follow Juno semantics: TTLs (default and max lifetime from {@link JunoDBConfig}),
+ * versions incremented on every write, conditional updates, {@code max_key_size}/{@code max_value_size} limits and
+ * {@code doBatch}. Latency, timeouts and errors can be injected per call. Single operations surface failures as
+ * {@link JunoException}, batches report them per request through {@link OperationStatus}, like the real client.
+ */
+public class JunoClientSimulator implements JunoClient {
+
+    private final JunoDBConfig junoDBConfig;
+    private final ConcurrentHashMap<ByteBuffer, Record> records = new ConcurrentHashMap<>();
+
+    private volatile LatencyDistribution latency = LatencyDistribution.none();
+    private volatile double errorRate = 0;
+    private volatile OperationStatus errorStatus = OperationStatus.InternalError;
+    private volatile double timeoutRate = 0;
+
+    public JunoClientSimulator(JunoDBConfig junoDBConfig) {
+        this.junoDBConfig = junoDBConfig;
+    }
+
+    /**
+     * Latency applied to every single operation and once per batch. A sampled latency above the configured
+     * {@code responseTimeoutMSec} results in a timeout.
+     */
+    public JunoClientSimulator withLatency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * @param errorRate   - Probability [0, 1] of an operation failing, drawn per request within a batch
+     * @param errorStatus - Status reported for injected failures
+     */
+    public JunoClientSimulator withErrors(double errorRate, OperationStatus errorStatus) {
+        this.errorRate = errorRate;
+        this.errorStatus = errorStatus;
+        return this;
+    }
+
+    /**
+     * @param timeoutRate - Probability [0, 1] of an operation waiting out {@code responseTimeoutMSec} and timing out
+     */
+    public JunoClientSimulator withTimeouts(double timeoutRate) {
+        this.timeoutRate = timeoutRate;
+        return this;
+    }
+
+    public int recordCount() {
+        return records.size();
+    }
+
+    public void clear() {
+        records.clear();
+    }
+
+    @Override
+    public JunoResponse create(byte[] key, byte[] value) {
+        return create(key, value, 0);
+    }
+
+    @Override
+    public JunoResponse create(byte[] key, byte[] value, long timeToLiveSec) {
+        return execute(JunoRequest.OperationType.Create, key, value, 0, timeToLiveSec);
+    }
+
+    @Override
+    public JunoResponse get(byte[] key) {
+        return get(key, 0);
+    }
+
+    @Override
+    public JunoResponse get(byte[] key, long timeToLiveSec) {
+        return execute(JunoRequest.OperationType.Get, key, null, 0, timeToLiveSec);
+    }
+
+    @Override
+    public JunoResponse update(byte[] key, byte[] value) {
+        return update(key, value, 0);
+    }
+
+    @Override
+    public JunoResponse update(byte[] key, byte[] value, long timeToLiveSec) {
+        return execute(JunoRequest.OperationType.Update, key, value, 0, timeToLiveSec);
+    }
+
+    @Override
+    public JunoResponse set(byte[] key, byte[] value) {
+        return set(key, value, 0);
+    }
+
+    @Override
+    public JunoResponse set(byte[] key, byte[] value, long timeToLiveSec) {
+        return execute(JunoRequest.OperationType.Set, key, value, 0, timeToLiveSec);
+    }
+
+    @Override
+    public JunoResponse delete(byte[] key) {
+        return execute(JunoRequest.OperationType.Destroy, key, null, 0, 0);
+    }
+
+    @Override
+    public JunoResponse compareAndSet(RecordContext jcx, byte[] value, long timeToLiveSec) {
+        return execute(JunoRequest.OperationType.Update, jcx.getKey(), value, jcx.getVersion(), timeToLiveSec);
+    }
+
+    @Override
+    public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+        boolean timeout = awaitLatency();
+        List<JunoResponse> responses = new ArrayList<>();
+        for (JunoRequest request : requests) {
+            if (timeout) {
+                responses.add(response(request.key(), OperationStatus.ResponseTimeout));
+            } else if (nextError()) {
+                responses.add(response(request.key(), errorStatus));
+            } else {
+                Long ttl = request.getTimeToLiveSec();
+                responses.add(apply(request.getType(), request.key(), request.getValue(), request.getVersion(), ttl == null ? 0 : ttl));
+            }
+        }
+        return responses;
+    }
+
+    @Override
+    public JunoPropertiesProvider getProperties() {
+        return new JunoPropertiesProvider(junoDBConfig.getProperties());
+    }
+
+    private JunoResponse execute(JunoRequest.OperationType type, byte[] key, byte[] value, long version, long timeToLiveSec) {
+        if (awaitLatency()) {
+            throw new JunoException(OperationStatus.ResponseTimeout.getErrorText());
+        }
+        if (nextError()) {
+            throw new JunoException(errorStatus.getErrorText());
+        }
+        JunoResponse response = apply(type, key, value, version, timeToLiveSec);
+        if (response.getStatus() == OperationStatus.IllegalArgument) {
+            throw new JunoException(OperationStatus.IllegalArgument.getErrorText());
+        }
+        return response;
+    }
+
+    /**
+     * Sleeps for the sampled latency, capped at the response timeout.
+     *
+     * @return true if the call timed out
+     */
+    private boolean awaitLatency() {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(junoDBConfig.getResponseTimeoutMSec());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean timeout = timeoutRate > 0 && random.nextDouble() < timeoutRate;
+        long latencyNanos = timeout ? timeoutNanos : latency.nextNanos();
+        if (latencyNanos >= timeoutNanos) {
+            latencyNanos = timeoutNanos;
+            timeout = true;
+        }
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos);
+        }
+        return timeout;
+    }
+
+    private boolean nextError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private JunoResponse apply(JunoRequest.OperationType type, byte[] key, byte[] value, long version, long timeToLiveSec) {
+        if (key == null || key.length == 0 || key.length > junoDBConfig.getMaxKeySizeInBytes()
+                || value != null && value.length > junoDBConfig.getMaxValueSizeInBytes()
+                || timeToLiveSec < 0 || timeToLiveSec > junoDBConfig.getMaxRecordLifeTimeSec()) {
+            return response(key, OperationStatus.IllegalArgument);
+        }
+
+        ByteBuffer id = ByteBuffer.wrap(key.clone());
+        long now = System.currentTimeMillis();
+        JunoResponse[] result = new JunoResponse[1];
+
+        records.compute(id, (k, record) -> {
+            if (record != null && record.expiresAtMillis <= now) {
+                record = null;
+            }
+            switch (type) {
+                case Get:
+                    if (record == null) {
+                        result[0] = response(key, OperationStatus.NoKey);
+                        return null;
+                    }
+                    if (timeToLiveSec > 0) {
+                        record.expiresAtMillis = Math.max(record.expiresAtMillis, now + TimeUnit.SECONDS.toMillis(timeToLiveSec));
+                    }
+                    result[0] = record.toResponse(key, now, OperationStatus.Success);
+                    return record;
+                case Create:
+                    if (record != null) {
+                        result[0] = response(key, OperationStatus.UniqueKeyViolation);
+                        return record;
+                    }
+                    return write(new Record(now), key, value, timeToLiveSec, now, result);
+                case Update:
+                    if (record == null) {
+                        result[0] = response(key, OperationStatus.NoKey);
+                        return null;
+                    }
+                    if (version > 0 && version != record.version) {
+                        result[0] = response(key, OperationStatus.ConditionViolation);
+                        return record;
+                    }
+                    return write(record, key, value, timeToLiveSec, now, result);
+                case Set:
+                    return write(record == null ? new Record(now) : record, key, value, timeToLiveSec, now, result);
+                case Destroy:
+                    result[0] = response(key, OperationStatus.Success);
+                    return null;
+                default:
+                    result[0] = response(key, OperationStatus.BadParam);
+                    return record;
+            }
+        });
+        return result[0];
+    }
+
+    private Record write(Record record, byte[] key, byte[] value, long timeToLiveSec, long now, JunoResponse[] result) {
+        boolean isNew = record.version == 0;
+        long ttl = timeToLiveSec > 0 ? timeToLiveSec : (isNew ? junoDBConfig.getDefaultRecordLifeTimeSec() : 0);
+        if (ttl > 0) {
+            record.expiresAtMillis = isNew ? now + TimeUnit.SECONDS.toMillis(ttl)
+                    : Math.max(record.expiresAtMillis, now + TimeUnit.SECONDS.toMillis(ttl));
+        }
+        record.value = value == null ? new byte[0] : value.clone();
+        record.version++;
+        result[0] = record.toResponse(key, now, OperationStatus.Success);
+        return record;
+    }
+
+    private static JunoResponse response(byte[] key, OperationStatus status) {
+        return new JunoResponse(key, null, 0, 0, 0, status);
+    }
+
+    private static final class Record {
+        private final long creationTimeSec;
+        private byte[] value;
+        private long version;
+        private long expiresAtMillis;
+
+        private Record(long now) {
+            this.creationTimeSec = TimeUnit.MILLISECONDS.toSeconds(now);
+        }
+
+        private JunoResponse toResponse(byte[] key, long now, OperationStatus status) {
+            long ttl = TimeUnit.MILLISECONDS.toSeconds(Math.max(0, expiresAtMillis - now));
+            return new JunoResponse(key, value, version, ttl, creationTimeSec, status);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.junowrapper.juno.simulator;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of simulated round trip latencies for {@link JunoClientSimulator}.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = () -> 0L;
+
+    /**
+     * @return next simulated latency in nanoseconds
+     */
+    long nextNanos();
+
+    static LatencyDistribution none() {
+        return NONE;
+    }
+
+    static LatencyDistribution fixed(long latency, TimeUnit timeUnit) {
+        long nanos = timeUnit.toNanos(latency);
+        return () -> nanos;
+    }
+
+    static LatencyDistribution uniform(long min, long max, TimeUnit timeUnit) {
+        long minNanos = timeUnit.toNanos(min);
+        long maxNanos = timeUnit.toNanos(max);
+        return () -> minNanos + (long) (ThreadLocalRandom.current().nextDouble() * (maxNanos - minNanos));
+    }
+
+    static LatencyDistribution exponential(long mean, TimeUnit timeUnit) {
+        double meanNanos = timeUnit.toNanos(mean);
+        return () -> (long) (-meanNanos * Math.log(1 - ThreadLocalRandom.current().nextDouble()));
+    }
+
+    /**
+     * Log-normal distribution described by its median and 99th percentile, a reasonable shape for network latency
+     * with a long tail.
+     */
+    static LatencyDistribution logNormal(long median, long p99, TimeUnit timeUnit) {
+        double mu = Math.log(timeUnit.toNanos(median));
+        // 2.326 is the z-score of the 99th percentile
+        double sigma = (Math.log(timeUnit.toNanos(p99)) - mu) / 2.326;
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+}
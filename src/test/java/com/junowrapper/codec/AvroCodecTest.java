@@ -0,0 +1,117 @@
+package com.junowrapper.codec;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AvroCodecTest {
+
+    private final AvroCodec codec = new AvroCodec();
+
+    @Test
+    void roundTripsReflectedClasses() {
+        Person person = new Person("Ada", 36);
+
+        assertEquals(person, codec.deserialize(codec.serialize(person), Person.class));
+        assertEquals(person, new AvroCodec().deserialize(codec.serialize(person), Person.class));
+    }
+
+    @Test
+    void recordsStartWithTheSchemaFingerprint() {
+        byte[] bytes = codec.serialize(new Person("Ada", 36));
+
+        assertEquals((byte) 0xC3, bytes[0]);
+        assertEquals((byte) 0x01, bytes[1]);
+        assertEquals(SchemaNormalization.parsingFingerprint64(codec.getSchema(Person.class)), fingerprint(bytes));
+    }
+
+    @Test
+    void olderSchemasResolveOnceRegistered() throws IOException {
+        Schema current = codec.getSchema(Person.class);
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : current.getFields()) {
+            fields.add(new Schema.Field(field.name(), field.schema(), field.doc(), field.defaultVal()));
+        }
+        fields.add(new Schema.Field("nickname", Schema.create(Schema.Type.STRING), null, null));
+        Schema older = Schema.createRecord(current.getName(), null, current.getNamespace(), false, fields);
+
+        GenericRecord record = new GenericData.Record(older);
+        record.put("name", "Ada");
+        record.put("age", 36);
+        record.put("nickname", "Countess");
+        byte[] bytes = write(older, record);
+
+        assertNull(codec.deserialize(bytes, Person.class));
+        codec.registerSchema(older);
+        assertEquals(new Person("Ada", 36), codec.deserialize(bytes, Person.class));
+    }
+
+    @Test
+    void foreignBytesDoNotDecode() {
+        assertNull(codec.deserialize(new DefaultCodec().serialize("value"), Person.class));
+        assertNull(codec.deserialize(new byte[]{(byte) 0xC3, 0x01}, Person.class));
+    }
+
+    private static byte[] write(Schema schema, GenericRecord record) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xC3);
+        out.write(0x01);
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        for (int i = 0; i < Long.BYTES; i++) {
+            out.write((int) (fingerprint >>> (8 * i)));
+        }
+        BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+        new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+        encoder.flush();
+        return out.toByteArray();
+    }
+
+    private static long fingerprint(byte[] bytes) {
+        long fingerprint = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            fingerprint |= (bytes[2 + i] & 0xFFL) << (8 * i);
+        }
+        return fingerprint;
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+
+        public Person() {
+        }
+
+        public Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Person)) {
+                return false;
+            }
+            Person person = (Person) o;
+            return age == person.age && Objects.equals(name, person.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.junowrapper.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BaseCodecTest {
+
+    private static final List<String> VALUES = Arrays.asList("value", LZ4CodecTest.repeat("compressible ", 500));
+
+    private static List<BaseCodec> codecs() {
+        return Arrays.asList(
+                new DefaultCodec(),
+                new KryoCodec(),
+                new OMCodec(OMCodec.Format.JSON),
+                new OMCodec(OMCodec.Format.SMILE),
+                new OMCodec(OMCodec.Format.CBOR),
+                new AvroCodec(),
+                new LZ4Codec(new KryoCodec()),
+                new EnvelopeCodec(1, 1, new LZ4Codec(new DefaultCodec())));
+    }
+
+    @Test
+    void bufferSerializeWritesTheSameBytes() {
+        for (BaseCodec codec : codecs()) {
+            for (String value : VALUES) {
+                byte[] expected = codec.serialize(value);
+                ByteBuffer buffer = ByteBuffer.allocate(expected.length + 20);
+                buffer.position(7);
+
+                int written = codec.serialize(value, buffer);
+
+                String name = codec.getClass().getSimpleName();
+                assertEquals(expected.length, written, name);
+                assertEquals(7 + written, buffer.position(), name);
+                assertArrayEquals(expected, Arrays.copyOfRange(buffer.array(), 7, 7 + written));
+            }
+        }
+    }
+
+    @Test
+    void bufferSerializeOverflowLeavesThePositionAlone() {
+        for (BaseCodec codec : codecs()) {
+            for (String value : VALUES) {
+                ByteBuffer buffer = ByteBuffer.allocate(codec.serialize(value).length - 1);
+                buffer.position(1);
+
+                assertThrows(BufferOverflowException.class, () -> codec.serialize(value, buffer));
+                assertEquals(1, buffer.position(), codec.getClass().getSimpleName());
+            }
+            // the codec is still usable after an overflow
+            assertEquals("value", codec.deserialize(codec.serialize("value"), String.class));
+        }
+    }
+
+    @Test
+    void deserializeReadsARangeInPlace() {
+        for (BaseCodec codec : codecs()) {
+            for (String value : VALUES) {
+                byte[] bytes = codec.serialize(value);
+                byte[] padded = new byte[bytes.length + 13];
+                Arrays.fill(padded, (byte) 0x55);
+                System.arraycopy(bytes, 0, padded, 5, bytes.length);
+
+                assertEquals(value, codec.deserialize(padded, 5, bytes.length, String.class), codec.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Test
+    void deserializeReadsTheRemainingBufferBytes() {
+        for (BaseCodec codec : codecs()) {
+            for (String value : VALUES) {
+                byte[] bytes = codec.serialize(value);
+                ByteBuffer heap = ByteBuffer.allocate(bytes.length + 3);
+                heap.position(3);
+                heap.put(bytes).flip().position(3);
+                ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+                direct.put(bytes).flip();
+
+                String name = codec.getClass().getSimpleName();
+                assertEquals(value, codec.deserialize(heap.slice(), String.class), name);
+                assertEquals(value, codec.deserialize(heap, String.class), name);
+                assertEquals(heap.limit(), heap.position(), name);
+                assertEquals(value, codec.deserialize(direct, String.class), name);
+                assertEquals(0, direct.remaining(), name);
+            }
+        }
+    }
+}
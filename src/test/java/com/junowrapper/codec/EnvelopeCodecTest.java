@@ -0,0 +1,98 @@
+package com.junowrapper.codec;
+
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnvelopeCodecTest {
+
+    private final DefaultCodec legacy = new DefaultCodec();
+
+    @Test
+    void recordsCarryTheWriterHeader() {
+        EnvelopeCodec codec = new EnvelopeCodec(3, 7, new KryoCodec());
+
+        byte[] bytes = codec.serialize("value");
+
+        assertEquals((byte) 0x4A, bytes[0]);
+        assertEquals((byte) 0xDB, bytes[1]);
+        assertEquals(3, bytes[2]);
+        assertEquals(7, bytes[3]);
+        assertTrue(codec.isCurrent(bytes));
+        assertEquals("value", codec.deserialize(bytes, String.class));
+    }
+
+    @Test
+    void recordsWithoutEnvelopeUseTheLegacyCodec() {
+        byte[] old = legacy.serialize("value");
+
+        assertNull(new EnvelopeCodec(1, 1, new KryoCodec()).deserialize(old, String.class));
+
+        EnvelopeCodec codec = new EnvelopeCodec(1, 1, new KryoCodec()).setLegacyCodec(legacy);
+        assertEquals("value", codec.deserialize(old, String.class));
+        assertFalse(codec.isCurrent(old));
+    }
+
+    @Test
+    void eachRecordIsReadByTheCodecThatWroteIt() {
+        EnvelopeCodec before = new EnvelopeCodec(1, 1, legacy);
+        EnvelopeCodec after = new EnvelopeCodec(2, 1, new KryoCodec()).register(1, 1, legacy);
+        byte[] old = before.serialize("old");
+        byte[] current = after.serialize("new");
+
+        assertEquals("old", after.deserialize(old, String.class));
+        assertEquals("new", after.deserialize(current, String.class));
+        assertFalse(after.isCurrent(old));
+        assertTrue(after.isCurrent(current));
+        // nobody registered 2/1 on the old side
+        assertNull(before.deserialize(current, String.class));
+    }
+
+    @Test
+    void idsAndVersionsAreChecked() {
+        EnvelopeCodec codec = new EnvelopeCodec(1, 1, legacy);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.register(1, 1, new KryoCodec()));
+        assertThrows(IllegalArgumentException.class, () -> codec.register(256, 1, new KryoCodec()));
+        assertThrows(IllegalArgumentException.class, () -> new EnvelopeCodec(1, -1, legacy));
+        codec.register(1, 1, legacy);
+    }
+
+    @Test
+    void keysAreNotEnveloped() {
+        EnvelopeCodec codec = new EnvelopeCodec(1, 1, new KryoCodec()).setLegacyCodec(legacy);
+
+        assertArrayEquals(legacy.serialize("key"), codec.serializeKey("key"));
+        assertArrayEquals(new KryoCodec().serialize("key"), new EnvelopeCodec(1, 1, new KryoCodec()).serializeKey("key"));
+    }
+
+    @Test
+    void legacyRecordsAreReencodedOnRead() throws InterruptedException {
+        EnvelopeCodec codec = new EnvelopeCodec(1, 1, new KryoCodec()).setLegacyCodec(legacy);
+        JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+        JunoDBManager junoDBManager = new JunoDBManager(simulator, codec);
+        byte[] keyBytes = junoDBManager.serializeKey("key");
+        simulator.create(keyBytes, legacy.serialize("value"), 60);
+        junoDBManager.setReencodeOnRead(true);
+
+        assertEquals(Optional.of("value"), junoDBManager.get("key", String.class));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!codec.isCurrent(simulator.get(keyBytes).getValue()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(codec.isCurrent(simulator.get(keyBytes).getValue()));
+        assertEquals(Optional.of("value"), junoDBManager.get("key", String.class));
+    }
+}
@@ -0,0 +1,102 @@
+package com.junowrapper.codec;
+
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.collection.JunoMap;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeyCodecTest {
+
+    private final CompactKeyCodec compact = new CompactKeyCodec();
+
+    @Test
+    void stringsAreTaggedUtf8() {
+        assertArrayEquals(new byte[]{0x01, 'k', 'e', 'y'}, compact.encode("key"));
+        byte[] utf8 = "cl\u00e9".getBytes(StandardCharsets.UTF_8);
+        byte[] encoded = compact.encode("cl\u00e9");
+        assertEquals(1 + utf8.length, encoded.length);
+        assertEquals(0x01, encoded[0]);
+    }
+
+    @Test
+    void numbersAreZigzagVarints() {
+        assertArrayEquals(new byte[]{0x02, 0x00}, compact.encode(0L));
+        assertArrayEquals(new byte[]{0x02, 0x01}, compact.encode(-1L));
+        assertArrayEquals(new byte[]{0x02, 0x02}, compact.encode(1L));
+        assertArrayEquals(new byte[]{0x02, (byte) 0xAC, 0x02}, compact.encode(150L));
+        assertEquals(11, compact.encode(Long.MIN_VALUE).length);
+        // same value, different type, different key
+        assertArrayEquals(new byte[]{0x03, 0x02}, compact.encode(1));
+    }
+
+    @Test
+    void uuidsAreSixteenRawBytes() {
+        UUID uuid = new UUID(0x0102030405060708L, 0x090A0B0C0D0E0F10L);
+
+        byte[] encoded = compact.encode(uuid);
+
+        assertEquals(17, encoded.length);
+        assertEquals(0x04, encoded[0]);
+        for (int i = 1; i <= 16; i++) {
+            assertEquals(i, encoded[i]);
+        }
+    }
+
+    @Test
+    void otherTypesUseTheFallbackCodec() {
+        DefaultCodec fallback = new DefaultCodec();
+        byte[] encoded = new CompactKeyCodec(null, fallback).encode(3.5d);
+
+        assertEquals(0x7F, encoded[0]);
+        assertEquals(3.5d, fallback.deserialize(Arrays.copyOfRange(encoded, 1, encoded.length), Double.class));
+        assertThrows(IllegalArgumentException.class, () -> compact.encode(null));
+    }
+
+    @Test
+    void prefixAndNamespaceComeFirst() {
+        CompactKeyCodec prefixed = new CompactKeyCodec(new byte[]{9, 9});
+
+        assertArrayEquals(new byte[]{9, 9, 0x01, 'k'}, prefixed.encode("k"));
+        assertArrayEquals(new byte[]{9, 9, 0x10, 2, 'n', 's', 0x01, 'k'}, prefixed.encode("ns", "k"));
+        // a namespaced key never equals a plain one spelling the same text
+        assertFalse(Arrays.equals(compact.encode("ns:k"), compact.encode("ns", "k")));
+    }
+
+    @Test
+    void defaultKeyCodecKeepsTheValueCodecBytes() {
+        DefaultCodec codec = new DefaultCodec();
+
+        assertArrayEquals(codec.serialize("key"), KeyCodec.of(codec).encode("key"));
+        assertArrayEquals(codec.serialize("ns:key"), KeyCodec.of(codec).encode("ns", "key"));
+        EnvelopeCodec envelope = new EnvelopeCodec(1, 1, new KryoCodec()).setLegacyCodec(codec);
+        assertArrayEquals(codec.serialize("key"), KeyCodec.of(envelope).encode("key"));
+    }
+
+    @Test
+    void managerSendsKeysThroughTheKeyCodec() {
+        JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+        JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+        junoDBManager.setKeyCodec(compact);
+
+        junoDBManager.create("key", "value");
+        JunoMap<String, String> map = new JunoMap<>("map", junoDBManager);
+        map.put("entry", "value");
+
+        assertTrue(simulator.get(compact.encode("key")).getValue().length > 0);
+        assertTrue(simulator.get(compact.encode("map", "entry")).getValue().length > 0);
+        assertEquals(Optional.of("value"), junoDBManager.get(new EncodedKey(compact.encode("key")), String.class));
+        assertEquals("value", map.get("entry"));
+    }
+}
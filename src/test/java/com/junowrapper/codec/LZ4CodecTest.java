@@ -0,0 +1,110 @@
+package com.junowrapper.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LZ4CodecTest {
+
+    private final DefaultCodec delegate = new DefaultCodec();
+    private final LZ4Codec codec = new LZ4Codec(delegate);
+
+    @Test
+    void smallValuesAreStoredRaw() {
+        byte[] bytes = codec.serialize("small");
+
+        assertEquals(0, bytes[0]);
+        assertEquals(delegate.serialize("small").length + 1, bytes.length);
+        assertEquals("small", codec.deserialize(bytes, String.class));
+    }
+
+    @Test
+    void largeCompressibleValuesAreCompressed() {
+        String value = repeat("compressible ", 1000);
+
+        byte[] bytes = codec.serialize(value);
+
+        assertEquals(1, bytes[0]);
+        assertTrue(bytes.length < delegate.serialize(value).length / 10, bytes.length + " bytes");
+        assertEquals(value, codec.deserialize(bytes, String.class));
+    }
+
+    @Test
+    void incompressibleValuesAreStoredRaw() {
+        byte[] random = new byte[8192];
+        new Random(42).nextBytes(random);
+
+        byte[] bytes = codec.serialize(random);
+
+        assertEquals(0, bytes[0]);
+        assertArrayEquals(random, codec.deserialize(bytes, byte[].class));
+    }
+
+    @Test
+    void thresholdAndModeAreHonoured() {
+        LZ4Codec high = new LZ4Codec(delegate, 0, LZ4Codec.Mode.HIGH);
+        String value = repeat("ab", 100);
+
+        byte[] bytes = high.serialize(value);
+
+        assertEquals(1, bytes[0]);
+        assertEquals(value, high.deserialize(bytes, String.class));
+        assertEquals(0, new LZ4Codec(delegate, 1 << 20, LZ4Codec.Mode.FAST).serialize(repeat("ab", 10_000))[0]);
+    }
+
+    @Test
+    void unreadableRecordsDecodeToNull() {
+        assertNull(codec.deserialize(new byte[]{7, 1, 2, 3}, String.class));
+        assertNull(codec.deserialize(new byte[0], String.class));
+        assertNull(codec.deserialize((byte[]) null, String.class));
+
+        byte[] bytes = codec.serialize(repeat("compressible ", 1000));
+        bytes[bytes.length / 2] ^= 0x5A;
+        bytes[bytes.length / 2 + 1] ^= 0x5A;
+        Object decoded = codec.deserialize(bytes, String.class);
+        assertTrue(decoded == null || !decoded.equals(repeat("compressible ", 1000)));
+    }
+
+    @Test
+    void lengthNotMatchingTheBlockIsRejected() {
+        byte[] bytes = codec.serialize(repeat("compressible ", 1000));
+        int length = (bytes[1] & 0xFF) << 24 | (bytes[2] & 0xFF) << 16 | (bytes[3] & 0xFF) << 8 | (bytes[4] & 0xFF);
+
+        writeLength(bytes, length + 10);
+        assertNull(codec.deserialize(bytes, String.class));
+
+        writeLength(bytes, Integer.MAX_VALUE);
+        assertNull(codec.deserialize(bytes, String.class));
+
+        writeLength(bytes, -1);
+        assertNull(codec.deserialize(bytes, String.class));
+    }
+
+    @Test
+    void recordsAboveTheDecompressedLimitAreRejected() {
+        LZ4Codec limited = new LZ4Codec(delegate, LZ4Codec.DEFAULT_THRESHOLD, LZ4Codec.Mode.FAST, 1024);
+
+        assertNull(limited.deserialize(codec.serialize(repeat("compressible ", 1000)), String.class));
+        assertEquals("small", limited.deserialize(codec.serialize("small"), String.class));
+    }
+
+    private static void writeLength(byte[] bytes, int length) {
+        bytes[1] = (byte) (length >>> 24);
+        bytes[2] = (byte) (length >>> 16);
+        bytes[3] = (byte) (length >>> 8);
+        bytes[4] = (byte) length;
+    }
+
+    static String repeat(String s, int times) {
+        StringBuilder sb = new StringBuilder(s.length() * times);
+        for (int i = 0; i < times; i++) {
+            sb.append(s);
+        }
+        return sb.toString();
+    }
+}
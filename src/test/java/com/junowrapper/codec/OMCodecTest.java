@@ -0,0 +1,107 @@
+package com.junowrapper.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OMCodecTest {
+
+    private static final Person PERSON = new Person("Ada", 36, Arrays.asList("math", "engines"));
+
+    @Test
+    void everyFormatRoundTripsToTheRequestedType() {
+        for (OMCodec.Format format : OMCodec.Format.values()) {
+            OMCodec codec = new OMCodec(format);
+
+            Person decoded = codec.deserialize(codec.serialize(PERSON), Person.class);
+
+            assertEquals(PERSON, decoded, format.name());
+        }
+    }
+
+    @Test
+    void jsonIsText() {
+        String json = new String(new OMCodec().serialize(PERSON), StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("{") && json.contains("\"name\":\"Ada\""), json);
+    }
+
+    @Test
+    void binaryFormatsAreSmallerAndSelfIdentifying() {
+        byte[] json = new OMCodec(OMCodec.Format.JSON).serialize(PERSON);
+        byte[] smile = new OMCodec(OMCodec.Format.SMILE).serialize(PERSON);
+        byte[] cbor = new OMCodec(OMCodec.Format.CBOR).serialize(PERSON);
+
+        assertEquals(":)\n", new String(smile, 0, 3, StandardCharsets.US_ASCII));
+        assertTrue(smile.length < json.length, smile.length + " >= " + json.length);
+        assertTrue(cbor.length < json.length, cbor.length + " >= " + json.length);
+    }
+
+    @Test
+    void recordsOfAnotherFormatDoNotDecode() {
+        byte[] json = new OMCodec(OMCodec.Format.JSON).serialize(PERSON);
+
+        assertNull(new OMCodec(OMCodec.Format.SMILE).deserialize(json, Person.class));
+        assertNull(new OMCodec().deserialize("not json".getBytes(StandardCharsets.UTF_8), Person.class));
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private List<String> interests;
+
+        public Person() {
+        }
+
+        public Person(String name, int age, List<String> interests) {
+            this.name = name;
+            this.age = age;
+            this.interests = interests;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public List<String> getInterests() {
+            return interests;
+        }
+
+        public void setInterests(List<String> interests) {
+            this.interests = interests;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Person)) {
+                return false;
+            }
+            Person person = (Person) o;
+            return age == person.age && Objects.equals(name, person.name) && Objects.equals(interests, person.interests);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, age, interests);
+        }
+    }
+}
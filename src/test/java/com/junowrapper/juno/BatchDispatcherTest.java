@@ -0,0 +1,198 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.cache.NearCache;
+import com.junowrapper.juno.cache.NearCacheConfig;
+import com.junowrapper.juno.model.BatchConfig;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class BatchDispatcherTest {
+
+    private final CountingSimulator simulator = new CountingSimulator();
+
+    @Test
+    void splitsByRequestCount() {
+        List<List<JunoRequest>> chunks = BatchDispatcher.split(sets(1001, 1), new BatchConfig(500, Long.MAX_VALUE, 4));
+
+        assertEquals(3, chunks.size());
+        assertEquals(500, chunks.get(0).size());
+        assertEquals(500, chunks.get(1).size());
+        assertEquals(1, chunks.get(2).size());
+    }
+
+    @Test
+    void splitsBySerializedBytes() {
+        // "key-N" plus a 95 byte value is 100 bytes for N < 10
+        List<List<JunoRequest>> chunks = BatchDispatcher.split(sets(10, 95), new BatchConfig(500, 300, 4));
+
+        assertEquals(4, chunks.size());
+        assertEquals(3, chunks.get(0).size());
+        assertEquals(1, chunks.get(3).size());
+    }
+
+    @Test
+    void oversizedRequestGetsItsOwnSubBatch() {
+        List<List<JunoRequest>> chunks = BatchDispatcher.split(sets(3, 1000), new BatchConfig(500, 100, 4));
+
+        assertEquals(3, chunks.size());
+    }
+
+    @Test
+    void answersEveryRequestInOrder() {
+        List<JunoRequest> requests = sets(2000, 8);
+
+        List<JunoResponse> responses = BatchDispatcher.dispatch(simulator, requests, new BatchConfig(100, Long.MAX_VALUE, 4));
+
+        assertEquals(20, simulator.batches.get());
+        assertEquals(requests.size(), responses.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertArrayEquals(requests.get(i).key(), responses.get(i).getKey());
+            assertEquals(OperationStatus.Success, responses.get(i).getStatus());
+        }
+        assertEquals(2000, simulator.recordCount());
+    }
+
+    @Test
+    void repeatedKeysKeepTheirOrder() {
+        List<JunoRequest> requests = new ArrayList<>();
+        requests.add(new JunoRequest(bytes("key"), new byte[]{1}, 0, 60, JunoRequest.OperationType.Create));
+        requests.add(new JunoRequest(bytes("key"), new byte[]{2}, 0, 60, JunoRequest.OperationType.Create));
+
+        List<JunoResponse> responses = BatchDispatcher.dispatch(simulator, requests, new BatchConfig());
+
+        assertEquals(OperationStatus.Success, responses.get(0).getStatus());
+        assertEquals(OperationStatus.UniqueKeyViolation, responses.get(1).getStatus());
+    }
+
+    @Test
+    void failedSubBatchOnlyFailsItsOwnRequests() {
+        List<JunoRequest> requests = sets(30, 8);
+        simulator.failBatchWith = "key-15";
+
+        List<JunoResponse> responses = BatchDispatcher.dispatch(simulator, requests, new BatchConfig(10, Long.MAX_VALUE, 2));
+
+        assertEquals(30, responses.size());
+        for (int i = 0; i < 30; i++) {
+            OperationStatus expected = i >= 10 && i < 20 ? OperationStatus.UnknownError : OperationStatus.Success;
+            assertEquals(expected, responses.get(i).getStatus(), "request " + i);
+            assertArrayEquals(requests.get(i).key(), responses.get(i).getKey());
+        }
+        assertEquals(20, simulator.recordCount());
+    }
+
+    @Test
+    void asyncDispatchFailsOnlyTheFailedSubBatch() {
+        List<JunoRequest> requests = sets(30, 8);
+        simulator.failBatchWith = "key-15";
+
+        List<JunoResponse> responses = BatchDispatcher.dispatchAsync(new SimulatedAsyncClient(simulator), requests,
+                new BatchConfig(10, Long.MAX_VALUE, 2)).join();
+
+        assertEquals(3, simulator.batches.get());
+        assertEquals(30, responses.size());
+        for (int i = 0; i < 30; i++) {
+            OperationStatus expected = i >= 10 && i < 20 ? OperationStatus.UnknownError : OperationStatus.Success;
+            assertEquals(expected, responses.get(i).getStatus(), "request " + i);
+            assertArrayEquals(requests.get(i).key(), responses.get(i).getKey());
+        }
+    }
+
+    @Test
+    void strayResponsesDoNotShiftLaterRequests() {
+        List<JunoRequest> requests = sets(30, 8);
+        simulator.stray = true;
+
+        List<JunoResponse> responses = BatchDispatcher.dispatch(simulator, requests, new BatchConfig(10, Long.MAX_VALUE, 1));
+
+        assertEquals(30, responses.size());
+        for (int i = 0; i < 30; i++) {
+            assertArrayEquals(requests.get(i).key(), responses.get(i).getKey());
+        }
+    }
+
+    @Test
+    void doBatchUsesTheManagersBatchConfig() {
+        JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+        manager.setBatchConfig(new BatchConfig(7, Long.MAX_VALUE, 3));
+
+        List<JunoResponse> responses = new ArrayList<>();
+        manager.doBatch(sets(50, 8)).forEach(responses::add);
+
+        assertEquals(50, responses.size());
+        assertEquals(8, simulator.batches.get());
+    }
+
+    @Test
+    void doBatchIteratesTheRequestsOnce() {
+        JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+        // writes invalidate the near cache before and after they are sent
+        manager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        AtomicInteger passes = new AtomicInteger();
+        List<JunoRequest> requests = sets(10, 8);
+        Iterable<JunoRequest> oncePerCaller = () -> {
+            if (passes.incrementAndGet() > 1) {
+                throw new IllegalStateException("Iterated twice");
+            }
+            return requests.iterator();
+        };
+
+        Iterable<JunoResponse> responses = manager.doBatch(oncePerCaller);
+
+        assertNotNull(responses);
+        assertEquals(1, passes.get());
+        assertEquals(10, simulator.recordCount());
+    }
+
+    private static List<JunoRequest> sets(int count, int valueSize) {
+        List<JunoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new JunoRequest(bytes("key-" + i), new byte[valueSize], 0, 60, JunoRequest.OperationType.Create));
+        }
+        return requests;
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class CountingSimulator extends JunoClientSimulator {
+        private final AtomicInteger batches = new AtomicInteger();
+        private volatile String failBatchWith;
+        private volatile boolean stray;
+
+        private CountingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            batches.incrementAndGet();
+            for (JunoRequest request : requests) {
+                if (new String(request.key(), StandardCharsets.UTF_8).equals(failBatchWith)) {
+                    throw new IllegalStateException("Batch failed");
+                }
+            }
+            if (!stray) {
+                return super.doBatch(requests);
+            }
+            List<JunoResponse> responses = new ArrayList<>();
+            responses.add(new JunoResponse(bytes("stray"), null, 0, 0, 0, OperationStatus.Success));
+            super.doBatch(requests).forEach(responses::add);
+            return responses;
+        }
+    }
+}
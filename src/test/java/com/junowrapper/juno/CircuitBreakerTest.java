@@ -0,0 +1,309 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.CircuitBreakerConfig;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.MicroBatchConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MSEC = 50;
+
+    private final List<String> transitions = new ArrayList<>();
+
+    @Test
+    void opensOnceFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker(config(1));
+        for (int i = 0; i < 9; i++) {
+            breaker.record(breaker.tryAcquire(), 0, i % 2 == 0);
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.record(breaker.tryAcquire(), 0, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+        assertEquals("[CLOSED->OPEN]", transitions.toString());
+    }
+
+    @Test
+    void opensOnSlowCalls() {
+        CircuitBreaker breaker = breaker(config(1));
+        long slow = TimeUnit.MILLISECONDS.toNanos(100);
+        for (int i = 0; i < 10; i++) {
+            breaker.record(breaker.tryAcquire(), i < 5 ? slow : 0, false);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void businessStatusesAreNotFailures() {
+        assertFalse(CircuitBreaker.isFailure(OperationStatus.Success));
+        assertFalse(CircuitBreaker.isFailure(OperationStatus.NoKey));
+        assertFalse(CircuitBreaker.isFailure(OperationStatus.UniqueKeyViolation));
+        assertFalse(CircuitBreaker.isFailure(OperationStatus.ConditionViolation));
+        assertTrue(CircuitBreaker.isFailure(OperationStatus.ResponseTimeout));
+        assertTrue(CircuitBreaker.isFailure(OperationStatus.ConnectionError));
+        assertTrue(CircuitBreaker.isFailure(null));
+    }
+
+    @Test
+    void closesAfterHealthyProbes() throws InterruptedException {
+        CircuitBreaker breaker = open(config(2));
+        Thread.sleep(OPEN_MSEC * 2);
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+        breaker.record(first, 0, false);
+        breaker.record(second, 0, false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals("[CLOSED->OPEN, OPEN->HALF_OPEN, HALF_OPEN->CLOSED]", transitions.toString());
+    }
+
+    @Test
+    void reopensOnFailedProbe() throws InterruptedException {
+        CircuitBreaker breaker = open(config(1));
+        Thread.sleep(OPEN_MSEC * 2);
+
+        breaker.record(breaker.tryAcquire(), 0, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+    }
+
+    @Test
+    void callsAdmittedBeforeOpeningDoNotCountAsProbes() throws InterruptedException {
+        CircuitBreaker breaker = breaker(config(1));
+        long stale = breaker.tryAcquire();
+        open(breaker);
+        Thread.sleep(OPEN_MSEC * 2);
+        long probe = breaker.tryAcquire();
+
+        breaker.record(stale, 0, false);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(probe, 0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void releasedProbeFreesItsSlot() throws InterruptedException {
+        CircuitBreaker breaker = open(config(1));
+        Thread.sleep(OPEN_MSEC * 2);
+
+        long probe = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+        breaker.release(probe);
+
+        long next = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, next);
+        breaker.record(next, 0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void lostProbesAreWrittenOffAfterTimeout() throws InterruptedException {
+        CircuitBreakerConfig config = config(1);
+        config.setHalfOpenTimeoutMSec(OPEN_MSEC);
+        CircuitBreaker breaker = open(config);
+        Thread.sleep(OPEN_MSEC * 2);
+
+        long lost = breaker.tryAcquire();
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+        Thread.sleep(OPEN_MSEC * 2);
+
+        long retry = breaker.tryAcquire();
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, retry);
+        breaker.record(lost, 0, true);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.record(retry, 0, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void managerFailsFastWhileOpen() {
+        CountingSimulator simulator = new CountingSimulator();
+        simulator.withErrors(1, OperationStatus.InternalError);
+        JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+        manager.setCircuitBreaker(config(1), (name, from, to) -> transitions.add(from + "->" + to));
+
+        for (int i = 0; i < 20; i++) {
+            assertFalse(manager.get("key-" + i, String.class).isPresent());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, manager.getCircuitBreaker().getState());
+        assertEquals(10, simulator.calls.get());
+    }
+
+    @Test
+    void fastFailsAreNotLogged() {
+        JunoDBManager manager = new JunoDBManager(new JunoClientSimulator(junoDBConfig()), new DefaultCodec());
+        CircuitBreakerConfig config = config(1);
+        config.setOpenDurationMSec(TimeUnit.MINUTES.toMillis(1));
+        manager.setCircuitBreaker(config, null);
+        open(manager.getCircuitBreaker());
+
+        String output = capturingOutput(() -> {
+            assertFalse(manager.get("key", String.class).isPresent());
+            assertFalse(manager.getJResponse("key").isPresent());
+            assertFalse(manager.create("key", "value"));
+            assertFalse(manager.delete("key"));
+            assertFalse(manager.compareAndUpdate("key", String.class, v -> "value", 60));
+            assertNull(manager.doBatch(Collections.singletonList(manager.setJunoRequest("key", JunoRequest.OperationType.Get))));
+            assertTrue(manager.getAll(Collections.singletonList("key"), String.class).isEmpty());
+            assertFalse(manager.getAsync("key", String.class).join().isPresent());
+            assertFalse(manager.createAsync("key", "value").join());
+            assertFalse(manager.deleteAsync("key").join());
+            assertTrue(manager.getAllAsync(Collections.singletonList("key"), String.class).join().isEmpty());
+            manager.setMicroBatching(new MicroBatchConfig(10, 100));
+            assertFalse(manager.get("key", String.class).isPresent());
+            manager.setMicroBatching(null);
+        });
+
+        assertEquals("", output);
+    }
+
+    @Test
+    void managerTreatsNoKeyAsHealthy() {
+        JunoDBManager manager = new JunoDBManager(new JunoClientSimulator(junoDBConfig()), new DefaultCodec());
+        manager.setCircuitBreaker(config(1), null);
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(manager.get("missing-" + i, String.class).isPresent());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, manager.getCircuitBreaker().getState());
+    }
+
+    @Test
+    void cancelledStreamReturnsItsProbe() throws InterruptedException {
+        BlockingSimulator simulator = new BlockingSimulator();
+        JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+        manager.setCircuitBreaker(config(1), null);
+        CircuitBreaker breaker = manager.getCircuitBreaker();
+        open(breaker);
+        Thread.sleep(OPEN_MSEC * 2);
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            keys.add("key-" + i);
+        }
+        Disposable stream = manager.getAllPublisher(keys, String.class, 0, 10, 1).subscribe();
+        assertTrue(simulator.entered.await(5, TimeUnit.SECONDS));
+        assertEquals(CircuitBreaker.NOT_PERMITTED, breaker.tryAcquire());
+        stream.dispose();
+        simulator.proceed.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        long probe = CircuitBreaker.NOT_PERMITTED;
+        while (probe == CircuitBreaker.NOT_PERMITTED && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            probe = breaker.tryAcquire();
+        }
+        assertNotEquals(CircuitBreaker.NOT_PERMITTED, probe);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    private CircuitBreaker breaker(CircuitBreakerConfig config) {
+        return new CircuitBreaker("test", config, (name, from, to) -> transitions.add(from + "->" + to));
+    }
+
+    private CircuitBreaker open(CircuitBreakerConfig config) {
+        return open(breaker(config));
+    }
+
+    private static CircuitBreaker open(CircuitBreaker breaker) {
+        while (breaker.getState() != CircuitBreaker.State.OPEN) {
+            breaker.record(breaker.tryAcquire(), 0, true);
+        }
+        return breaker;
+    }
+
+    private static CircuitBreakerConfig config(int halfOpenProbes) {
+        CircuitBreakerConfig config = new CircuitBreakerConfig(50, 50, OPEN_MSEC);
+        config.setWindowSize(10);
+        config.setMinimumCalls(10);
+        config.setHalfOpenProbes(halfOpenProbes);
+        return config;
+    }
+
+    private static String capturingOutput(Runnable runnable) {
+        PrintStream out = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            runnable.run();
+        } finally {
+            System.setOut(out);
+        }
+        return captured.toString();
+    }
+
+    private static JunoDBConfig junoDBConfig() {
+        return new JunoDBConfig("localhost", 8080, "test", "test");
+    }
+
+    private static final class CountingSimulator extends JunoClientSimulator {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private CountingSimulator() {
+            super(junoDBConfig());
+        }
+
+        @Override
+        public JunoResponse get(byte[] key) {
+            calls.incrementAndGet();
+            return super.get(key);
+        }
+
+        @Override
+        public JunoResponse get(byte[] key, long timeToLiveSec) {
+            calls.incrementAndGet();
+            return super.get(key, timeToLiveSec);
+        }
+    }
+
+    /**
+     * Holds the first batch until released, so the stream can be cancelled while its probe is in flight.
+     */
+    private static final class BlockingSimulator extends JunoClientSimulator {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch proceed = new CountDownLatch(1);
+
+        private BlockingSimulator() {
+            super(junoDBConfig());
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            entered.countDown();
+            try {
+                proceed.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.doBatch(requests);
+        }
+    }
+}
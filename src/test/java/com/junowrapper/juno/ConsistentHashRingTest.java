@@ -0,0 +1,105 @@
+package com.junowrapper.juno;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 100_000;
+    private static final int VIRTUAL_NODES = 160;
+
+    @Test
+    void spreadsKeysEvenlyAcrossEqualNodes() {
+        ConsistentHashRing<String> ring = ring(Arrays.asList("a", "b", "c", "d"), Arrays.asList(1, 1, 1, 1));
+
+        Map<String, Integer> counts = count(ring);
+        assertEquals(4, counts.size());
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            double share = (double) entry.getValue() / KEYS;
+            assertTrue(share > 0.20 && share < 0.30, entry.getKey() + " owns " + share);
+        }
+    }
+
+    @Test
+    void honoursWeights() {
+        ConsistentHashRing<String> ring = ring(Arrays.asList("a", "b", "c"), Arrays.asList(2, 1, 1));
+
+        Map<String, Integer> counts = count(ring);
+        double share = (double) counts.get("a") / KEYS;
+        assertTrue(share > 0.42 && share < 0.58, "a owns " + share);
+    }
+
+    @Test
+    void isDeterministic() {
+        ConsistentHashRing<String> first = ring(Arrays.asList("a", "b", "c"), Arrays.asList(1, 1, 1));
+        ConsistentHashRing<String> second = ring(Arrays.asList("c", "a", "b"), Arrays.asList(1, 1, 1));
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(first.nodeFor(key(i)), second.nodeFor(key(i)));
+        }
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        ConsistentHashRing<String> before = ring(Arrays.asList("a", "b", "c", "d"), Arrays.asList(1, 1, 1, 1));
+        ConsistentHashRing<String> after = ring(Arrays.asList("a", "b", "c", "d", "e"), Arrays.asList(1, 1, 1, 1, 1));
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String from = before.nodeFor(key(i));
+            String to = after.nodeFor(key(i));
+            if (!from.equals(to)) {
+                assertEquals("e", to, "key " + i + " moved between old nodes");
+                moved++;
+            }
+        }
+        double share = (double) moved / KEYS;
+        assertTrue(share > 0.15 && share < 0.25, "moved " + share);
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsKeys() {
+        ConsistentHashRing<String> before = ring(Arrays.asList("a", "b", "c", "d"), Arrays.asList(1, 1, 1, 1));
+        ConsistentHashRing<String> after = ring(Arrays.asList("a", "b", "d"), Arrays.asList(1, 1, 1));
+
+        for (int i = 0; i < KEYS; i++) {
+            String from = before.nodeFor(key(i));
+            if (!from.equals("c")) {
+                assertEquals(from, after.nodeFor(key(i)), "key " + i + " moved off a surviving node");
+            }
+        }
+    }
+
+    @Test
+    void singleNodeOwnsEverything() {
+        ConsistentHashRing<String> ring = ring(Collections.singletonList("a"), Collections.singletonList(1));
+
+        assertEquals(Collections.singletonMap("a", KEYS), count(ring));
+    }
+
+    private static ConsistentHashRing<String> ring(List<String> names, List<Integer> weights) {
+        return new ConsistentHashRing<>(names, weights, new ArrayList<>(names), VIRTUAL_NODES);
+    }
+
+    private static Map<String, Integer> count(ConsistentHashRing<String> ring) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.nodeFor(key(i)), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static byte[] key(int i) {
+        return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
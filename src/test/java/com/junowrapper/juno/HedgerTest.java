@@ -0,0 +1,207 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.HedgeConfig;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.junowrapper.juno.simulator.LatencyDistribution;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import com.paypal.juno.exception.JunoException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgerTest {
+
+    private static final byte[] KEY = "key".getBytes(StandardCharsets.UTF_8);
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+
+    @Test
+    void fastReadsAreNotHedged() {
+        simulator.create(KEY, new byte[]{1});
+        Hedger hedger = new Hedger(hedgeConfig(1000, 0.1, 2));
+
+        run(hedger, 50);
+
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    @Test
+    void slowReadsAreHedgedWithinBudget() {
+        simulator.create(KEY, new byte[]{1});
+        simulator.withLatency(LatencyDistribution.fixed(10, TimeUnit.MILLISECONDS));
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.1, 2));
+
+        run(hedger, 50);
+
+        // the initial burst of 2, then one hedge per 10 reads
+        assertEquals(2 + 48 / 10, hedger.getHedgesSent());
+    }
+
+    @Test
+    void smallBudgetCapsHedgesUnderSustainedSlowness() {
+        simulator.create(KEY, new byte[]{1});
+        simulator.withLatency(LatencyDistribution.fixed(5, TimeUnit.MILLISECONDS));
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.05, 1));
+
+        run(hedger, 100);
+
+        assertEquals(1 + 99 / 20, hedger.getHedgesSent());
+    }
+
+    @Test
+    void hedgeWinsWhenPrimaryIsStuck() {
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.1, 2));
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<JunoResponse> stuck = new CompletableFuture<>();
+        simulator.create(KEY, new byte[]{1});
+
+        JunoResponse response = hedger.get(() -> attempts.getAndIncrement() == 0
+                ? stuck
+                : CompletableFuture.completedFuture(simulator.get(KEY)));
+
+        assertEquals(OperationStatus.Success, response.getStatus());
+        assertEquals(1, hedger.getHedgesSent());
+        assertEquals(1, hedger.getHedgesWon());
+    }
+
+    @Test
+    void failsOnlyWhenBothAttemptsFail() {
+        simulator.withLatency(LatencyDistribution.fixed(10, TimeUnit.MILLISECONDS));
+        simulator.withErrors(1, OperationStatus.InternalError);
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.1, 2));
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            assertThrows(JunoException.class, () -> hedger.get(read(executor)));
+            assertEquals(1, hedger.getHedgesSent());
+            assertEquals(0, hedger.getHedgesWon());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedStatusDoesNotWin() {
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.1, 2));
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<JunoResponse> slow = new CompletableFuture<>();
+        simulator.create(KEY, new byte[]{1});
+
+        JunoResponse response = hedger.get(() -> {
+            if (attempts.getAndIncrement() == 0) {
+                return slow;
+            }
+            completeLater(slow, () -> simulator.get(KEY));
+            return CompletableFuture.completedFuture(response(OperationStatus.RecordLocked));
+        });
+
+        assertEquals(OperationStatus.Success, response.getStatus());
+        assertEquals(1, hedger.getHedgesSent());
+        assertEquals(0, hedger.getHedgesWon());
+    }
+
+    @Test
+    void withoutAWinnerThePrimarysResponseIsReturned() {
+        Hedger hedger = new Hedger(hedgeConfig(1, 0.1, 2));
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<JunoResponse> slow = new CompletableFuture<>();
+
+        JunoResponse response = hedger.get(() -> {
+            if (attempts.getAndIncrement() == 0) {
+                return slow;
+            }
+            completeLater(slow, () -> response(OperationStatus.InternalError));
+            return CompletableFuture.completedFuture(response(OperationStatus.RecordLocked));
+        });
+
+        assertEquals(OperationStatus.InternalError, response.getStatus());
+        assertEquals(0, hedger.getHedgesWon());
+    }
+
+    @Test
+    void blockingReadsRunOnTheCallerOnceTheHedgeThreadsAreBusy() throws InterruptedException {
+        Hedger hedger = new Hedger(hedgeConfig(60_000, 0.1, 2));
+        CountDownLatch busy = new CountDownLatch(Hedger.HEDGE_THREADS);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(Hedger.HEDGE_THREADS);
+        try {
+            for (int i = 0; i < Hedger.HEDGE_THREADS; i++) {
+                callers.execute(() -> hedger.getBlocking(() -> {
+                    busy.countDown();
+                    try {
+                        release.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return response(OperationStatus.Success);
+                }));
+            }
+            assertTrue(busy.await(10, TimeUnit.SECONDS));
+
+            Thread caller = Thread.currentThread();
+            AtomicReference<Thread> ranOn = new AtomicReference<>();
+            JunoResponse response = hedger.getBlocking(() -> {
+                ranOn.set(Thread.currentThread());
+                return response(OperationStatus.NoKey);
+            });
+
+            assertEquals(OperationStatus.NoKey, response.getStatus());
+            assertSame(caller, ranOn.get());
+        } finally {
+            release.countDown();
+            callers.shutdown();
+        }
+        assertTrue(callers.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, hedger.getHedgesSent());
+    }
+
+    private void run(Hedger hedger, int reads) {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            for (int i = 0; i < reads; i++) {
+                assertEquals(OperationStatus.Success, hedger.get(read(executor)).getStatus());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Supplier<CompletableFuture<JunoResponse>> read(ExecutorService executor) {
+        return () -> CompletableFuture.supplyAsync(() -> simulator.get(KEY), executor);
+    }
+
+    private static void completeLater(CompletableFuture<JunoResponse> future, Supplier<JunoResponse> response) {
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            future.complete(response.get());
+        });
+    }
+
+    private static JunoResponse response(OperationStatus status) {
+        return new JunoResponse(KEY, null, 0, 0, 0, status);
+    }
+
+    private static HedgeConfig hedgeConfig(long delayMSec, double budgetRatio, int maxBurst) {
+        HedgeConfig hedgeConfig = new HedgeConfig(delayMSec, 0, budgetRatio);
+        hedgeConfig.setMaxBurst(maxBurst);
+        return hedgeConfig;
+    }
+}
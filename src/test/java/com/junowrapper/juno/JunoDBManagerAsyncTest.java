@@ -0,0 +1,168 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.cache.NearCache;
+import com.junowrapper.juno.cache.NearCacheConfig;
+import com.junowrapper.juno.metrics.InMemoryMetricsSink;
+import com.junowrapper.juno.metrics.MetricsSink.Operation;
+import com.junowrapper.juno.metrics.MetricsSnapshot;
+import com.junowrapper.juno.model.BatchConfig;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoDBManagerAsyncTest {
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final SimulatedAsyncClient asyncClient = new SimulatedAsyncClient(simulator);
+
+    @Test
+    void roundTripsOnTheAsyncClient() throws Exception {
+        JunoDBManager manager = new JunoDBManager(simulator, asyncClient, new DefaultCodec());
+
+        assertTrue(manager.createAsync("key", "value").get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("value"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertTrue(manager.deleteAsync("key").get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertEquals(4, asyncClient.calls.get());
+    }
+
+    @Test
+    void fallsBackToTheBlockingClient() throws Exception {
+        JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+
+        assertTrue(manager.createAsync("key", "value", 60).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("value"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertTrue(manager.deleteAsync("key").get(5, TimeUnit.SECONDS));
+        assertEquals(0, simulator.recordCount());
+    }
+
+    @Test
+    void getAllAsyncReturnsFoundValuesInKeyOrder() throws Exception {
+        for (JunoDBManager manager : Arrays.asList(
+                new JunoDBManager(simulator, asyncClient, new DefaultCodec()),
+                new JunoDBManager(simulator, new DefaultCodec()))) {
+            simulator.clear();
+            manager.create("a", "1");
+            manager.create("c", "3");
+
+            List<String> values = manager.getAllAsync(Arrays.asList("a", "b", "c"), String.class).get(5, TimeUnit.SECONDS);
+
+            assertEquals(Arrays.asList("1", "3"), values);
+            assertEquals(Collections.emptyList(), manager.getAllAsync(Collections.<String>emptyList(), String.class).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void failuresCompleteWithEmptyResults() throws Exception {
+        simulator.withErrors(1, OperationStatus.InternalError);
+        for (JunoDBManager manager : Arrays.asList(
+                new JunoDBManager(simulator, asyncClient, new DefaultCodec()),
+                new JunoDBManager(simulator, new DefaultCodec()))) {
+            assertFalse(manager.createAsync("key", "value").get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.empty(), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+            assertFalse(manager.deleteAsync("key").get(5, TimeUnit.SECONDS));
+            assertEquals(Collections.emptyList(), manager.getAllAsync(Arrays.asList("a", "b"), String.class).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void getAsyncReadsThroughTheNearCache() throws Exception {
+        JunoDBManager manager = new JunoDBManager(simulator, asyncClient, new DefaultCodec());
+        manager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        manager.create("key", "v1");
+
+        assertEquals(Optional.of("v1"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("v1"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertEquals(1, asyncClient.calls.get());
+
+        manager.create("key", "v2");
+        assertEquals(Optional.of("v2"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("v2"), manager.get("key", String.class));
+        assertEquals(2, asyncClient.calls.get());
+    }
+
+    @Test
+    void concurrentGetAsyncsOfAKeyShareOneRequest() throws Exception {
+        JunoDBManager manager = new JunoDBManager(simulator, asyncClient, new DefaultCodec());
+        manager.setCoalescing(true);
+        manager.create("key", "value");
+        // decoding waits in the queue, so the first read stays in flight
+        Queue<Runnable> codecTasks = new ConcurrentLinkedQueue<>();
+        manager.setCodecExecutor(codecTasks::add);
+
+        CompletableFuture<Optional<String>> first = manager.getAsync("key", String.class);
+        CompletableFuture<Optional<String>> second = manager.getAsync("key", String.class);
+        assertEquals(1, asyncClient.calls.get());
+        assertFalse(second.isDone());
+        codecTasks.forEach(Runnable::run);
+
+        assertEquals(Optional.of("value"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of("value"), second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void getAllAsyncSplitsIntoSubBatchesAndRecordsMetrics() throws Exception {
+        JunoDBManager manager = new JunoDBManager(simulator, asyncClient, new DefaultCodec());
+        manager.setBatchConfig(new BatchConfig(10, Long.MAX_VALUE, 2));
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        manager.setMetricsSink(sink);
+        List<String> keys = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            keys.add("key-" + i);
+            if (i % 5 != 0) {
+                manager.create("key-" + i, "value-" + i);
+                expected.add("value-" + i);
+            }
+        }
+
+        assertEquals(expected, manager.getAllAsync(keys, String.class).get(5, TimeUnit.SECONDS));
+
+        assertEquals(3, asyncClient.calls.get());
+        MetricsSnapshot snapshot = sink.snapshot();
+        assertEquals(1, snapshot.getLatencies().get(Operation.BATCH).getCount());
+        assertEquals(25, snapshot.getBatchSizes().getMax());
+        assertEquals(Long.valueOf(20), snapshot.getStatusCounts().get(Operation.BATCH).get(OperationStatus.Success));
+        assertEquals(Long.valueOf(5), snapshot.getStatusCounts().get(Operation.BATCH).get(OperationStatus.NoKey));
+    }
+
+    @Test
+    void codecWorkRunsOnTheCodecExecutor() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AtomicInteger tasks = new AtomicInteger();
+        try {
+            JunoDBManager manager = new JunoDBManager(simulator, asyncClient, new DefaultCodec());
+            manager.setCodecExecutor(task -> {
+                tasks.incrementAndGet();
+                executor.execute(task);
+            });
+
+            assertTrue(manager.createAsync("key", "value").get(5, TimeUnit.SECONDS));
+            int afterCreate = tasks.get();
+            assertTrue(afterCreate > 0, "create never used the codec executor");
+            assertEquals(Optional.of("value"), manager.getAsync("key", String.class).get(5, TimeUnit.SECONDS));
+            assertTrue(tasks.get() > afterCreate, "get never used the codec executor");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
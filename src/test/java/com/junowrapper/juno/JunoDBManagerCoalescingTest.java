@@ -0,0 +1,106 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.junowrapper.juno.simulator.LatencyDistribution;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JunoDBManagerCoalescingTest {
+
+    private static final int CALLERS = 8;
+
+    private final CountingSimulator simulator = new CountingSimulator();
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void concurrentGetsShareOneRequest() throws Exception {
+        junoDBManager.create("key", "value");
+        junoDBManager.setCoalescing(true);
+        simulator.withLatency(LatencyDistribution.fixed(300, TimeUnit.MILLISECONDS));
+
+        for (Optional<String> value : concurrently(() -> junoDBManager.get("key", String.class))) {
+            assertEquals(Optional.of("value"), value);
+        }
+        assertEquals(1, simulator.gets.get());
+    }
+
+    @Test
+    void withoutCoalescingEveryCallerSendsItsOwnRequest() throws Exception {
+        junoDBManager.create("key", "value");
+        simulator.withLatency(LatencyDistribution.fixed(100, TimeUnit.MILLISECONDS));
+
+        concurrently(() -> junoDBManager.get("key", String.class));
+
+        assertEquals(CALLERS, simulator.gets.get());
+    }
+
+    @Test
+    void leaderFailureFailsEveryWaiter() throws Exception {
+        junoDBManager.create("key", "value");
+        junoDBManager.setCoalescing(true);
+        simulator.withLatency(LatencyDistribution.fixed(300, TimeUnit.MILLISECONDS));
+        simulator.withErrors(1, OperationStatus.InternalError);
+
+        for (Optional<String> value : concurrently(() -> junoDBManager.get("key", String.class))) {
+            assertEquals(Optional.empty(), value);
+        }
+        assertEquals(1, simulator.gets.get());
+    }
+
+    @Test
+    void laterGetsSendANewRequest() {
+        junoDBManager.create("key", "v1");
+        junoDBManager.setCoalescing(true);
+
+        assertEquals(Optional.of("v1"), junoDBManager.get("key", String.class));
+        junoDBManager.create("key", "v2");
+        assertEquals(Optional.of("v2"), junoDBManager.get("key", String.class));
+        assertEquals(2, simulator.gets.get());
+    }
+
+    private static <T> List<T> concurrently(Callable<T> call) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                futures.add(executor.submit(call));
+            }
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class CountingSimulator extends JunoClientSimulator {
+        private final AtomicInteger gets = new AtomicInteger();
+
+        private CountingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public JunoResponse get(byte[] key, long timeToLiveSec) {
+            gets.incrementAndGet();
+            return super.get(key, timeToLiveSec);
+        }
+    }
+}
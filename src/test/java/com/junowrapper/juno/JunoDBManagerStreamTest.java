@@ -0,0 +1,131 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.JunoResult;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoDBManagerStreamTest {
+
+    private final BatchCountingSimulator simulator = new BatchCountingSimulator();
+    private final JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void emitsOneResultPerKeyInSubBatches() {
+        List<String> keys = keys(100);
+        for (int i = 0; i < 100; i += 2) {
+            manager.create(keys.get(i), "value-" + i);
+        }
+
+        List<JunoResult<String, String>> results = manager.getAllPublisher(keys, String.class, 0, 16, 2).collectList().block();
+
+        assertEquals(100, results.size());
+        assertEquals(7, simulator.batches.get());
+        Map<String, JunoResult<String, String>> byKey = new HashMap<>();
+        results.forEach(r -> byKey.put(r.getKey(), r));
+        for (int i = 0; i < 100; i++) {
+            JunoResult<String, String> result = byKey.get(keys.get(i));
+            if (i % 2 == 0) {
+                assertTrue(result.isSuccess());
+                assertEquals("value-" + i, result.getValue());
+            } else {
+                assertFalse(result.isSuccess());
+                assertEquals(OperationStatus.NoKey, result.getStatus());
+                assertNull(result.getValue());
+            }
+        }
+    }
+
+    @Test
+    void failedSubBatchOnlyFailsItsOwnKeys() {
+        List<String> keys = keys(40);
+        keys.forEach(k -> manager.create(k, k));
+        simulator.failBatchWith = keys.get(25);
+
+        List<JunoResult<String, String>> results = manager.getAllPublisher(keys, String.class, 0, 10, 1).collectList().block();
+
+        assertEquals(40, results.size());
+        for (JunoResult<String, String> result : results) {
+            int i = keys.indexOf(result.getKey());
+            if (i >= 20 && i < 30) {
+                assertFalse(result.isSuccess());
+                assertTrue(result.getError() instanceof IllegalStateException, String.valueOf(result.getError()));
+            } else {
+                assertEquals(result.getKey(), result.getValue());
+            }
+        }
+    }
+
+    @Test
+    void undecodableValueFailsOnlyThatKey() {
+        manager.create("good", "value");
+        simulator.set(new DefaultCodec().serialize("bad"), new byte[]{1, 2, 3});
+
+        Map<String, JunoResult<String, String>> results = manager.getAllPublisher(
+                java.util.Arrays.asList("good", "bad"), String.class).collectMap(JunoResult::getKey).block();
+
+        assertTrue(results.get("good").isSuccess());
+        assertFalse(results.get("bad").isSuccess());
+        assertEquals(OperationStatus.Success, results.get("bad").getStatus());
+    }
+
+    @Test
+    void blockingStreamCanStopEarly() {
+        List<String> keys = keys(1000);
+        keys.forEach(k -> manager.create(k, k));
+
+        try (Stream<JunoResult<String, String>> stream = manager.getAllStream(keys, String.class, 0, 10, 1)) {
+            List<String> first = stream.limit(5).map(JunoResult::getValue).collect(Collectors.toList());
+            assertEquals(5, first.size());
+        }
+        assertTrue(simulator.batches.get() < 100, simulator.batches.get() + " batches for 5 results");
+    }
+
+    private static List<String> keys(int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            keys.add("key-" + i);
+        }
+        return keys;
+    }
+
+    private static final class BatchCountingSimulator extends JunoClientSimulator {
+        private final AtomicInteger batches = new AtomicInteger();
+        private volatile String failBatchWith;
+
+        private BatchCountingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            batches.incrementAndGet();
+            String fail = failBatchWith;
+            if (fail != null) {
+                for (JunoRequest request : requests) {
+                    if (new String(request.key(), java.nio.charset.StandardCharsets.UTF_8).endsWith(fail)) {
+                        throw new IllegalStateException("Batch failed");
+                    }
+                }
+            }
+            return super.doBatch(requests);
+        }
+    }
+}
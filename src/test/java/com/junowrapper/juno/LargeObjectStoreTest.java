@@ -0,0 +1,126 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.LargeObjectConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LargeObjectStoreTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+
+    LargeObjectStoreTest() {
+        manager.setLargeObjectConfig(new LargeObjectConfig(CHUNK_SIZE, 4, 2));
+    }
+
+    @Test
+    void valuesAreSplitIntoChunksAndReadBack() throws IOException {
+        byte[] value = randomBytes(10 * CHUNK_SIZE + 17);
+
+        assertTrue(manager.writeLarge("blob", new ByteArrayInputStream(value), 60));
+
+        // 11 chunks and the manifest
+        assertEquals(12, simulator.recordCount());
+        assertArrayEquals(value, readFully(manager.getLargeStream("blob").get()));
+    }
+
+    @Test
+    void createLargeRoundTripsThroughTheCodec() {
+        String value = new String(randomBytes(5000), StandardCharsets.ISO_8859_1);
+
+        assertTrue(manager.createLarge("blob", value, 60));
+
+        assertEquals(Optional.of(value), manager.getLarge("blob", String.class));
+        assertEquals(Optional.empty(), manager.getLarge("missing", String.class));
+        assertFalse(manager.getLargeStream("missing").isPresent());
+    }
+
+    @Test
+    void corruptedChunkFailsTheChecksum() throws IOException {
+        byte[] value = randomBytes(3 * CHUNK_SIZE);
+        manager.writeLarge("blob", new ByteArrayInputStream(value), 60);
+        byte[] corrupted = value.clone();
+        corrupted[CHUNK_SIZE + 5] ^= 1;
+        simulator.set(chunkKey("blob", 1), Arrays.copyOfRange(corrupted, CHUNK_SIZE, 2 * CHUNK_SIZE));
+
+        IOException e = assertThrows(IOException.class, () -> readFully(manager.getLargeStream("blob").get()));
+        assertTrue(e.getMessage().contains("checksum"), e.getMessage());
+        assertEquals(Optional.empty(), manager.getLarge("blob", byte[].class));
+    }
+
+    @Test
+    void truncatedChunkFailsTheLengthCheck() {
+        byte[] value = randomBytes(3 * CHUNK_SIZE);
+        manager.writeLarge("blob", new ByteArrayInputStream(value), 60);
+        simulator.set(chunkKey("blob", 2), new byte[CHUNK_SIZE - 1]);
+
+        IOException e = assertThrows(IOException.class, () -> readFully(manager.getLargeStream("blob").get()));
+        assertTrue(e.getMessage().contains("length"), e.getMessage());
+    }
+
+    @Test
+    void missingChunkFailsTheRead() {
+        manager.writeLarge("blob", new ByteArrayInputStream(randomBytes(5 * CHUNK_SIZE)), 60);
+        simulator.delete(chunkKey("blob", 3));
+
+        IOException e = assertThrows(IOException.class, () -> readFully(manager.getLargeStream("blob").get()));
+        assertTrue(e.getMessage().contains(OperationStatus.NoKey.toString()), e.getMessage());
+    }
+
+    @Test
+    void overwriteAndDeleteRemoveEveryChunk() throws IOException {
+        manager.writeLarge("blob", new ByteArrayInputStream(randomBytes(6 * CHUNK_SIZE)), 60);
+        byte[] replacement = randomBytes(2 * CHUNK_SIZE);
+
+        assertTrue(manager.writeLarge("blob", new ByteArrayInputStream(replacement), 60));
+
+        assertEquals(3, simulator.recordCount());
+        assertArrayEquals(replacement, readFully(manager.getLargeStream("blob").get()));
+
+        assertTrue(manager.deleteLarge("blob"));
+        assertEquals(0, simulator.recordCount());
+    }
+
+    private byte[] chunkKey(String key, int index) {
+        byte[] keyBytes = manager.serializeKey(key);
+        long generation = ByteBuffer.wrap(simulator.get(keyBytes).getValue(), 3, 8).getLong();
+        return LargeObjectStore.chunkKey(keyBytes, generation, index);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[300];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        new Random(length).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,145 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.MicroBatchConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MicroBatcherTest {
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final AtomicInteger batches = new AtomicInteger();
+
+    @Test
+    void collectsConcurrentSubmitsIntoBatches() throws Exception {
+        MicroBatcher batcher = batcher(new MicroBatchConfig(64, TimeUnit.MILLISECONDS.toMicros(20)));
+        try {
+            List<CompletableFuture<JunoResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(batcher.submit(set("key-" + i)));
+            }
+
+            for (int i = 0; i < 64; i++) {
+                JunoResponse response = futures.get(i).get(5, TimeUnit.SECONDS);
+                assertEquals(OperationStatus.Success, response.getStatus());
+                assertArrayEquals(bytes("key-" + i), response.getKey());
+            }
+            assertTrue(batches.get() < 64, batches.get() + " batches");
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void repeatedKeyWaitsForNextBatch() throws Exception {
+        MicroBatcher batcher = batcher(new MicroBatchConfig(64, TimeUnit.MILLISECONDS.toMicros(20)));
+        try {
+            CompletableFuture<JunoResponse> first = batcher.submit(set("key"));
+            CompletableFuture<JunoResponse> second = batcher.submit(set("key"));
+
+            assertEquals(1, first.get(5, TimeUnit.SECONDS).getVersion());
+            assertEquals(2, second.get(5, TimeUnit.SECONDS).getVersion());
+            assertEquals(2, batches.get());
+        } finally {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void sendsOperationsQueuedBeforeShutdown() throws Exception {
+        MicroBatcher batcher = batcher(new MicroBatchConfig(8, TimeUnit.SECONDS.toMicros(1)));
+        List<CompletableFuture<JunoResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            futures.add(batcher.submit(set("key-" + i)));
+        }
+        batcher.shutdown();
+
+        for (CompletableFuture<JunoResponse> future : futures) {
+            assertEquals(OperationStatus.Success, future.get(5, TimeUnit.SECONDS).getStatus());
+        }
+        assertEquals(100, simulator.recordCount());
+    }
+
+    @Test
+    void rejectsSubmitsAfterShutdown() {
+        MicroBatcher batcher = batcher(new MicroBatchConfig());
+        batcher.shutdown();
+
+        CompletableFuture<JunoResponse> future = batcher.submit(set("key"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void neverLeavesAFuturePendingWhenShutdownRacesSubmits() throws Exception {
+        MicroBatcher batcher = batcher(new MicroBatchConfig(16, 100));
+        List<CompletableFuture<JunoResponse>> futures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(4);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(new Thread(() -> {
+                started.countDown();
+                for (int i = 0; i < 2000; i++) {
+                    futures.add(batcher.submit(set("key-" + thread + "-" + i)));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        started.await();
+        Thread.sleep(5);
+        batcher.shutdown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int sent = 0;
+        for (CompletableFuture<JunoResponse> future : futures) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                sent++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException, String.valueOf(e.getCause()));
+            } catch (TimeoutException e) {
+                throw new AssertionError("Future left pending after shutdown", e);
+            }
+        }
+        assertEquals(8000, futures.size());
+        assertEquals(simulator.recordCount(), sent);
+    }
+
+    private MicroBatcher batcher(MicroBatchConfig microBatchConfig) {
+        return new MicroBatcher(microBatchConfig, requests -> {
+            batches.incrementAndGet();
+            return simulator.doBatch(requests);
+        });
+    }
+
+    private static JunoRequest set(String key) {
+        return new JunoRequest(bytes(key), new byte[]{1}, 0, 60, JunoRequest.OperationType.Set);
+    }
+
+    private static byte[] bytes(String key) {
+        return key.getBytes(StandardCharsets.UTF_8);
+    }
+}
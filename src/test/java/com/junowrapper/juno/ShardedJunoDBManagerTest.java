@@ -0,0 +1,127 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.ShardConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedJunoDBManagerTest {
+
+    private static final List<String> SHARDS = Arrays.asList("east", "west", "north");
+
+    private final Map<String, JunoClientSimulator> simulators = new HashMap<>();
+
+    @Test
+    void storesEveryKeyOnItsOwnShardOnly() {
+        ShardedJunoDBManager manager = manager(SHARDS);
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(manager.create("key-" + i, "value-" + i));
+        }
+
+        int total = 0;
+        for (String shard : SHARDS) {
+            int records = simulators.get(shard).recordCount();
+            assertTrue(records > 200, shard + " holds " + records);
+            total += records;
+        }
+        assertEquals(1000, total);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("value-" + i, manager.shardFor("key-" + i).get("key-" + i, String.class).orElse(null));
+        }
+    }
+
+    @Test
+    void batchAnswersInRequestOrderAcrossShards() {
+        ShardedJunoDBManager manager = manager(SHARDS);
+        List<JunoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            requests.add(manager.setJunoRequest("key-" + i, "value-" + i, JunoRequest.OperationType.Set, 60));
+        }
+        manager.doBatch(requests);
+
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            keys.add("key-" + i);
+        }
+        List<String> values = manager.getAll(keys, String.class);
+        assertEquals(300, values.size());
+        for (int i = 0; i < 300; i++) {
+            assertEquals("value-" + i, values.get(i));
+        }
+    }
+
+    @Test
+    void emptyBatchSendsNothing() {
+        ShardedJunoDBManager manager = manager(SHARDS);
+
+        assertFalse(manager.doBatch(new ArrayList<>()).iterator().hasNext());
+    }
+
+    @Test
+    void failingShardOnlyFailsItsOwnKeys() {
+        ShardedJunoDBManager manager = manager(SHARDS);
+        simulators.get("west").withErrors(1, OperationStatus.InternalError);
+        List<JunoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            requests.add(manager.setJunoRequest("key-" + i, "value-" + i, JunoRequest.OperationType.Set, 60));
+        }
+
+        int i = 0;
+        for (JunoResponse response : manager.doBatch(requests)) {
+            boolean onWest = manager.shardFor("key-" + i) == manager.getShards().get("west");
+            assertEquals(onWest ? OperationStatus.InternalError : OperationStatus.Success, response.getStatus(), "key-" + i);
+            i++;
+        }
+        assertEquals(300, i);
+    }
+
+    @Test
+    void addingAShardKeepsMostKeysInPlace() {
+        ShardedJunoDBManager before = manager(SHARDS);
+        ShardedJunoDBManager after = manager(Arrays.asList("east", "west", "north", "south"));
+
+        int moved = 0;
+        for (int i = 0; i < 10_000; i++) {
+            String key = "key-" + i;
+            if (!name(before, before.shardFor(key)).equals(name(after, after.shardFor(key)))) {
+                moved++;
+            }
+        }
+        assertTrue(moved > 1500 && moved < 3500, "moved " + moved);
+    }
+
+    private ShardedJunoDBManager manager(List<String> names) {
+        List<ShardConfig> shardConfigs = new ArrayList<>();
+        for (String name : names) {
+            shardConfigs.add(new ShardConfig(name, new JunoDBConfig(name, 8080, "test", "test"), 1));
+        }
+        return new ShardedJunoDBManager(shardConfigs, shardConfig -> {
+            JunoClientSimulator simulator = new JunoClientSimulator(shardConfig.getJunoDBConfig());
+            simulators.put(shardConfig.getName(), simulator);
+            return new JunoDBManager(simulator, new DefaultCodec());
+        }, ShardedJunoDBManager.DEFAULT_VIRTUAL_NODES);
+    }
+
+    private static String name(ShardedJunoDBManager manager, JunoDBManager shard) {
+        for (Map.Entry<String, JunoDBManager> entry : manager.getShards().entrySet()) {
+            if (entry.getValue() == shard) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Unknown shard");
+    }
+}
@@ -0,0 +1,96 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.JunoAsyncClient;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.RecordContext;
+import com.paypal.juno.conf.JunoPropertiesProvider;
+import rx.Observable;
+import rx.Single;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link JunoAsyncClient} over a {@link JunoClientSimulator}; every call runs the simulator on subscription.
+ */
+class SimulatedAsyncClient implements JunoAsyncClient {
+
+    private final JunoClientSimulator simulator;
+    final AtomicInteger calls = new AtomicInteger();
+
+    SimulatedAsyncClient(JunoClientSimulator simulator) {
+        this.simulator = simulator;
+    }
+
+    @Override
+    public Single<JunoResponse> create(byte[] key, byte[] value) {
+        return single(() -> simulator.create(key, value));
+    }
+
+    @Override
+    public Single<JunoResponse> create(byte[] key, byte[] value, long timeToLiveSec) {
+        return single(() -> simulator.create(key, value, timeToLiveSec));
+    }
+
+    @Override
+    public Single<JunoResponse> get(byte[] key) {
+        return single(() -> simulator.get(key));
+    }
+
+    @Override
+    public Single<JunoResponse> get(byte[] key, long timeToLiveSec) {
+        return single(() -> simulator.get(key, timeToLiveSec));
+    }
+
+    @Override
+    public Single<JunoResponse> update(byte[] key, byte[] value) {
+        return single(() -> simulator.update(key, value));
+    }
+
+    @Override
+    public Single<JunoResponse> update(byte[] key, byte[] value, long timeToLiveSec) {
+        return single(() -> simulator.update(key, value, timeToLiveSec));
+    }
+
+    @Override
+    public Single<JunoResponse> set(byte[] key, byte[] value) {
+        return single(() -> simulator.set(key, value));
+    }
+
+    @Override
+    public Single<JunoResponse> set(byte[] key, byte[] value, long timeToLiveSec) {
+        return single(() -> simulator.set(key, value, timeToLiveSec));
+    }
+
+    @Override
+    public Single<JunoResponse> delete(byte[] key) {
+        return single(() -> simulator.delete(key));
+    }
+
+    @Override
+    public Single<JunoResponse> compareAndSet(RecordContext jcx, byte[] value, long timeToLiveSec) {
+        return single(() -> simulator.compareAndSet(jcx, value, timeToLiveSec));
+    }
+
+    @Override
+    public Observable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+        return Observable.defer(() -> {
+            calls.incrementAndGet();
+            return Observable.from(simulator.doBatch(requests));
+        });
+    }
+
+    @Override
+    public JunoPropertiesProvider getProperties() {
+        return simulator.getProperties();
+    }
+
+    private Single<JunoResponse> single(Callable<JunoResponse> call) {
+        return Single.fromCallable(() -> {
+            calls.incrementAndGet();
+            return call.call();
+        });
+    }
+}
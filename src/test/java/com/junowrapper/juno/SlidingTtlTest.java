@@ -0,0 +1,87 @@
+package com.junowrapper.juno;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.SlidingTtlConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SlidingTtlTest {
+
+    private final TtlRecordingSimulator simulator = new TtlRecordingSimulator();
+    private final JunoDBManager manager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void readsOfAFreshRecordArePlainReads() {
+        manager.setSlidingTtl(new SlidingTtlConfig(0.5, 1000));
+        manager.create("key", "value", 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(Optional.of("value"), manager.get("key", String.class, 100));
+        }
+
+        assertEquals(Arrays.asList(100L, 0L, 0L), simulator.ttls);
+    }
+
+    @Test
+    void recordIsExtendedOnceItsRemainingLifetimeIsLow() {
+        manager.setSlidingTtl(new SlidingTtlConfig(0.5, 1000));
+        manager.create("key", "value", 100);
+        manager.get("key", String.class, 100);
+
+        // 100 seconds left is below half of 300
+        manager.get("key", String.class, 300);
+        manager.get("key", String.class, 300);
+        manager.getJResponse("key", TimeUnit.SECONDS, 300);
+
+        assertEquals(Arrays.asList(100L, 300L, 0L, 0L), simulator.ttls);
+    }
+
+    @Test
+    void writesAndMissingRecordsResetTheTracking() {
+        manager.setSlidingTtl(new SlidingTtlConfig(0.5, 1000));
+        manager.create("key", "value", 100);
+        manager.get("key", String.class, 100);
+
+        manager.delete("key");
+        manager.get("key", String.class, 100);
+        manager.get("key", String.class, 100);
+        manager.create("key", "value", 100);
+        manager.get("key", String.class, 100);
+
+        assertEquals(Arrays.asList(100L, 100L, 100L, 100L), simulator.ttls);
+    }
+
+    @Test
+    void withoutSlidingTtlEveryReadSendsTheTtl() {
+        manager.create("key", "value", 100);
+
+        manager.get("key", String.class, 100);
+        manager.get("key", String.class, 100);
+
+        assertEquals(Arrays.asList(100L, 100L), simulator.ttls);
+    }
+
+    private static final class TtlRecordingSimulator extends JunoClientSimulator {
+        private final List<Long> ttls = new ArrayList<>();
+
+        private TtlRecordingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public JunoResponse get(byte[] key, long timeToLiveSec) {
+            ttls.add(timeToLiveSec);
+            return super.get(key, timeToLiveSec);
+        }
+    }
+}
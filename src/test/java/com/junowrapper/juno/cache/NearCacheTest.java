@@ -0,0 +1,157 @@
+package com.junowrapper.juno.cache;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearCacheTest {
+
+    private final DefaultCodec codec = new DefaultCodec();
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, codec);
+
+    @Test
+    void repeatedReadsAreServedLocally() {
+        junoDBManager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        junoDBManager.create("key", "v1");
+
+        assertEquals(Optional.of("v1"), junoDBManager.get("key", String.class));
+        // changed behind the manager's back, the cached value is still served
+        simulator.set(codec.serialize("key"), codec.serialize("v2"));
+        assertEquals(Optional.of("v1"), junoDBManager.get("key", String.class));
+
+        assertEquals(1, junoDBManager.getNearCache().stats().hitCount());
+        assertEquals(1, junoDBManager.getNearCache().stats().missCount());
+    }
+
+    @Test
+    void writesThroughTheManagerInvalidate() {
+        junoDBManager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        junoDBManager.create("key", "v1");
+        junoDBManager.get("key", String.class);
+
+        junoDBManager.create("key", "v2");
+        assertEquals(Optional.of("v2"), junoDBManager.get("key", String.class));
+
+        junoDBManager.compareAndUpdate("key", String.class, v -> v + "!", 60);
+        assertEquals(Optional.of("v2!"), junoDBManager.get("key", String.class));
+
+        junoDBManager.doBatch(Collections.singletonList(
+                junoDBManager.setJunoRequest("key", "v3", JunoRequest.OperationType.Set, 60)));
+        assertEquals(Optional.of("v3"), junoDBManager.get("key", String.class));
+
+        junoDBManager.delete("key");
+        assertEquals(Optional.empty(), junoDBManager.get("key", String.class));
+    }
+
+    @Test
+    void readThatRacedAWriteIsNotCached() throws Exception {
+        PausingSimulator pausing = new PausingSimulator();
+        JunoDBManager manager = new JunoDBManager(pausing, codec);
+        manager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        manager.create("key", "v1");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // the read fetches v1, then stalls until the write of v2 has completed
+            pausing.pauseNextGet = true;
+            Future<Optional<String>> read = executor.submit(() -> manager.get("key", String.class));
+            assertTrue(pausing.fetched.await(5, TimeUnit.SECONDS));
+            manager.create("key", "v2");
+            pausing.proceed.countDown();
+
+            assertEquals(Optional.of("v1"), read.get(5, TimeUnit.SECONDS));
+            assertEquals(Optional.of("v2"), manager.get("key", String.class));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void putIsDroppedWhenTheKeyWasInvalidatedSinceTheLoadStarted() {
+        NearCache nearCache = new NearCache(new NearCacheConfig(100, 60));
+        byte[] key = codec.serialize("key");
+        long generation = nearCache.generation(key);
+
+        nearCache.invalidate(key);
+        nearCache.put(key, "stale", 60, generation);
+        assertEquals(Optional.empty(), nearCache.get(key, String.class));
+
+        nearCache.put(key, "fresh", 60, nearCache.generation(key));
+        assertEquals(Optional.of("fresh"), nearCache.get(key, String.class));
+    }
+
+    @Test
+    void entriesExpireWithTheRecord() throws InterruptedException {
+        junoDBManager.setNearCache(new NearCache(new NearCacheConfig(100, 60)));
+        junoDBManager.create("key", "v1", 1);
+        junoDBManager.get("key", String.class, TimeUnit.SECONDS, 0);
+
+        Thread.sleep(1100);
+
+        assertEquals(Optional.empty(), junoDBManager.get("key", String.class, TimeUnit.SECONDS, 0));
+    }
+
+    @Test
+    void entriesExpireAtTheConfiguredCap() throws InterruptedException {
+        junoDBManager.setNearCache(new NearCache(new NearCacheConfig(100, 1)));
+        junoDBManager.create("key", "v1");
+        junoDBManager.get("key", String.class);
+        simulator.set(codec.serialize("key"), codec.serialize("v2"));
+
+        Thread.sleep(1100);
+
+        assertEquals(Optional.of("v2"), junoDBManager.get("key", String.class));
+    }
+
+    @Test
+    void cachedValueOfAnotherTypeIsAMiss() {
+        NearCache nearCache = new NearCache(new NearCacheConfig(100, 60));
+        byte[] key = codec.serialize("key");
+        nearCache.put(key, "value", 60);
+
+        assertEquals(Optional.of("value"), nearCache.get(key, String.class));
+        assertEquals(Optional.empty(), nearCache.get(key, Integer.class));
+        nearCache.put(codec.serialize("other"), "value", 0);
+        assertEquals(Optional.empty(), nearCache.get(codec.serialize("other"), String.class));
+    }
+
+    private static final class PausingSimulator extends JunoClientSimulator {
+        private final CountDownLatch fetched = new CountDownLatch(1);
+        private final CountDownLatch proceed = new CountDownLatch(1);
+        private volatile boolean pauseNextGet;
+
+        private PausingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public JunoResponse get(byte[] key, long timeToLiveSec) {
+            JunoResponse junoResponse = super.get(key, timeToLiveSec);
+            if (pauseNextGet) {
+                pauseNextGet = false;
+                fetched.countDown();
+                try {
+                    proceed.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return junoResponse;
+        }
+    }
+}
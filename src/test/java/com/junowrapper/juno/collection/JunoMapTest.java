@@ -0,0 +1,150 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoMapTest {
+
+    private final JunoDBConfig junoDBConfig = new JunoDBConfig("localhost", 8080, "test", "test");
+    private final CountingSimulator simulator = new CountingSimulator(junoDBConfig);
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void putAllWritesEveryEntryInOneBatch() {
+        JunoMap<Integer, String> map = new JunoMap<>("map", junoDBManager);
+
+        map.putAll(entries(100));
+
+        assertEquals(1, simulator.batches.get());
+        assertEquals(100, map.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("value-" + i, map.get(i));
+        }
+    }
+
+    @Test
+    void putAllOnlyIndexesWrittenEntries() {
+        junoDBConfig.setMaxValueSizeInBytes(2000);
+        JunoMap<Integer, String> map = new JunoMap<>("map", junoDBManager);
+        Map<Integer, String> entries = entries(10);
+        entries.put(3, new String(new char[5000]));
+
+        map.putAll(entries);
+
+        assertEquals(9, map.size());
+        assertFalse(map.keySet().contains(3));
+        assertNull(map.get(3));
+    }
+
+    @Test
+    void clearDeletesEveryEntryInOneBatch() {
+        JunoMap<Integer, String> map = new JunoMap<>("map", junoDBManager);
+        map.putAll(entries(50));
+
+        map.clear();
+
+        assertEquals(2, simulator.batches.get());
+        assertEquals(0, map.size());
+        assertNull(map.get(7));
+    }
+
+    @Test
+    void valuesAndEntrySetFetchInOneBatchAndKeepKeyTypes() {
+        JunoMap<Integer, String> map = new JunoMap<>("map", junoDBManager);
+        map.putAll(entries(20));
+
+        assertEquals(new HashSet<>(entries(20).values()), new HashSet<>(map.values()));
+        assertEquals(2, simulator.batches.get());
+
+        Map<Integer, String> copy = new HashMap<>();
+        map.entrySet().forEach(e -> copy.put(e.getKey(), e.getValue()));
+        assertEquals(entries(20), copy);
+        assertEquals(3, simulator.batches.get());
+    }
+
+    @Test
+    void emptyMapSendsNoBatches() {
+        JunoMap<Integer, String> map = new JunoMap<>("map", junoDBManager);
+
+        map.putAll(new HashMap<>());
+        map.clear();
+
+        assertTrue(map.values().isEmpty());
+        assertTrue(map.entrySet().isEmpty());
+        assertEquals(0, simulator.batches.get());
+    }
+
+    @Test
+    void concurrentPutsKeepEveryKeyInTheIndex() throws InterruptedException {
+        JunoMap<String, String> map = new JunoMap<>("map", JunoSetTest.manager());
+        map.setOptimistic(true);
+
+        JunoSetTest.concurrently(i -> assertEquals("value-" + i, map.put("key-" + i, "value-" + i)));
+
+        assertEquals(400, map.keySet().size());
+        assertEquals(400, map.size());
+        assertEquals("value-7", map.get("key-7"));
+    }
+
+    @Test
+    void concurrentPutsKeepEveryKeyInABucketedIndex() throws InterruptedException {
+        JunoMap<String, String> map = new JunoMap<>("map", TimeUnit.HOURS, 1, 8, JunoSetTest.manager());
+        map.setOptimistic(true);
+
+        JunoSetTest.concurrently(i -> assertEquals("value-" + i, map.put("key-" + i, "value-" + i)));
+
+        assertEquals(400, map.keySet().size());
+    }
+
+    @Test
+    void concurrentRemovesDropEveryKeyFromTheIndex() throws InterruptedException {
+        JunoMap<String, String> map = new JunoMap<>("map", JunoSetTest.manager());
+        map.setOptimistic(true);
+        for (int i = 0; i < 400; i++) {
+            map.put("key-" + i, "value-" + i);
+        }
+
+        JunoSetTest.concurrently(i -> assertEquals("value-" + i, map.remove("key-" + i)));
+
+        assertEquals(0, map.keySet().size());
+        assertNull(map.get("key-7"));
+    }
+
+    private static Map<Integer, String> entries(int count) {
+        Map<Integer, String> entries = new HashMap<>();
+        for (int i = 0; i < count; i++) {
+            entries.put(i, "value-" + i);
+        }
+        return entries;
+    }
+
+    private static final class CountingSimulator extends JunoClientSimulator {
+        private final AtomicInteger batches = new AtomicInteger();
+
+        private CountingSimulator(JunoDBConfig junoDBConfig) {
+            super(junoDBConfig);
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            batches.incrementAndGet();
+            return super.doBatch(requests);
+        }
+    }
+}
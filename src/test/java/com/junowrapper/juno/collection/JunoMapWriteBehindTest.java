@@ -0,0 +1,290 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.WriteBehindConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoMapWriteBehindTest {
+
+    private final CountingSimulator simulator = new CountingSimulator();
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void writesAreBufferedUntilFlushed() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        try {
+            for (int i = 0; i < 10; i++) {
+                assertEquals("value-" + i, map.put("key-" + i, "value-" + i));
+            }
+
+            assertEquals(0, simulator.recordCount());
+            assertEquals("value-3", map.get("key-3"));
+            assertTrue(map.containsKey("key-3"));
+
+            map.flush();
+
+            // ten entries and the key index
+            assertEquals(11, simulator.recordCount());
+            assertEquals(10, simulator.requests.get());
+            assertEquals(10, new JunoMap<String, String>("map", junoDBManager).size());
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void repeatedWritesOfAKeyAreMerged() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        try {
+            for (int i = 0; i < 100; i++) {
+                map.put("key", "value-" + i);
+            }
+            map.remove("other");
+
+            map.flush();
+
+            assertEquals(1, simulator.requests.get());
+            assertEquals("value-99", new JunoMap<String, String>("map", junoDBManager).get("key"));
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void pendingRemoveHidesTheStoredValue() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        try {
+            map.put("key", "value");
+            map.flush();
+
+            assertEquals("value", map.remove("key"));
+            assertNull(map.get("key"));
+            assertEquals("value", new JunoMap<String, String>("map", junoDBManager).get("key"));
+
+            map.flush();
+
+            assertNull(new JunoMap<String, String>("map", junoDBManager).get("key"));
+            assertEquals(0, map.size());
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void flushesOnceFlushSizeKeysArePending() throws InterruptedException {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(10, 60_000));
+        try {
+            Map<String, String> entries = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                entries.put("key-" + i, "value-" + i);
+            }
+            map.putAll(entries);
+
+            assertTrue(eventually(() -> simulator.recordCount() == 11), "flush size never triggered a flush");
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void flushesEveryInterval() throws InterruptedException {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 20));
+        try {
+            map.put("key", "value");
+
+            assertTrue(eventually(() -> simulator.recordCount() == 2), "interval never triggered a flush");
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void failedWritesStayPendingForTheNextFlush() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        try {
+            map.put("key", "value");
+            simulator.withErrors(1, OperationStatus.NoStorage);
+
+            map.flush();
+
+            assertEquals(0, simulator.recordCount());
+            assertEquals("value", map.get("key"));
+
+            simulator.withErrors(0, OperationStatus.NoStorage);
+            map.flush();
+
+            assertEquals("value", new JunoMap<String, String>("map", junoDBManager).get("key"));
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void refusedWritesAreDroppedAtOnce() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        try {
+            map.put("key", "stored");
+            map.flush();
+            map.put("key", "refused");
+            simulator.withErrors(1, OperationStatus.IllegalArgument);
+
+            map.flush();
+
+            assertEquals(0, map.pendingWrites());
+            simulator.withErrors(0, OperationStatus.IllegalArgument);
+            assertEquals("stored", map.get("key"));
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void transientFailuresAreDroppedAfterMaxRetries() {
+        WriteBehindConfig writeBehindConfig = writeBehindConfig(1000, 60_000);
+        writeBehindConfig.setMaxRetries(2);
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig);
+        try {
+            map.put("key", "value");
+            simulator.withErrors(1, OperationStatus.NoStorage);
+
+            map.flush();
+            map.flush();
+            assertEquals("value", map.get("key"));
+            map.flush();
+
+            assertEquals(0, map.pendingWrites());
+            simulator.withErrors(0, OperationStatus.NoStorage);
+            assertNull(map.get("key"));
+            assertEquals(0, simulator.recordCount());
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void mapsShareTheFlushThreads() throws InterruptedException {
+        List<JunoMap<String, String>> maps = new ArrayList<>();
+        try {
+            for (int i = 0; i < 20; i++) {
+                JunoMap<String, String> map = new JunoMap<>("map-" + i, junoDBManager);
+                map.setWriteBehind(writeBehindConfig(1000, 5));
+                map.put("key", "value");
+                maps.add(map);
+            }
+
+            assertTrue(eventually(() -> simulator.recordCount() == 40), "interval never flushed every map");
+            long threads = Thread.getAllStackTraces().keySet().stream()
+                    .filter(t -> t.getName().startsWith("juno-write-behind-"))
+                    .count();
+            assertTrue(threads <= WriteBehindBuffer.FLUSH_THREADS, threads + " flush threads");
+        } finally {
+            maps.forEach(JunoMap::close);
+        }
+    }
+
+    @Test
+    void closeFlushesAndTurnsWriteBehindOff() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        map.put("key", "value");
+
+        map.close();
+
+        assertEquals(2, simulator.recordCount());
+        assertEquals("value2", map.put("key", "value2"));
+        assertEquals("value2", new JunoMap<String, String>("map", junoDBManager).get("key"));
+    }
+
+    @Test
+    void fullBufferRejectsWritesWhileJunoIsDown() {
+        WriteBehindConfig writeBehindConfig = writeBehindConfig(1000, 60_000);
+        writeBehindConfig.setMaxPendingWrites(2);
+        writeBehindConfig.setMaxBlockMSec(50);
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig);
+        try {
+            simulator.withErrors(1, OperationStatus.NoStorage);
+            assertEquals("value", map.put("key-1", "value"));
+            assertEquals("value", map.put("key-2", "value"));
+
+            assertNull(map.put("key-3", "value"));
+            assertEquals("value2", map.put("key-1", "value2"));
+
+            simulator.withErrors(0, OperationStatus.NoStorage);
+            map.flush();
+            assertEquals("value", map.put("key-3", "value"));
+        } finally {
+            map.setWriteBehind(null);
+        }
+    }
+
+    @Test
+    void turningWriteBehindOffFlushes() {
+        JunoMap<String, String> map = writeBehindMap(writeBehindConfig(1000, 60_000));
+        map.put("key", "value");
+
+        map.setWriteBehind(null);
+
+        assertEquals("value", new JunoMap<String, String>("map", junoDBManager).get("key"));
+        assertEquals("value2", map.put("key", "value2"));
+        assertEquals("value2", new JunoMap<String, String>("map", junoDBManager).get("key"));
+    }
+
+    private JunoMap<String, String> writeBehindMap(WriteBehindConfig writeBehindConfig) {
+        JunoMap<String, String> map = new JunoMap<>("map", junoDBManager);
+        map.setWriteBehind(writeBehindConfig);
+        return map;
+    }
+
+    private static WriteBehindConfig writeBehindConfig(int flushSize, long flushIntervalMSec) {
+        WriteBehindConfig writeBehindConfig = new WriteBehindConfig(flushSize, flushIntervalMSec, 10_000);
+        writeBehindConfig.setFlushOnShutdown(false);
+        return writeBehindConfig;
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    private static final class CountingSimulator extends JunoClientSimulator {
+        // entry writes only, the key index is written on its own
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private CountingSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            for (JunoRequest request : requests) {
+                if (request.getType() != JunoRequest.OperationType.Get) {
+                    this.requests.incrementAndGet();
+                }
+            }
+            return super.doBatch(requests);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.model.RetryConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoSetTest {
+
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 100;
+
+    private final JunoDBManager junoDBManager = manager();
+
+    @Test
+    void concurrentOptimisticAddsAreNotLost() throws InterruptedException {
+        JunoSet<String> set = optimisticSet();
+
+        concurrently(i -> assertTrue(set.add("member-" + i)));
+
+        assertEquals(THREADS * PER_THREAD, set.size());
+        for (int i = 0; i < THREADS * PER_THREAD; i++) {
+            assertTrue(set.contains("member-" + i));
+        }
+    }
+
+    @Test
+    void concurrentOptimisticRemovesAreNotLost() throws InterruptedException {
+        JunoSet<String> set = optimisticSet();
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < THREADS * PER_THREAD + 1; i++) {
+            members.add("member-" + i);
+        }
+        assertTrue(set.addAll(members));
+
+        concurrently(i -> assertTrue(set.remove("member-" + i)));
+
+        assertEquals(1, set.size());
+        assertTrue(set.contains("member-" + THREADS * PER_THREAD));
+    }
+
+    @Test
+    void unchangedSetIsNotWritten() {
+        JunoSet<String> set = optimisticSet();
+        assertTrue(set.add("member"));
+
+        assertFalse(set.add("member"));
+        assertFalse(set.remove("other"));
+        assertEquals(1, set.size());
+    }
+
+    private JunoSet<String> optimisticSet() {
+        JunoSet<String> set = new JunoSet<>("set", junoDBManager);
+        set.setOptimistic(true);
+        return set;
+    }
+
+    static JunoDBManager manager() {
+        JunoDBManager junoDBManager = new JunoDBManager(
+                new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test")), new DefaultCodec());
+        // every thread hits the same record, leave room for plenty of conflicts
+        junoDBManager.setRetryConfig(new RetryConfig(1000, 1, 5));
+        return junoDBManager;
+    }
+
+    /**
+     * Runs {@code action} for 0 until THREADS * PER_THREAD, each thread taking its own slice, all starting together.
+     */
+    static void concurrently(IntConsumer action) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> errors = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int first = t * PER_THREAD;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = first; i < first + PER_THREAD; i++) {
+                        action.accept(i);
+                    }
+                } catch (Throwable e) {
+                    synchronized (errors) {
+                        errors.add(e);
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty(), () -> "Failed: " + errors);
+    }
+}
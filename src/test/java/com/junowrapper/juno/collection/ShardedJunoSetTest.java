@@ -0,0 +1,184 @@
+package com.junowrapper.juno.collection;
+
+import com.junowrapper.codec.CompactKeyCodec;
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedJunoSetTest {
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+
+    @Test
+    void everyMemberLivesInExactlyOneBucket() {
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, junoDBManager);
+        List<String> members = members(200);
+        members.forEach(set::add);
+
+        Set<String> seen = new HashSet<>();
+        int used = 0;
+        for (int i = 0; i < 8; i++) {
+            Set<String> bucket = bucket("set", i);
+            for (String member : bucket) {
+                assertTrue(seen.add(member), member + " is in more than one bucket");
+            }
+            used += bucket.isEmpty() ? 0 : 1;
+        }
+        assertEquals(new HashSet<>(members), seen);
+        assertEquals(8, used);
+    }
+
+    @Test
+    void singleMemberOperationsTouchOneBucket() {
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, junoDBManager);
+
+        assertTrue(set.add("member"));
+        // the manifest and one bucket
+        assertEquals(2, simulator.recordCount());
+        assertFalse(set.add("member"));
+        assertTrue(set.contains("member"));
+        assertTrue(set.remove("member"));
+        assertFalse(set.contains("member"));
+        assertFalse(set.remove("member"));
+    }
+
+    @Test
+    void bulkOperationsRouteMembersToTheirBuckets() {
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, junoDBManager);
+        List<String> members = members(100);
+
+        assertTrue(set.addAll(members));
+        assertEquals(100, set.size());
+        assertTrue(set.containsAll(members.subList(10, 60)));
+        members.forEach(m -> assertTrue(set.contains(m), m));
+
+        assertTrue(set.removeAll(members.subList(0, 50)));
+        assertEquals(new HashSet<>(members.subList(50, 100)), new HashSet<>(set));
+        assertFalse(set.containsAll(members.subList(40, 60)));
+
+        assertTrue(set.retainAll(members.subList(90, 100)));
+        assertEquals(10, set.size());
+        assertEquals(10, set.toArray().length);
+
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void otherInstancesShareTheLayout() {
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, junoDBManager);
+        set.addAll(members(50));
+
+        ShardedJunoSet<String> other = new ShardedJunoSet<>("set", 32, TimeUnit.HOURS, 1,
+                new JunoDBManager(simulator, new DefaultCodec()));
+
+        assertEquals(8, other.getBucketCount());
+        assertEquals(50, other.size());
+        members(50).forEach(m -> assertTrue(other.contains(m), m));
+    }
+
+    @Test
+    void bucketsFollowTheKeyCodecEncoding() {
+        junoDBManager.setKeyCodec(new CompactKeyCodec());
+        ShardedJunoSet<Long> set = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, junoDBManager);
+        for (long i = 0; i < 100; i++) {
+            set.add(i);
+        }
+
+        JunoDBManager other = new JunoDBManager(simulator, new DefaultCodec());
+        other.setKeyCodec(new CompactKeyCodec());
+        ShardedJunoSet<Long> otherSet = new ShardedJunoSet<>("set", 8, TimeUnit.HOURS, 1, other);
+        for (long i = 0; i < 100; i++) {
+            assertTrue(otherSet.contains(i), String.valueOf(i));
+        }
+        assertFalse(otherSet.contains(100L));
+        assertEquals(100, otherSet.size());
+    }
+
+    @Test
+    void failedBucketReadLeavesTheBucketAlone() {
+        FailingReadsSimulator failing = new FailingReadsSimulator();
+        JunoDBManager manager = new JunoDBManager(failing, new DefaultCodec());
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", 1, TimeUnit.HOURS, 1, manager);
+        set.addAll(members(10));
+
+        failing.failReads = true;
+        assertFalse(set.add("new"));
+        assertFalse(set.remove("member-3"));
+        assertFalse(set.addAll(Arrays.asList("new", "other")));
+        assertFalse(set.removeAll(members(5)));
+        failing.failReads = false;
+
+        assertEquals(new HashSet<>(members(10)), new HashSet<>(set));
+    }
+
+    @Test
+    void iteratorRemoveDeletesTheMember() {
+        ShardedJunoSet<String> set = new ShardedJunoSet<>("set", junoDBManager);
+        set.addAll(Arrays.asList("a", "b", "c"));
+
+        for (Iterator<String> it = set.iterator(); it.hasNext(); ) {
+            if (it.next().equals("b")) {
+                it.remove();
+            }
+        }
+
+        assertEquals(new HashSet<>(Arrays.asList("a", "c")), new HashSet<>(set));
+    }
+
+    private Set<String> bucket(String junoKey, int bucket) {
+        return junoDBManager.get(junoKey + "\u0000bucket\u0000" + bucket, HashSet.class).orElse(new HashSet<>());
+    }
+
+    private static List<String> members(int count) {
+        List<String> members = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            members.add("member-" + i);
+        }
+        return members;
+    }
+
+    /**
+     * Fails every read with NoStorage while {@code failReads} is set; writes go through.
+     */
+    private static final class FailingReadsSimulator extends JunoClientSimulator {
+        private volatile boolean failReads;
+
+        private FailingReadsSimulator() {
+            super(new JunoDBConfig("localhost", 8080, "test", "test"));
+        }
+
+        @Override
+        public Iterable<JunoResponse> doBatch(Iterable<JunoRequest> requests) {
+            if (!failReads) {
+                return super.doBatch(requests);
+            }
+            List<JunoResponse> junoResponses = new ArrayList<>();
+            for (JunoRequest request : requests) {
+                junoResponses.add(request.getType() == JunoRequest.OperationType.Get
+                        ? new JunoResponse(request.key(), null, 0, 0, 0, OperationStatus.NoStorage)
+                        : super.doBatch(Collections.singletonList(request)).iterator().next());
+            }
+            return junoResponses;
+        }
+    }
+}
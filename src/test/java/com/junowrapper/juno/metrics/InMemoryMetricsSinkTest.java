@@ -0,0 +1,108 @@
+package com.junowrapper.juno.metrics;
+
+import com.junowrapper.codec.DefaultCodec;
+import com.junowrapper.juno.JunoDBManager;
+import com.junowrapper.juno.metrics.MetricsSink.CodecPhase;
+import com.junowrapper.juno.metrics.MetricsSink.Operation;
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.junowrapper.juno.simulator.JunoClientSimulator;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.OperationStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryMetricsSinkTest {
+
+    private final JunoClientSimulator simulator = new JunoClientSimulator(new JunoDBConfig("localhost", 8080, "test", "test"));
+    private final JunoDBManager junoDBManager = new JunoDBManager(simulator, new DefaultCodec());
+    private final InMemoryMetricsSink sink = new InMemoryMetricsSink();
+
+    @Test
+    void countsEveryOperationAndStatus() {
+        junoDBManager.setMetricsSink(sink);
+        junoDBManager.create("a", "1");
+        junoDBManager.create("b", "2");
+        junoDBManager.create("c", "3");
+        junoDBManager.get("a", String.class);
+        junoDBManager.get("missing", String.class);
+        junoDBManager.delete("b");
+        junoDBManager.doBatch(Arrays.asList(
+                junoDBManager.setJunoRequest("a", JunoRequest.OperationType.Get),
+                junoDBManager.setJunoRequest("b", JunoRequest.OperationType.Get),
+                junoDBManager.setJunoRequest("c", JunoRequest.OperationType.Get),
+                junoDBManager.setJunoRequest("d", "4", JunoRequest.OperationType.Create)));
+
+        MetricsSnapshot snapshot = sink.snapshot();
+
+        assertEquals(3, snapshot.getLatencies().get(Operation.CREATE).getCount());
+        assertEquals(2, snapshot.getLatencies().get(Operation.GET).getCount());
+        assertEquals(1, snapshot.getLatencies().get(Operation.DELETE).getCount());
+        assertEquals(1, snapshot.getLatencies().get(Operation.BATCH).getCount());
+        assertEquals(Long.valueOf(3), snapshot.getStatusCounts().get(Operation.CREATE).get(OperationStatus.Success));
+        assertEquals(Long.valueOf(1), snapshot.getStatusCounts().get(Operation.GET).get(OperationStatus.Success));
+        assertEquals(Long.valueOf(1), snapshot.getStatusCounts().get(Operation.GET).get(OperationStatus.NoKey));
+        assertEquals(Long.valueOf(3), snapshot.getStatusCounts().get(Operation.BATCH).get(OperationStatus.Success));
+        assertEquals(Long.valueOf(1), snapshot.getStatusCounts().get(Operation.BATCH).get(OperationStatus.NoKey));
+        assertEquals(1, snapshot.getBatchSizes().getCount());
+        assertEquals(4, snapshot.getBatchSizes().getMax());
+        // "1", "2", "3" and "4"
+        assertEquals(4, snapshot.getValueSizes().getCount());
+        assertTrue(snapshot.getKeySizes().getCount() >= 10, snapshot.getKeySizes().toString());
+        // only get decodes, batch responses are handed back raw
+        assertEquals(1, snapshot.getCodecTimes().get(CodecPhase.DESERIALIZE).getCount());
+        assertEquals(Long.valueOf(0), snapshot.getFailureCounts().get(Operation.GET));
+    }
+
+    @Test
+    void countsFailedCalls() {
+        junoDBManager.setMetricsSink(sink);
+        simulator.withErrors(1, OperationStatus.InternalError);
+
+        junoDBManager.get("a", String.class);
+        junoDBManager.create("a", "1");
+
+        MetricsSnapshot snapshot = sink.snapshot();
+        assertEquals(Long.valueOf(1), snapshot.getFailureCounts().get(Operation.GET));
+        assertEquals(Long.valueOf(1), snapshot.getFailureCounts().get(Operation.CREATE));
+        assertEquals(1, snapshot.getLatencies().get(Operation.GET).getCount());
+    }
+
+    @Test
+    void snapshotCoversOnlyTheLastInterval() {
+        sink.recordLatency(Operation.GET, 1000);
+        sink.recordStatus(Operation.GET, OperationStatus.Success);
+        sink.recordFailure(Operation.GET, new RuntimeException());
+        assertEquals(1, sink.snapshot().getLatencies().get(Operation.GET).getCount());
+
+        MetricsSnapshot next = sink.snapshot();
+
+        assertEquals(0, next.getLatencies().get(Operation.GET).getCount());
+        assertTrue(next.getStatusCounts().get(Operation.GET).isEmpty());
+        assertEquals(Long.valueOf(0), next.getFailureCounts().get(Operation.GET));
+    }
+
+    @Test
+    void percentilesFollowTheRecordedDistribution() {
+        for (int i = 1; i <= 1000; i++) {
+            sink.recordLatency(Operation.GET, TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        sink.recordLatency(Operation.GET, TimeUnit.HOURS.toNanos(1));
+
+        MetricsSnapshot.HistogramSummary latency = sink.snapshot().getLatencies().get(Operation.GET);
+
+        assertEquals(1001, latency.getCount());
+        assertClose(TimeUnit.MICROSECONDS.toNanos(500), latency.getP50());
+        assertClose(TimeUnit.MICROSECONDS.toNanos(990), latency.getP99());
+        // values above the ceiling are clamped to it
+        assertClose(TimeUnit.MINUTES.toNanos(1), latency.getMax());
+    }
+
+    private static void assertClose(long expected, long actual) {
+        assertTrue(Math.abs(expected - actual) <= expected / 100, "expected ~" + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,192 @@
+package com.junowrapper.juno.simulator;
+
+import com.junowrapper.juno.model.JunoDBConfig;
+import com.paypal.juno.client.io.JunoRequest;
+import com.paypal.juno.client.io.JunoResponse;
+import com.paypal.juno.client.io.OperationStatus;
+import com.paypal.juno.exception.JunoException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JunoClientSimulatorTest {
+
+    private static final byte[] KEY = bytes("key");
+
+    private final JunoDBConfig junoDBConfig = new JunoDBConfig("localhost", 8080, "test", "test");
+    private final JunoClientSimulator simulator = new JunoClientSimulator(junoDBConfig);
+
+    @Test
+    void createGetAndDelete() {
+        assertEquals(OperationStatus.NoKey, simulator.get(KEY).getStatus());
+
+        JunoResponse created = simulator.create(KEY, bytes("v1"), 60);
+        assertEquals(OperationStatus.Success, created.getStatus());
+        assertEquals(1, created.getVersion());
+
+        JunoResponse read = simulator.get(KEY);
+        assertEquals(OperationStatus.Success, read.getStatus());
+        assertArrayEquals(bytes("v1"), read.getValue());
+        assertTrue(read.getTtl() > 0 && read.getTtl() <= 60, "ttl " + read.getTtl());
+
+        assertEquals(OperationStatus.Success, simulator.delete(KEY).getStatus());
+        assertEquals(OperationStatus.NoKey, simulator.get(KEY).getStatus());
+        assertEquals(0, simulator.recordCount());
+    }
+
+    @Test
+    void createOfExistingKeyViolatesUniqueness() {
+        simulator.create(KEY, bytes("v1"));
+
+        assertEquals(OperationStatus.UniqueKeyViolation, simulator.create(KEY, bytes("v2")).getStatus());
+        assertArrayEquals(bytes("v1"), simulator.get(KEY).getValue());
+    }
+
+    @Test
+    void writesBumpTheVersion() {
+        simulator.set(KEY, bytes("v1"));
+        assertEquals(2, simulator.set(KEY, bytes("v2")).getVersion());
+        assertEquals(3, simulator.update(KEY, bytes("v3")).getVersion());
+        assertEquals(OperationStatus.NoKey, simulator.update(bytes("missing"), bytes("v")).getStatus());
+    }
+
+    @Test
+    void compareAndSetFailsOnStaleVersion() {
+        JunoResponse first = simulator.create(KEY, bytes("v1"));
+        JunoResponse second = simulator.compareAndSet(first.getRecordContext(), bytes("v2"), 0);
+        assertEquals(OperationStatus.Success, second.getStatus());
+
+        JunoResponse stale = simulator.compareAndSet(first.getRecordContext(), bytes("v3"), 0);
+        assertEquals(OperationStatus.ConditionViolation, stale.getStatus());
+        assertArrayEquals(bytes("v2"), simulator.get(KEY).getValue());
+    }
+
+    @Test
+    void getWithTtlExtendsTheRecord() {
+        simulator.create(KEY, bytes("v1"), 10);
+
+        assertTrue(simulator.get(KEY, 100).getTtl() > 10);
+        assertTrue(simulator.get(KEY).getTtl() > 10);
+    }
+
+    @Test
+    void expiredRecordsAreGone() throws InterruptedException {
+        simulator.create(KEY, bytes("v1"), 1);
+        Thread.sleep(1100);
+
+        assertEquals(OperationStatus.NoKey, simulator.get(KEY).getStatus());
+        assertEquals(OperationStatus.Success, simulator.create(KEY, bytes("v2")).getStatus());
+    }
+
+    @Test
+    void enforcesLimitsFromConfig() {
+        junoDBConfig.setMaxKeySizeInBytes(8);
+        junoDBConfig.setMaxValueSizeInBytes(8);
+
+        assertThrows(JunoException.class, () -> simulator.create(bytes("a-much-too-long-key"), bytes("v")));
+        assertThrows(JunoException.class, () -> simulator.create(KEY, new byte[9]));
+        assertThrows(JunoException.class, () -> simulator.create(KEY, bytes("v"), junoDBConfig.getMaxRecordLifeTimeSec() + 1));
+        assertThrows(JunoException.class, () -> simulator.get(new byte[0]));
+    }
+
+    @Test
+    void batchAnswersEveryRequestInOrder() {
+        simulator.create(bytes("b"), bytes("old"));
+        List<JunoRequest> requests = Arrays.asList(
+                new JunoRequest(bytes("a"), bytes("va"), 0, 60, JunoRequest.OperationType.Create),
+                new JunoRequest(bytes("b"), bytes("vb"), 0, 60, JunoRequest.OperationType.Create),
+                new JunoRequest(bytes("c"), null, 0, 0, JunoRequest.OperationType.Get),
+                new JunoRequest(bytes("b"), null, 0, 0, JunoRequest.OperationType.Destroy));
+
+        List<JunoResponse> responses = new ArrayList<>();
+        simulator.doBatch(requests).forEach(responses::add);
+
+        assertEquals(4, responses.size());
+        assertEquals(OperationStatus.Success, responses.get(0).getStatus());
+        assertEquals(OperationStatus.UniqueKeyViolation, responses.get(1).getStatus());
+        assertEquals(OperationStatus.NoKey, responses.get(2).getStatus());
+        assertEquals(OperationStatus.Success, responses.get(3).getStatus());
+        for (int i = 0; i < requests.size(); i++) {
+            assertArrayEquals(requests.get(i).key(), responses.get(i).getKey());
+        }
+    }
+
+    @Test
+    void injectedErrorsThrowForSingleOperationsAndReportStatusInBatches() {
+        simulator.withErrors(1, OperationStatus.NoStorage);
+
+        assertThrows(JunoException.class, () -> simulator.get(KEY));
+        for (JunoResponse response : simulator.doBatch(Arrays.asList(
+                new JunoRequest(bytes("a"), bytes("v"), 0, 60, JunoRequest.OperationType.Set),
+                new JunoRequest(bytes("b"), bytes("v"), 0, 60, JunoRequest.OperationType.Set)))) {
+            assertEquals(OperationStatus.NoStorage, response.getStatus());
+        }
+        assertEquals(0, simulator.recordCount());
+    }
+
+    @Test
+    void batchErrorsAreDrawnOncePerRequest() {
+        simulator.withErrors(0.5, OperationStatus.NoStorage);
+        List<JunoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            requests.add(new JunoRequest(bytes("key-" + i), bytes("v"), 0, 60, JunoRequest.OperationType.Set));
+        }
+
+        for (int batch = 0; batch < 20; batch++) {
+            int failed = 0;
+            for (JunoResponse response : simulator.doBatch(requests)) {
+                failed += response.getStatus() == OperationStatus.NoStorage ? 1 : 0;
+            }
+            assertTrue(failed > 400 && failed < 600, failed + " of 1000 failed");
+        }
+    }
+
+    @Test
+    void latencyAboveResponseTimeoutTimesOut() {
+        junoDBConfig.setResponseTimeoutMSec(20);
+        simulator.withLatency(LatencyDistribution.fixed(1, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        assertThrows(JunoException.class, () -> simulator.get(KEY));
+        long elapsedMSec = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMSec >= 20 && elapsedMSec < 500, "took " + elapsedMSec + "ms");
+
+        JunoResponse response = simulator.doBatch(Arrays.asList(
+                new JunoRequest(KEY, null, 0, 0, JunoRequest.OperationType.Get))).iterator().next();
+        assertEquals(OperationStatus.ResponseTimeout, response.getStatus());
+    }
+
+    @Test
+    void timeoutsAreInjectedAtTheConfiguredRate() {
+        junoDBConfig.setResponseTimeoutMSec(1);
+        simulator.withTimeouts(1);
+
+        JunoException e = assertThrows(JunoException.class, () -> simulator.get(KEY));
+        assertEquals(OperationStatus.ResponseTimeout.getErrorText(), e.getMessage());
+    }
+
+    @Test
+    void latencyDistributionsStayInRange() {
+        LatencyDistribution uniform = LatencyDistribution.uniform(1, 2, TimeUnit.MILLISECONDS);
+        for (int i = 0; i < 1000; i++) {
+            long nanos = uniform.nextNanos();
+            assertTrue(nanos >= 1_000_000 && nanos <= 2_000_000, "uniform " + nanos);
+            assertTrue(LatencyDistribution.exponential(1, TimeUnit.MILLISECONDS).nextNanos() >= 0);
+        }
+        assertEquals(5_000_000, LatencyDistribution.fixed(5, TimeUnit.MILLISECONDS).nextNanos());
+        assertEquals(0, LatencyDistribution.none().nextNanos());
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}